@@ -10,6 +10,8 @@ import io.geekstore.custom.graphql.CustomGraphQLServletContext;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.Data;
 
+import java.util.function.Supplier;
+
 /**
  * The RequestContext holds information relevant to the current request, which may be
  * required at various points of the stack.
@@ -22,6 +24,22 @@ public class RequestContext {
     private boolean authorized;
     private boolean authorizedAsOwnerOnly;
     private ApiType apiType;
+    /**
+     * Creates an anonymous session when a request which has none needs one to hold state, such as an active
+     * Order. Unset if the request already has a session, or cannot get one.
+     */
+    private Supplier<CachedSession> anonymousSessionFactory;
+
+    /**
+     * Returns the session, creating an anonymous one if there is none yet and the request may have one.
+     */
+    public CachedSession getOrCreateSession() {
+        if (session == null && anonymousSessionFactory != null) {
+            session = anonymousSessionFactory.get();
+            anonymousSessionFactory = null;
+        }
+        return session;
+    }
 
     public Long getActiveUserId() {
         if (session == null || session.getUser()== null) return null;
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.common.utils;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The compiled copy of the properties from one bean class to another, with the same rules as
+ * {@link BeanUtils#copyProperties}: a property is copied if the source has a getter & the target a setter of the
+ * same name, and the type returned by the getter is assignable to the type of the setter.
+ *
+ * The properties are resolved once per pair of classes. Getters, setters & the no-arg constructor are then bound
+ * through {@link LambdaMetafactory} into plain functional interfaces, so that a copy costs no more than the
+ * handwritten calls. Members which are not public, or whose types are not, fall back to an accessible
+ * {@link MethodHandle}.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+final class BeanCopier {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<?> targetClass;
+    private final Supplier<Object> constructor;
+    private final PropertyCopy[] properties;
+
+    BeanCopier(Class<?> sourceClass, Class<?> targetClass) {
+        this.targetClass = targetClass;
+        this.constructor = bindConstructor(targetClass);
+        List<PropertyCopy> properties = new ArrayList<>();
+        for(PropertyDescriptor targetPd : BeanUtils.getPropertyDescriptors(targetClass)) {
+            Method writeMethod = targetPd.getWriteMethod();
+            if (writeMethod == null) continue;
+            PropertyDescriptor sourcePd = BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+            Method readMethod = sourcePd == null ? null : sourcePd.getReadMethod();
+            if (readMethod != null &&
+                    ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
+                properties.add(new PropertyCopy(bindGetter(readMethod), bindSetter(writeMethod),
+                        writeMethod.getParameterTypes()[0].isPrimitive()));
+            }
+        }
+        this.properties = properties.toArray(new PropertyCopy[0]);
+    }
+
+    /**
+     * Returns a new instance of the target class, created with its public no-arg constructor.
+     */
+    Object newInstance() {
+        if (this.constructor == null) {
+            throw new RuntimeException("failed to construct instance from class '" + this.targetClass + "'");
+        }
+        return this.constructor.get();
+    }
+
+    /**
+     * Copies the properties onto the target. If `skipNullOrEmpty` is set, null values & empty collections are not
+     * copied. A null value is never copied onto a primitive property.
+     */
+    void copy(Object src, Object target, boolean skipNullOrEmpty) {
+        for(PropertyCopy property : this.properties) {
+            Object value = property.getter.apply(src);
+            if (value == null) {
+                if (skipNullOrEmpty || property.primitive) continue;
+            } else if (skipNullOrEmpty && value instanceof Collection && ((Collection<?>) value).isEmpty()) {
+                continue;
+            }
+            property.setter.accept(target, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> bindConstructor(Class<?> clazz) {
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) return null;
+        Constructor<?> ctor;
+        try {
+            ctor = clazz.getConstructor();
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+        try {
+            MethodHandle handle = LOOKUP.unreflectConstructor(ctor);
+            if (isPublic(clazz)) {
+                return (Supplier<Object>) LambdaMetafactory.metafactory(LOOKUP, "get",
+                        MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                        handle, MethodType.methodType(clazz)).getTarget().invoke();
+            }
+            MethodHandle generic = handle.asType(MethodType.genericMethodType(0));
+            return () -> {
+                try {
+                    return generic.invokeExact();
+                } catch (Throwable ex) {
+                    throw new RuntimeException("failed to construct instance from class '" + clazz + "'", ex);
+                }
+            };
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Cannot bind the constructor of " + clazz, ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> bindGetter(Method method) {
+        try {
+            MethodHandle handle = unreflect(method);
+            if (isPublic(method)) {
+                return (Function<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class), MethodType.genericMethodType(1),
+                        handle, handle.type().wrap()).getTarget().invoke();
+            }
+            MethodHandle generic = handle.asType(MethodType.genericMethodType(1));
+            return src -> {
+                try {
+                    return generic.invokeExact(src);
+                } catch (Throwable ex) {
+                    throw new RuntimeException("failed to read property with " + method, ex);
+                }
+            };
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Cannot bind the getter " + method, ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> bindSetter(Method method) {
+        try {
+            MethodHandle handle = unreflect(method);
+            if (isPublic(method)) {
+                // 基本类型的参数以包装类型接收，由生成的类拆箱
+                MethodType instantiated = MethodType.methodType(void.class,
+                        method.getDeclaringClass(), MethodType.methodType(method.getParameterTypes()[0]).wrap()
+                                .returnType());
+                return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle, instantiated).getTarget().invoke();
+            }
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, value) -> {
+                try {
+                    generic.invokeExact(target, value);
+                } catch (Throwable ex) {
+                    throw new RuntimeException("failed to write property with " + method, ex);
+                }
+            };
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Cannot bind the setter " + method, ex);
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        if (!isPublic(method)) {
+            method.setAccessible(true);
+        }
+        return LOOKUP.unreflect(method);
+    }
+
+    /**
+     * Whether the generated class may link against the method, that is the method & all the types in its
+     * signature are public.
+     */
+    private static boolean isPublic(Method method) {
+        if (!Modifier.isPublic(method.getModifiers()) || !isPublic(method.getDeclaringClass())) return false;
+        if (!isPublic(method.getReturnType())) return false;
+        for(Class<?> type : method.getParameterTypes()) {
+            if (!isPublic(type)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Class<?> clazz) {
+        for(Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            while (c.isArray()) c = c.getComponentType();
+            if (!c.isPrimitive() && !Modifier.isPublic(c.getModifiers())) return false;
+        }
+        return true;
+    }
+
+    private static class PropertyCopy {
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        private final boolean primitive;
+
+        PropertyCopy(Function<Object, Object> getter, BiConsumer<Object, Object> setter, boolean primitive) {
+            this.getter = getter;
+            this.setter = setter;
+            this.primitive = primitive;
+        }
+    }
+}
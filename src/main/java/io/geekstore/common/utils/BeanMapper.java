@@ -5,35 +5,29 @@
 
 package io.geekstore.common.utils;
 
-import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
-
-import java.util.*;
-
 /**
+ * Copies the properties of the same name between beans, with the rules of Spring's `BeanUtils.copyProperties`.
+ * The copy for each pair of source & target classes is compiled once by a {@link BeanCopier} and kept in a
+ * {@link ClassValue}, so that mapping entities to GraphQL types no longer walks the properties reflectively on
+ * every call.
+ *
  * Created on Nov, 2020 by @author bobo
  */
 public abstract class BeanMapper {
-    private static String[] getNullOrEmptyCollectionPropertyNames (Object source) {
-        final BeanWrapper src = new BeanWrapperImpl(source);
-        java.beans.PropertyDescriptor[] pds = src.getPropertyDescriptors();
-
-        Set<String> emptyNames = new HashSet<String>();
-        for(java.beans.PropertyDescriptor pd : pds) {
-            Object srcValue = src.getPropertyValue(pd.getName());
-            if (srcValue == null) emptyNames.add(pd.getName());
-            // 空集合也算
-            if (srcValue instanceof Collection) {
-                Collection collection = (Collection)srcValue;
-                if (collection.size() == 0) {
-                    emptyNames.add(pd.getName());
+    private static final ClassValue<ClassValue<BeanCopier>> copiers = new ClassValue<ClassValue<BeanCopier>>() {
+        @Override
+        protected ClassValue<BeanCopier> computeValue(Class<?> sourceClass) {
+            return new ClassValue<BeanCopier>() {
+                @Override
+                protected BeanCopier computeValue(Class<?> targetClass) {
+                    return new BeanCopier(sourceClass, targetClass);
                 }
-            }
+            };
         }
+    };
 
-        String[] result = new String[emptyNames.size()];
-        return emptyNames.toArray(result);
+    private static BeanCopier getCopier(Object src, Class<?> targetClass) {
+        return copiers.get(src.getClass()).get(targetClass);
     }
 
     /**
@@ -43,7 +37,7 @@ public abstract class BeanMapper {
      * @param target 目标对象
      */
     public static void map(Object src, Object target) {
-        BeanUtils.copyProperties(src, target);
+        getCopier(src, target.getClass()).copy(src, target, false);
     }
 
     /**
@@ -53,7 +47,7 @@ public abstract class BeanMapper {
      * @param target 目标对象
      */
     public static void patch(Object src, Object target) {
-        BeanUtils.copyProperties(src, target, getNullOrEmptyCollectionPropertyNames(src));
+        getCopier(src, target.getClass()).copy(src, target, true);
     }
 
     /**
@@ -64,14 +58,11 @@ public abstract class BeanMapper {
      * @param <T> 目标类型范型
      * @return 目标类实例
      */
+    @SuppressWarnings("unchecked")
     public static <T> T map(Object src, Class<T> clazz) {
-        T target = null;
-        try {
-            target = (T) clazz.getConstructors()[0].newInstance();
-        } catch (Exception ex) {
-            throw new RuntimeException("failed to construct instance from class '" + clazz + "'", ex);
-        }
-        BeanUtils.copyProperties(src, target);
+        BeanCopier copier = getCopier(src, clazz);
+        T target = (T) copier.newInstance();
+        copier.copy(src, target, false);
         return target;
     }
 
@@ -83,14 +74,11 @@ public abstract class BeanMapper {
      * @param <T> 目标类型范型
      * @return 目标类实例
      */
+    @SuppressWarnings("unchecked")
     public static <T> T patch(Object src, Class<T> clazz) {
-        T target = null;
-        try {
-            target = (T) clazz.getConstructors()[0].newInstance();
-        } catch (Exception ex) {
-            throw new RuntimeException("failed to construct instance from class '" + clazz + "'", ex);
-        }
-        BeanUtils.copyProperties(src, target, getNullOrEmptyCollectionPropertyNames(src));
+        BeanCopier copier = getCopier(src, clazz);
+        T target = (T) copier.newInstance();
+        copier.copy(src, target, true);
         return target;
     }
 }
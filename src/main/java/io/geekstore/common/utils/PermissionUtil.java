@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.common.utils;
+
+import io.geekstore.types.common.Permission;
+
+import java.util.Collection;
+
+/**
+ * Encodes sets of {@link Permission}s as a long bitmask, with the bit at the ordinal of each permission set, so
+ * that checking a set of required permissions against the granted ones takes a single bitwise test.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class PermissionUtil {
+    static {
+        if (Permission.values().length > Long.SIZE) {
+            throw new IllegalStateException("Too many permissions to fit in a long bitmask");
+        }
+    }
+
+    /**
+     * Returns the bitmask of the permissions, which may be given either as {@link Permission}s or as their names,
+     * since the permissions of a Role deserialized from JSON by MyBatis end up as strings. Unknown names are
+     * ignored.
+     */
+    public static long toMask(Collection<?> permissions) {
+        long mask = 0L;
+        if (permissions == null) return mask;
+        for(Object permission : permissions) {
+            if (permission instanceof Permission) {
+                mask |= toMask((Permission) permission);
+            } else if (permission != null) {
+                try {
+                    mask |= toMask(Permission.valueOf(permission.toString()));
+                } catch (IllegalArgumentException ex) {
+                    // 已废弃的权限
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static long toMask(Permission permission) {
+        return 1L << permission.ordinal();
+    }
+
+    /**
+     * Whether all the required permissions are granted.
+     */
+    public static boolean hasAll(long grantedMask, long requiredMask) {
+        return (grantedMask & requiredMask) == requiredMask;
+    }
+}
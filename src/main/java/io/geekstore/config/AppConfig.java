@@ -9,9 +9,7 @@ import io.geekstore.common.Constant;
 import io.geekstore.common.RequestContext;
 import io.geekstore.common.utils.IdUtil;
 import io.geekstore.config.asset.*;
-import io.geekstore.config.auth.AuthConfig;
-import io.geekstore.config.auth.AuthenticationStrategy;
-import io.geekstore.config.auth.NativeAuthenticationStrategy;
+import io.geekstore.config.auth.*;
 import io.geekstore.config.collection.CatalogConfig;
 import io.geekstore.config.collection.CollectionFilter;
 import io.geekstore.config.collection.FacetValueCollectionFilter;
@@ -32,21 +30,25 @@ import io.geekstore.config.promotion.conditions.ContainsProductsCondition;
 import io.geekstore.config.promotion.conditions.CustomerGroupCondition;
 import io.geekstore.config.promotion.conditions.HasFacetValuesCondition;
 import io.geekstore.config.promotion.conditions.MinimumOrderAmountCondition;
-import io.geekstore.config.session_cache.InMemorySessionCacheStrategy;
-import io.geekstore.config.session_cache.SessionCacheStrategy;
+import io.geekstore.config.session_cache.*;
 import io.geekstore.config.shipping_method.*;
+import io.geekstore.custom.graphql.DataLoaderExecutor;
 import io.geekstore.email.EmailSender;
 import io.geekstore.email.FileEmailSender;
 import io.geekstore.email.NoopEmailSender;
 import io.geekstore.email.SmtpEmailSender;
 import io.geekstore.options.ConfigOptions;
+import io.geekstore.options.PasswordHashingOptions;
+import io.geekstore.options.SessionCacheOptions;
 import io.geekstore.service.helpers.search_strategy.DbSearchStrategy;
+import io.geekstore.service.helpers.search_strategy.InMemorySearchStrategy;
 import io.geekstore.service.helpers.search_strategy.SearchStrategy;
 import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
 import com.mitchellbosecke.pebble.PebbleEngine;
 import com.mitchellbosecke.pebble.loader.ClasspathLoader;
 import com.mitchellbosecke.pebble.loader.Loader;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -55,7 +57,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
 
@@ -63,13 +64,27 @@ import java.util.*;
  * Created on Nov, 2020 by @author bobo
  */
 @Configuration
+@Slf4j
 public class AppConfig {
     @Autowired
     private ConfigOptions configOptions;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        PasswordHashingOptions options = configOptions.getAuthOptions().getPasswordHashingOptions();
+        int strength = options.getStrength();
+        if (strength <= 0) {
+            strength = BCryptStrengthCalibrator.calibrate(
+                    options.getTargetHashTime(), options.getMinStrength(), options.getMaxStrength());
+            log.info("Calibrated the BCrypt strength to " + strength);
+        }
+        int poolSize = options.getPoolSize() > 0 ? options.getPoolSize() : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, options.getQueueCapacity());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public DataLoaderExecutor dataLoaderExecutor() {
+        return new DataLoaderExecutor(configOptions.getDataLoaderOptions());
     }
 
     @Bean
@@ -132,8 +147,27 @@ public class AppConfig {
     }
 
     @Bean
-    public SessionCacheStrategy sessionCacheStrategy() {
-        return new InMemorySessionCacheStrategy();
+    @ConditionalOnProperty(value = "geekstore.auth-options.session-cache-options.strategy", havingValue = "shared")
+    @ConditionalOnMissingBean(SharedSessionStore.class)
+    public FileSharedSessionStore fileSharedSessionStore() {
+        SessionCacheOptions options = this.configOptions.getAuthOptions().getSessionCacheOptions();
+        return new FileSharedSessionStore(options.getSharedStorePath(), options.getInvalidationPollInterval());
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "geekstore.auth-options.session-cache-options.strategy", havingValue = "shared")
+    public TwoTierSessionCacheStrategy twoTierSessionCacheStrategy(SharedSessionStore sharedSessionStore) {
+        SessionCacheOptions options = this.configOptions.getAuthOptions().getSessionCacheOptions();
+        return new TwoTierSessionCacheStrategy(
+                sharedSessionStore, options.getNearCacheSize(), options.getNearCacheTtl());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SessionCacheStrategy.class)
+    public InMemorySessionCacheStrategy sessionCacheStrategy() {
+        SessionCacheOptions options = this.configOptions.getAuthOptions().getSessionCacheOptions();
+        return new InMemorySessionCacheStrategy(options.getCacheSize(), options.getMaxWeight(),
+                this.configOptions.getAuthOptions().getSessionCacheTTL());
     }
 
     @Bean
@@ -303,6 +337,13 @@ public class AppConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(value = "geekstore.search-options.strategy", havingValue = "memory")
+    public InMemorySearchStrategy inMemorySearchStrategy() {
+        return new InMemorySearchStrategy();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SearchStrategy.class)
     public SearchStrategy searchStrategy() {
         return new DbSearchStrategy();
     }
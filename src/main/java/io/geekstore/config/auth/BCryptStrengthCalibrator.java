@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.auth;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Chooses the BCrypt strength to match a target hash time on the current hardware. The time of a hash doubles
+ * with each increment of the strength, so it is measured once at the minimum strength and extrapolated from there.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class BCryptStrengthCalibrator {
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+    private static final int SAMPLES = 3;
+
+    /**
+     * Returns the highest strength between the bounds whose hash time does not exceed the target, or the minimum
+     * strength if even that one is slower.
+     */
+    public static int calibrate(long targetHashTimeInMs, int minStrength, int maxStrength) {
+        return choose(measure(minStrength), targetHashTimeInMs * 1_000_000L, minStrength, maxStrength);
+    }
+
+    static int choose(long nanosAtMinStrength, long targetNanos, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long nanos = nanosAtMinStrength;
+        while (strength < maxStrength && nanos * 2 <= targetNanos) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD); // 预热
+        long best = Long.MAX_VALUE;
+        for(int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.auth;
+
+import io.geekstore.exception.InternalServerError;
+import io.geekstore.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the hashing & verification of passwords of a delegate encoder on a dedicated, bounded pool of threads.
+ *
+ * Hashing is deliberately slow, so a burst of logins could otherwise take up all the request threads and starve
+ * the rest of the traffic. When `queueCapacity` passwords are already waiting, further calls fail at once with a
+ * {@link TooManyRequestsException}, which tells the client to try again later.
+ *
+ * The pool is exposed through the actuator as the `password.hashing` executor metrics, and the rejected calls
+ * as the `geekstore.password.hashing.rejected` counter.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("PasswordHashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.execute(() -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.execute(() -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(this.executor, "password.hashing", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("geekstore.password.hashing.rejected", this.rejected, AtomicLong::get)
+                .description("Password hashing & verification calls rejected because the queue was full")
+                .register(registry);
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            this.rejected.incrementAndGet();
+            throw new TooManyRequestsException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InternalServerError("Interrupted while hashing a password");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+            throw new InternalServerError(ex.getCause().getMessage());
+        }
+    }
+}
@@ -81,7 +81,8 @@ public class NativeAuthenticationStrategy implements AuthenticationStrategy<Nati
     }
 
     /**
-     * Verify the provided password against the one we have for the given user.
+     * Verify the provided password against the one we have for the given user. A matching password whose hash
+     * is weaker than the currently configured strength is rehashed.
      */
     public boolean verifyUserPassword(Long userId, String password) {
         AuthenticationMethodEntity nativeAuthMethod =
@@ -89,6 +90,18 @@ public class NativeAuthenticationStrategy implements AuthenticationStrategy<Nati
 
         boolean passwordMatches = this.passwordEncoder.matches(password, nativeAuthMethod.getPasswordHash());
 
+        if (passwordMatches && this.passwordEncoder.upgradeEncoding(nativeAuthMethod.getPasswordHash())) {
+            // 缓存的是只读副本，修改前从数据库重新读取
+            AuthenticationMethodEntity storedAuthMethod =
+                    this.userService.loadNativeAuthMethodEntityByUserId(userId);
+            // 密码已在其他服务器上修改时不再重新散列
+            if (nativeAuthMethod.getPasswordHash().equals(storedAuthMethod.getPasswordHash())) {
+                storedAuthMethod.setPasswordHash(this.passwordEncoder.encode(password));
+                this.authenticationMethodEntityMapper.updateById(storedAuthMethod);
+                this.userService.evictCachedUser(userId);
+            }
+        }
+
         return passwordMatches;
     }
 }
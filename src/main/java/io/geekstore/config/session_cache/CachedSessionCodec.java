@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.session_cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Serializes a {@link CachedSession} for a {@link SharedSessionStore}. The JSON representation is preceded by
+ * a format version byte, so that entries written by a server running an incompatible version are treated as
+ * cache misses instead of failing the request.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public final class CachedSessionCodec {
+    private static final byte FORMAT_VERSION = 1;
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private CachedSessionCodec() {}
+
+    public static byte[] encode(CachedSession session) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(session);
+            byte[] bytes = new byte[json.length + 1];
+            bytes[0] = FORMAT_VERSION;
+            System.arraycopy(json, 0, bytes, 1, json.length);
+            return bytes;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not serialize the session", ex);
+        }
+    }
+
+    /**
+     * Returns the decoded session, or null if the bytes are not in the current format.
+     */
+    public static CachedSession decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 2 || bytes[0] != FORMAT_VERSION) return null;
+        try {
+            return objectMapper.readValue(Arrays.copyOfRange(bytes, 1, bytes.length), CachedSession.class);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+}
@@ -5,8 +5,12 @@
 
 package io.geekstore.config.session_cache;
 
+import io.geekstore.common.utils.PermissionUtil;
 import io.geekstore.types.common.Permission;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,4 +26,19 @@ public class CachedSessionUser {
     private String identifier;
     private boolean verified;
     private List<Permission> permissions = new ArrayList<>();
+    /**
+     * The ids of the Roles the permissions were taken from, so that the session can be found when they change.
+     */
+    private List<Long> roleIds = new ArrayList<>();
+    /**
+     * The permissions as a bitmask, see {@link PermissionUtil}. Derived from the permissions when they are set.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private long permissionMask;
+
+    public void setPermissions(List<Permission> permissions) {
+        this.permissions = permissions;
+        this.permissionMask = PermissionUtil.toMask(permissions);
+    }
 }
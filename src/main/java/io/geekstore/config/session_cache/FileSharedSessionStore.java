@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.session_cache;
+
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link SharedSessionStore} in a directory which all the servers can access, intended for development and
+ * for testing multi-server setups on a single machine. Each entry is a file named after the hash of its token,
+ * holding the expiry time followed by the value, and is replaced atomically on write.
+ *
+ * Invalidation messages are appended to a log file in the same directory, which every server polls from the
+ * position it has read up to. The log is never compacted, which is another reason to use a real shared store
+ * in production.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Slf4j
+public class FileSharedSessionStore implements SharedSessionStore, Closeable {
+    private static final String ALL_TOKENS = "*";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Path entriesDir;
+    private final Path invalidationLog;
+    private final long pollIntervalInMs;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService poller;
+    private long readPosition;
+
+    /**
+     * @param pollIntervalInMs the interval at which the invalidation log is polled, or 0 to only poll when
+     *                         {@link #pollInvalidations()} is called
+     */
+    public FileSharedSessionStore(String path, long pollIntervalInMs) {
+        Path root = Paths.get(path);
+        this.entriesDir = root.resolve("entries");
+        this.invalidationLog = root.resolve("invalidations.log");
+        this.pollIntervalInMs = pollIntervalInMs;
+        try {
+            Files.createDirectories(this.entriesDir);
+            try {
+                Files.createFile(this.invalidationLog);
+            } catch (FileAlreadyExistsException ex) {
+                // created by another server
+            }
+            // 只关心启动之后的失效消息
+            this.readPosition = Files.size(this.invalidationLog);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public byte[] get(String token) {
+        Path file = this.entryFile(token);
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length < Long.BYTES) return null;
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.getLong() < System.currentTimeMillis()) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            byte[] value = new byte[buffer.remaining()];
+            buffer.get(value);
+            return value;
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            log.warn("Could not read the shared session cache entry " + file, ex);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String token, byte[] value, long ttlInMs) {
+        Path file = this.entryFile(token);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + value.length);
+            buffer.putLong(System.currentTimeMillis() + ttlInMs).put(value);
+            Path tempFile = Files.createTempFile(this.entriesDir, null, ".tmp");
+            Files.write(tempFile, buffer.array());
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not write the shared session cache entry " + file, ex);
+        }
+    }
+
+    @Override
+    public void remove(String token) {
+        try {
+            Files.deleteIfExists(this.entryFile(token));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try (Stream<Path> files = Files.list(this.entriesDir)) {
+            for(Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void publishInvalidation(String token) {
+        byte[] line = (this.nodeId + " " + (token == null ? ALL_TOKENS : token) + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(this.invalidationLog, StandardOpenOption.APPEND);
+             FileLock ignored = channel.lock()) {
+            channel.write(ByteBuffer.wrap(line));
+        } catch (IOException ex) {
+            log.warn("Could not publish the session cache invalidation of " + token, ex);
+        }
+    }
+
+    @Override
+    public synchronized void subscribeInvalidations(Consumer<String> listener) {
+        this.listeners.add(listener);
+        if (this.poller == null && this.pollIntervalInMs > 0) {
+            this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SessionCacheInvalidationPoller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.poller.scheduleWithFixedDelay(
+                    this::pollInvalidations, this.pollIntervalInMs, this.pollIntervalInMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reads the invalidation messages appended to the log since the last poll, and passes those sent by other
+     * servers to the listeners.
+     */
+    public synchronized void pollInvalidations() {
+        try (FileChannel channel = FileChannel.open(this.invalidationLog, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < this.readPosition) {
+                // the log was truncated, so messages may have been missed
+                this.readPosition = 0;
+                this.notifyListeners(null);
+            }
+            if (size == this.readPosition) return;
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - this.readPosition));
+            channel.read(buffer, this.readPosition);
+            String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+            // 只处理完整的行，未写完的行留到下次
+            int end = text.lastIndexOf('\n') + 1;
+            this.readPosition += text.substring(0, end).getBytes(StandardCharsets.UTF_8).length;
+            for(String line : text.substring(0, end).split("\n")) {
+                int separator = line.indexOf(' ');
+                if (separator < 0 || line.substring(0, separator).equals(this.nodeId)) continue;
+                String token = line.substring(separator + 1);
+                this.notifyListeners(ALL_TOKENS.equals(token) ? null : token);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not poll the session cache invalidations", ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.poller != null) {
+            this.poller.shutdownNow();
+            this.poller = null;
+        }
+    }
+
+    private void notifyListeners(String token) {
+        for(Consumer<String> listener : this.listeners) {
+            try {
+                listener.accept(token);
+            } catch (Exception ex) {
+                log.warn("Session cache invalidation listener failed", ex);
+            }
+        }
+    }
+
+    private Path entryFile(String token) {
+        return this.entriesDir.resolve(Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString());
+    }
+}
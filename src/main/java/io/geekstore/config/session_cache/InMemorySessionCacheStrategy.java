@@ -7,6 +7,11 @@ package io.geekstore.config.session_cache;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+import java.util.concurrent.TimeUnit;
 
 import static io.geekstore.common.Constant.DEFAULT_IN_MEMORY_CACHE_SIZE;
 
@@ -17,25 +22,51 @@ import static io.geekstore.common.Constant.DEFAULT_IN_MEMORY_CACHE_SIZE;
  * 1000 sessions have been cached, any new sessions will cause the least-recently-used
  * session to be evicted (removed) from the cache.
  *
- * The cache size can be configured by passing a different number to the constructor
- * function.
+ * The cache can instead be bounded by weight, i.e. the approximate total size in bytes of the
+ * cached sessions, which accounts for sessions with many permissions taking more memory. Entries
+ * expire after the `sessionCacheTTL`, so that stale sessions do not hold on to memory until
+ * they are evicted.
+ *
+ * Hit, miss & eviction statistics are exposed through the actuator as the `sessions` cache metrics.
  *
  * Created on Nov, 2020 by @author bobo
  */
-public class InMemorySessionCacheStrategy implements SessionCacheStrategy {
+public class InMemorySessionCacheStrategy implements SessionCacheStrategy, MeterBinder {
+    /**
+     * The approximate size in bytes of a cached session besides its strings & permissions.
+     */
+    private static final int BASE_SESSION_WEIGHT = 256;
+
     private final Cache<String, CachedSession> cache;
-    private final int cacheSize;
 
     public InMemorySessionCacheStrategy() {
         this(DEFAULT_IN_MEMORY_CACHE_SIZE);
     }
 
     public InMemorySessionCacheStrategy(int cacheSize) {
-        if (cacheSize < 1) {
+        this(cacheSize, 0, 0);
+    }
+
+    /**
+     * @param cacheSize the maximum number of cached sessions, ignored if `maxWeight` is set
+     * @param maxWeight the maximum approximate total size in bytes of the cached sessions, or 0 for no weight bound
+     * @param ttlInSeconds the time after which a cached session expires, or 0 for no expiry
+     */
+    public InMemorySessionCacheStrategy(int cacheSize, long maxWeight, int ttlInSeconds) {
+        if (cacheSize < 1 && maxWeight < 1) {
             throw new RuntimeException("cacheSize must be a positive integer");
         }
-        this.cacheSize = cacheSize;
-        cache = CacheBuilder.newBuilder().maximumSize(this.cacheSize).build();
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (maxWeight > 0) {
+            builder.maximumWeight(maxWeight)
+                    .weigher((String token, CachedSession session) -> weigh(session));
+        } else {
+            builder.maximumSize(cacheSize);
+        }
+        if (ttlInSeconds > 0) {
+            builder.expireAfterWrite(ttlInSeconds, TimeUnit.SECONDS);
+        }
+        this.cache = builder.build();
     }
 
     @Override
@@ -55,6 +86,25 @@ public class InMemorySessionCacheStrategy implements SessionCacheStrategy {
 
     @Override
     public void clear() {
-        this.cache.cleanUp();
+        this.cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, this.cache, "sessions");
+    }
+
+    static int weigh(CachedSession session) {
+        // 字符串按每个字符2字节估算，每个权限按一个引用估算
+        int weight = BASE_SESSION_WEIGHT + length(session.getToken()) * 2 +
+                length(session.getAuthenticationStrategy()) * 2;
+        if (session.getUser() != null) {
+            weight += length(session.getUser().getIdentifier()) * 2 + session.getUser().getPermissions().size() * 8;
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
     }
 }
@@ -32,4 +32,11 @@ public interface SessionCacheStrategy {
      * Clear the entire cache
      */
     void clear();
+    /**
+     * Whether the cache is shared by several servers, in which case it may hold sessions which were cached by
+     * the other servers.
+     */
+    default boolean isShared() {
+        return false;
+    }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.session_cache;
+
+import java.util.function.Consumer;
+
+/**
+ * An out-of-process store which is shared by all the servers, used as the second tier of the
+ * {@link TwoTierSessionCacheStrategy}. Entries are opaque byte arrays, produced by the {@link CachedSessionCodec}.
+ *
+ * Besides storing the entries, the store carries the invalidation messages between the servers, so that each
+ * server can drop the entries of its near-cache which were changed or deleted by another server. An
+ * implementation may be backed by e.g. Redis (a hash of entries plus a pub/sub channel) or Memcached; the
+ * {@link FileSharedSessionStore} is a stand-in for development & testing.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public interface SharedSessionStore {
+    /**
+     * Returns the entry of the token, or null if there is none or it has expired.
+     */
+    byte[] get(String token);
+    /**
+     * Stores the entry of the token, which expires after the given time in milliseconds.
+     */
+    void put(String token, byte[] value, long ttlInMs);
+    /**
+     * Removes the entry of the token, if any.
+     */
+    void remove(String token);
+    /**
+     * Removes all the entries.
+     */
+    void clear();
+    /**
+     * Sends an invalidation message to the other servers. A null token invalidates all the entries.
+     */
+    void publishInvalidation(String token);
+    /**
+     * Registers a listener for the invalidation messages sent by the other servers. The listener is called with
+     * a null token when all the entries are invalidated.
+     */
+    void subscribeInvalidations(Consumer<String> listener);
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.session_cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches sessions in a {@link SharedSessionStore} which is shared by all the servers, so that a session cached
+ * by one server is found by the others, fronted by a small in-memory near-cache on each server which saves the
+ * round trip to the shared store for the sessions in active use.
+ *
+ * Whenever a session is set or deleted, an invalidation message is published through the shared store, upon
+ * which the other servers drop the session from their near-cache and read it again from the shared store on the
+ * next request. As a safety net against lost messages, the near-cache entries also expire after a few seconds.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class TwoTierSessionCacheStrategy implements SessionCacheStrategy {
+    private final SharedSessionStore sharedStore;
+    private final Cache<String, CachedSession> nearCache;
+    /**
+     * Incremented on every invalidation, so that a session read from the shared store while it was being
+     * invalidated is not put into the near-cache.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TwoTierSessionCacheStrategy(SharedSessionStore sharedStore, int nearCacheSize, int nearCacheTtl) {
+        if (nearCacheSize < 1) {
+            throw new RuntimeException("nearCacheSize must be a positive integer");
+        }
+        this.sharedStore = sharedStore;
+        this.nearCache = CacheBuilder.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(nearCacheTtl, TimeUnit.SECONDS)
+                .build();
+        this.sharedStore.subscribeInvalidations(this::invalidateNearCache);
+    }
+
+    @Override
+    public void set(CachedSession session) {
+        long ttlInMs = session.getCacheExpiry() - System.currentTimeMillis();
+        if (ttlInMs > 0) {
+            this.sharedStore.put(session.getToken(), CachedSessionCodec.encode(session), ttlInMs);
+        } else {
+            this.sharedStore.remove(session.getToken());
+        }
+        this.invalidateNearCache(session.getToken());
+        this.nearCache.put(session.getToken(), session);
+        this.sharedStore.publishInvalidation(session.getToken());
+    }
+
+    @Override
+    public CachedSession get(String sessionToken) {
+        CachedSession session = this.nearCache.getIfPresent(sessionToken);
+        if (session != null) return session;
+
+        long generation = this.invalidations.get();
+        session = CachedSessionCodec.decode(this.sharedStore.get(sessionToken));
+        if (session != null && generation == this.invalidations.get()) {
+            this.nearCache.put(sessionToken, session);
+        }
+        return session;
+    }
+
+    @Override
+    public void delete(String sessionToken) {
+        this.sharedStore.remove(sessionToken);
+        this.invalidateNearCache(sessionToken);
+        this.sharedStore.publishInvalidation(sessionToken);
+    }
+
+    @Override
+    public void clear() {
+        this.sharedStore.clear();
+        this.invalidateNearCache(null);
+        this.sharedStore.publishInvalidation(null);
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    private void invalidateNearCache(String sessionToken) {
+        this.invalidations.incrementAndGet();
+        if (sessionToken == null) {
+            this.nearCache.invalidateAll();
+        } else {
+            this.nearCache.invalidate(sessionToken);
+        }
+    }
+}
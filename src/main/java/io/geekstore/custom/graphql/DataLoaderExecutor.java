@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.graphql;
+
+import io.geekstore.exception.TooManyRequestsException;
+import io.geekstore.options.DataLoaderOptions;
+import io.geekstore.options.RejectionPolicyType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the batch functions of the DataLoaders, which block on MyBatis queries, on a dedicated & bounded pool of
+ * threads rather than on the JVM-wide `ForkJoinPool.commonPool`, which is sized to the number of processors and
+ * shared with parallel streams.
+ *
+ * When `queueCapacity` batch functions are already waiting, a further one either runs on the submitting thread or
+ * fails with a {@link TooManyRequestsException}, according to the configured rejection policy.
+ *
+ * The pool is exposed through the actuator as the `dataloader` executor metrics (active, queued & completed tasks),
+ * and the rejected tasks as the `geekstore.dataloader.rejected` counter.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class DataLoaderExecutor implements Executor, MeterBinder {
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public DataLoaderExecutor(DataLoaderOptions options) {
+        RejectedExecutionHandler policy = options.getRejectionPolicy() == RejectionPolicyType.abort ?
+                (runnable, executor) -> {
+                    throw new TooManyRequestsException();
+                } :
+                new ThreadPoolExecutor.CallerRunsPolicy();
+        this.executor = new ThreadPoolExecutor(
+                options.getPoolSize(), options.getPoolSize(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(options.getQueueCapacity()),
+                new CustomizableThreadFactory("DataLoader-"),
+                (runnable, executor) -> {
+                    this.rejected.incrementAndGet();
+                    policy.rejectedExecution(runnable, executor);
+                });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        this.executor.execute(command);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(this.executor, "dataloader", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("geekstore.dataloader.rejected", this.rejected, AtomicLong::get)
+                .description("DataLoader batch functions rejected because the queue was full")
+                .register(registry);
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
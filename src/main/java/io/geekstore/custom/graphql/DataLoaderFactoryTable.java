@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.graphql;
+
+import io.geekstore.common.Constant;
+import io.geekstore.mapper.*;
+import io.geekstore.resolver.dataloader.*;
+import io.geekstore.service.helpers.CatalogCache;
+import lombok.RequiredArgsConstructor;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.dataloader.MappedBatchLoader;
+import org.dataloader.MappedBatchLoaderWithContext;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The DataLoaders of the GraphQL API by name, each with the factory creating it for a request.
+ *
+ * The table & the batch loaders are built once at startup, the batch loaders hold no per-request state. Only the
+ * DataLoaders, whose caches are scoped to a request, are created per request, by the {@link LazyDataLoaderRegistry}
+ * when a resolver first looks them up.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@RequiredArgsConstructor
+public class DataLoaderFactoryTable {
+    private final UserEntityMapper userEntityMapper;
+    private final AdministratorEntityMapper administratorEntityMapper;
+    private final CustomerEntityMapper customerEntityMapper;
+    private final AddressEntityMapper addressEntityMapper;
+    private final CustomerGroupJoinEntityMapper customerGroupJoinEntityMapper;
+    private final CustomerGroupEntityMapper customerGroupEntityMapper;
+    private final UserRoleJoinEntityMapper userRoleJoinEntityMapper;
+    private final RoleEntityMapper roleEntityMapper;
+    private final AuthenticationMethodEntityMapper authenticationMethodEntityMapper;
+    private final FacetEntityMapper facetEntityMapper;
+    private final FacetValueEntityMapper facetValueEntityMapper;
+    private final ProductOptionEntityMapper productOptionEntityMapper;
+    private final ProductOptionGroupEntityMapper productOptionGroupEntityMapper;
+    private final AssetEntityMapper assetEntityMapper;
+    private final ProductAssetJoinEntityMapper productAssetJoinEntityMapper;
+    private final ProductVariantEntityMapper productVariantEntityMapper;
+    private final ProductOptionGroupJoinEntityMapper productOptionGroupJoinEntityMapper;
+    private final ProductFacetValueJoinEntityMapper productFacetValueJoinEntityMapper;
+    private final ProductEntityMapper productEntityMapper;
+    private final ProductVariantAssetJoinEntityMapper productVariantAssetJoinEntityMapper;
+    private final ProductVariantProductOptionJoinEntityMapper productVariantProductOptionJoinEntityMapper;
+    private final ProductVariantFacetValueJoinEntityMapper productVariantFacetValueJoinEntityMapper;
+    private final CollectionAssetJoinEntityMapper collectionAssetJoinEntityMapper;
+    private final CollectionEntityMapper collectionEntityMapper;
+    private final OrderEntityMapper orderEntityMapper;
+    private final FulfillmentEntityMapper fulfillmentEntityMapper;
+    private final OrderItemEntityMapper orderItemEntityMapper;
+    private final OrderPromotionJoinEntityMapper orderPromotionJoinEntityMapper;
+    private final PromotionEntityMapper promotionEntityMapper;
+    private final PaymentEntityMapper paymentEntityMapper;
+    private final ShippingMethodEntityMapper shippingMethodEntityMapper;
+    private final OrderLineEntityMapper orderLineEntityMapper;
+    private final RefundEntityMapper refundEntityMapper;
+    private final CatalogCache catalogCache;
+    private final DataLoaderExecutor dataLoaderExecutor;
+
+    private final Map<String, Supplier<DataLoader<?, ?>>> factories = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        this.add(Constant.DATA_LOADER_NAME_ADMINISTRATOR_USER,
+                new AdministratorUserDataLoader(
+                        this.userEntityMapper, this.administratorEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_HISTORY_ENTRY_ADMINISTRATOR,
+                new HistoryEntryAdministratorDataLoader(this.administratorEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_CUSTOMER_USER,
+                new CustomerUserDataLoader(this.userEntityMapper, this.customerEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_CUSTOMER_ADDRESSES,
+                new CustomerAddressesDataLoader(this.addressEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_CUSTOMER_GROUPS,
+                new CustomerGroupsDataLoader(
+                        this.customerGroupJoinEntityMapper, this.customerGroupEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_USER_ROLES,
+                new UserRolesDataLoader(this.userRoleJoinEntityMapper, this.roleEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_USER_AUTHENTICATION_METHODS,
+                new UserAuthenticationMethodsDataLoader(
+                        this.authenticationMethodEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_FACET_VALUE_FACET,
+                new FacetValueFacetDataLoader(this.facetEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_FACET_VALUES,
+                new FacetValuesDataLoader(this.facetValueEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_OPTIONS,
+                new ProductOptionsDataLoader(
+                        this.productOptionEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_OPTION_GROUP,
+                new ProductOptionGroupDataLoader(
+                        this.productOptionGroupEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_FEATURED_ASSET,
+                new FeaturedAssetDataLoader(this.assetEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_ASSETS,
+                new ProductAssetsDataLoader(
+                        this.productAssetJoinEntityMapper, this.assetEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_VARIANTS,
+                new ProductVariantsDataLoader(this.productVariantEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_OPTION_GROUPS,
+                new ProductOptionGroupsDataLoader(
+                        this.productOptionGroupJoinEntityMapper, this.productOptionGroupEntityMapper,
+                        this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_FACET_VALUES,
+                new ProductFacetValuesDataLoader(
+                        this.productFacetValueJoinEntityMapper, this.facetValueEntityMapper, this.facetEntityMapper,
+                        this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_VARIANT_FEATURED_ASSET,
+                new FeaturedAssetDataLoader(this.assetEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_VARIANT_PRODUCT,
+                new ProductVariantProductDataLoader(this.productEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_VARIANT_ASSETS,
+                new ProductVariantAssetsDataLoader(
+                        this.productVariantAssetJoinEntityMapper, this.assetEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_VARIANT_OPTIONS,
+                new ProductVariantOptionsDataLoader(
+                        this.productVariantProductOptionJoinEntityMapper, this.productOptionEntityMapper,
+                        this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PRODUCT_VARIANT_FACET_VALUES,
+                new ProductVariantFacetValuesDataLoader(
+                        this.productVariantFacetValueJoinEntityMapper, this.facetValueEntityMapper,
+                        this.facetEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_COLLECTION_FEATURED_ASSET,
+                new FeaturedAssetDataLoader(this.assetEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_COLLECTION_ASSETS,
+                new CollectionAssetsDataLoader(
+                        this.collectionAssetJoinEntityMapper, this.assetEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_COLLECTION_PARENT,
+                new CollectionParentDataLoader(this.collectionEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_COLLECTION_CHILDREN,
+                new CollectionChildrenDataLoader(this.collectionEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_LINE_PRODUCT_VARIANT,
+                new ProductVariantDataLoader(this.productVariantEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_LINE_FEATURED_ASSET,
+                new FeaturedAssetDataLoader(this.assetEntityMapper, this.catalogCache, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_LINE_ORDER,
+                new OrderDataLoader(this.orderEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_ITEM_FULFILLMENT,
+                new FulfillmentDataLoader(this.fulfillmentEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_FULFILLMENT_ORDER_ITEMS,
+                new FulfillmentOrderItemsDataLoder(this.orderItemEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_CUSTOMER,
+                new CustomerDataLoader(this.customerEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_PROMOTIONS,
+                new OrderPromotionsDataLoader(
+                        this.orderPromotionJoinEntityMapper, this.promotionEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_PAYMENTS,
+                new OrderPaymentsDataLoader(this.paymentEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_SHIPPING_METHOD,
+                new ShippingMethodDataLoader(this.shippingMethodEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_LINE_ITEMS,
+                new OrderLineItemsDataLoader(this.orderItemEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_ORDER_LINES,
+                new OrderLinesDataLoader(
+                        this.orderLineEntityMapper, this.orderItemEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_PAYMENT_REFUNDS,
+                new PaymentRefundsDataLoader(this.refundEntityMapper, this.dataLoaderExecutor));
+        this.add(Constant.DATA_LOADER_NAME_REFUND_ORDER_ITEMS,
+                new RefundOrderItemsDataLoader(this.orderItemEntityMapper, this.dataLoaderExecutor));
+    }
+
+    public Map<String, Supplier<DataLoader<?, ?>>> getFactories() {
+        return Collections.unmodifiableMap(this.factories);
+    }
+
+    /**
+     * Returns a new registry for a request, which creates the DataLoaders on first lookup.
+     */
+    public DataLoaderRegistry newRegistry() {
+        return new LazyDataLoaderRegistry(this.factories);
+    }
+
+    private void add(String name, MappedBatchLoader<?, ?> batchLoader) {
+        this.factories.put(name, () -> DataLoader.newMappedDataLoader(batchLoader));
+    }
+
+    private void add(String name, MappedBatchLoaderWithContext<?, ?> batchLoader) {
+        this.factories.put(name, () -> DataLoader.newMappedDataLoader(batchLoader));
+    }
+}
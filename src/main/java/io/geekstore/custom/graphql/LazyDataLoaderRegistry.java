@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.graphql;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A registry which creates a DataLoader from its factory the first time it is looked up, so that a request only
+ * allocates the DataLoaders it actually uses.
+ *
+ * `getKeys`, `getDataLoaders` & hence `dispatchAll` only cover the DataLoaders created so far, which are the only
+ * ones that can hold pending loads.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class LazyDataLoaderRegistry extends DataLoaderRegistry {
+    private final Map<String, Supplier<DataLoader<?, ?>>> factories;
+
+    public LazyDataLoaderRegistry(Map<String, Supplier<DataLoader<?, ?>>> factories) {
+        this.factories = factories;
+    }
+
+    @Override
+    public <K, V> DataLoader<K, V> getDataLoader(String key) {
+        Supplier<DataLoader<?, ?>> factory = this.factories.get(key);
+        if (factory == null) return super.getDataLoader(key);
+        return this.computeIfAbsent(key, k -> factory.get());
+    }
+}
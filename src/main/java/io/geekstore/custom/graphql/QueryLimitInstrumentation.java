@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.graphql;
+
+import io.geekstore.common.ApiType;
+import io.geekstore.common.Constant;
+import io.geekstore.custom.security.ResolverRequirementTable;
+import io.geekstore.options.QueryLimitOptions;
+import io.geekstore.service.ConfigService;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.validation.ValidationError;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Rejects GraphQL operations which select too deeply nested fields, or whose static cost is too high, before they
+ * are executed. The limits are those of the admin API if all the root fields of the operation belong to it, and
+ * those of the shop API otherwise, see {@link QueryLimitOptions}.
+ *
+ * The cost is computed from the schema & the query alone: every field costs 1, and the cost of the fields selected
+ * on the elements of a list is multiplied by the expected number of elements. That is the `pageSize` or `take`
+ * argument of the list field, or of the paginated field returning the list, e.g. `products(options: {pageSize: 20})
+ * { items { ... } }`. A paginated list without a page size counts {@link Constant#DEFAULT_PAGE_SIZE} elements, and
+ * any other list `defaultListSize` elements. Introspection fields are free.
+ *
+ * The depth & cost of every operation are logged.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@Slf4j
+public class QueryLimitInstrumentation extends SimpleInstrumentation {
+    private static final List<String> PAGE_SIZE_ARGUMENTS = Arrays.asList("pageSize", "take");
+
+    private final QueryLimitOptions options;
+    private final ResolverRequirementTable resolverRequirementTable;
+
+    public QueryLimitInstrumentation(ConfigService configService, ResolverRequirementTable resolverRequirementTable) {
+        this.options = configService.getQueryLimitOptions();
+        this.resolverRequirementTable = resolverRequirementTable;
+    }
+
+    @Override
+    public InstrumentationContext<List<ValidationError>> beginValidation(
+            InstrumentationValidationParameters parameters) {
+        return SimpleInstrumentationContext.whenCompleted((errors, throwable) -> {
+            // 校验失败的查询不会被执行
+            if (throwable != null || (errors != null && !errors.isEmpty())) return;
+            this.check(parameters);
+        });
+    }
+
+    private void check(InstrumentationValidationParameters parameters) {
+        QueryCost queryCost = this.calculate(parameters.getSchema(), parameters.getDocument(),
+                parameters.getOperation(), parameters.getVariables());
+        boolean admin = queryCost.getApiType() == ApiType.ADMIN;
+        int maxDepth = admin ? this.options.getAdminMaxDepth() : this.options.getShopMaxDepth();
+        long maxCost = admin ? this.options.getAdminMaxCost() : this.options.getShopMaxCost();
+
+        String operation = getOperationName(parameters);
+        if (maxDepth > 0 && queryCost.getDepth() > maxDepth) {
+            log.warn("Rejected GraphQL operation " + operation + " of the " + queryCost.getApiType() +
+                    " API with depth " + queryCost.getDepth() + " > " + maxDepth);
+            throw new AbortExecutionException(
+                    "maximum query depth exceeded " + queryCost.getDepth() + " > " + maxDepth);
+        }
+        if (maxCost > 0 && queryCost.getCost() > maxCost) {
+            log.warn("Rejected GraphQL operation " + operation + " of the " + queryCost.getApiType() +
+                    " API with cost " + queryCost.getCost() + " > " + maxCost);
+            throw new AbortExecutionException(
+                    "maximum query complexity exceeded " + queryCost.getCost() + " > " + maxCost);
+        }
+        log.info("GraphQL operation " + operation + " of the " + queryCost.getApiType() +
+                " API has depth " + queryCost.getDepth() + " and cost " + queryCost.getCost());
+    }
+
+    private static String getOperationName(InstrumentationValidationParameters parameters) {
+        if (parameters.getOperation() != null) return parameters.getOperation();
+        return parameters.getDocument().getDefinitionsOfType(OperationDefinition.class).stream()
+                .map(OperationDefinition::getName).filter(Objects::nonNull).findFirst().orElse("anonymous");
+    }
+
+    private QueryCost calculate(GraphQLSchema schema, Document document,
+                                String operationName, Map<String, Object> variables) {
+        QueryTraverser queryTraverser = QueryTraverser.newQueryTraverser()
+                .schema(schema)
+                .document(document)
+                .operationName(operationName)
+                .variables(variables == null ? Collections.emptyMap() : variables)
+                .build();
+
+        // 后序遍历，访问一个字段时其子字段都已访问过；根字段的父环境为null
+        Map<QueryVisitorFieldEnvironment, Long> costsByParent = new HashMap<>();
+        Map<QueryVisitorFieldEnvironment, Integer> depthsByParent = new HashMap<>();
+        Set<ApiType> rootApiTypes = new HashSet<>();
+        queryTraverser.visitPostOrder(new QueryVisitorStub() {
+            @Override
+            public void visitField(QueryVisitorFieldEnvironment env) {
+                if (isIntrospection(env)) return;
+                long cost = saturatedAdd(1,
+                        saturatedMultiply(getListSize(env), costsByParent.getOrDefault(env, 0L)));
+                int depth = 1 + depthsByParent.getOrDefault(env, 0);
+                QueryVisitorFieldEnvironment parent = env.getParentEnvironment();
+                costsByParent.merge(parent, cost, QueryLimitInstrumentation::saturatedAdd);
+                depthsByParent.merge(parent, depth, Math::max);
+                if (parent == null) {
+                    rootApiTypes.add(resolverRequirementTable.getRootFieldApiType(
+                            env.getFieldDefinition().getName()));
+                }
+            }
+        });
+
+        ApiType apiType = rootApiTypes.equals(Collections.singleton(ApiType.ADMIN)) ? ApiType.ADMIN : ApiType.SHOP;
+        return new QueryCost(apiType, depthsByParent.getOrDefault(null, 0), costsByParent.getOrDefault(null, 0L));
+    }
+
+    /**
+     * Returns the number of elements expected for the field, which is 1 unless the field is a list.
+     */
+    private long getListSize(QueryVisitorFieldEnvironment env) {
+        if (!GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType()))) return 1;
+        Integer pageSize = findPageSize(env.getArguments());
+        if (pageSize == null && isPage(env.getFieldsContainer())) {
+            pageSize = findPageSize(env.getParentEnvironment() == null ?
+                    null : env.getParentEnvironment().getArguments());
+            if (pageSize == null) pageSize = Constant.DEFAULT_PAGE_SIZE;
+        }
+        return pageSize == null ? this.options.getDefaultListSize() : Math.max(pageSize, 0);
+    }
+
+    /**
+     * Looks for a page size among the arguments, and the fields of input object arguments such as `options`.
+     */
+    private static Integer findPageSize(Map<String, Object> arguments) {
+        if (arguments == null) return null;
+        for(String name : PAGE_SIZE_ARGUMENTS) {
+            if (arguments.get(name) instanceof Number) return ((Number) arguments.get(name)).intValue();
+        }
+        for(Object value : arguments.values()) {
+            if (value instanceof Map) {
+                for(String name : PAGE_SIZE_ARGUMENTS) {
+                    Object pageSize = ((Map<?, ?>) value).get(name);
+                    if (pageSize instanceof Number) return ((Number) pageSize).intValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the type is a page of a paginated list, e.g. a `ProductList` or `SearchResponse`.
+     */
+    private static boolean isPage(GraphQLFieldsContainer container) {
+        return container != null && container.getFieldDefinition("totalItems") != null;
+    }
+
+    private static boolean isIntrospection(QueryVisitorFieldEnvironment env) {
+        return env.isTypeNameIntrospectionField() || env.getFieldDefinition().getName().startsWith("__") ||
+                env.getFieldsContainer().getName().startsWith("__");
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        if (a == 0 || b == 0) return 0;
+        return a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class QueryCost {
+        /**
+         * The API whose limits apply to the operation.
+         */
+        private final ApiType apiType;
+        private final int depth;
+        private final long cost;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.security;
+
+import io.geekstore.common.Constant;
+import io.geekstore.common.RequestContext;
+import io.geekstore.config.session_cache.CachedSession;
+import io.geekstore.service.ConfigService;
+import io.geekstore.service.SessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Creates the {@link RequestContext} of a GraphQL request, resolving its session from the token once for all
+ * the fields of the request. The per-field authorization is left to the {@link GraphQLAuthGuardAspect}.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestContextFactory {
+    private final ConfigService configService;
+    private final SessionService sessionService;
+
+    public RequestContext create(HttpServletRequest req, HttpServletResponse res) {
+        CachedSession session = this.getSession(req, res);
+
+        RequestContext ctx = new RequestContext();
+        ctx.setSession(session);
+        if (session == null) {
+            // 匿名会话延迟到确实需要保存状态时才创建
+            ctx.setAnonymousSessionFactory(() -> this.createAnonymousSession(req, res));
+        }
+
+        // 用于审计
+        if (RequestContextHolder.getRequestAttributes() != null && session != null && session.getUser() != null) {
+            RequestContextHolder.getRequestAttributes()
+                    .setAttribute(Constant.REQUEST_ATTRIBUTE_CURRENT_USER,
+                            session.getUser(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return ctx;
+    }
+
+    private CachedSession getSession(HttpServletRequest req, HttpServletResponse res) {
+        String sessionToken = SessionTokenHelper.extractSessionToken(
+                req,
+                this.configService.getAuthOptions().getTokenMethod()
+        );
+        if (!StringUtils.isEmpty(sessionToken)) {
+            CachedSession serializedSession = this.sessionService.getSessionFromToken(sessionToken);
+            if (serializedSession != null) return serializedSession;
+            // if there is a token but it cannot be validated to a Session,
+            // then the token is no longer valid and should be unset.
+            SessionTokenHelper.setSessionToken(
+                    "",
+                    false,
+                    this.configService.getAuthOptions(),
+                    req,
+                    res
+            );
+        }
+        return null;
+    }
+
+    /**
+     * Creates an anonymous session and sets its token on the response. The {@link RequestContext} keeps the
+     * session, so that the other fields of the same request share it.
+     */
+    private CachedSession createAnonymousSession(HttpServletRequest req, HttpServletResponse res) {
+        CachedSession serializedSession = this.sessionService.createAnonymousSession();
+        SessionTokenHelper.setSessionToken(
+                serializedSession.getToken(),
+                true,
+                this.configService.getAuthOptions(),
+                req,
+                res
+        );
+        return serializedSession;
+    }
+}
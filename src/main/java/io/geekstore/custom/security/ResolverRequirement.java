@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.security;
+
+import io.geekstore.common.ApiType;
+import io.geekstore.common.utils.PermissionUtil;
+import io.geekstore.types.common.Permission;
+import graphql.schema.DataFetchingEnvironment;
+import lombok.Getter;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * What the {@link GraphQLAuthGuardAspect} needs to know about a resolver method, compiled once from its
+ * {@link Allow} annotation & signature.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Getter
+public class ResolverRequirement {
+    /**
+     * The bitmask of the allowed permissions, see {@link PermissionUtil}.
+     */
+    private final long permissionMask;
+    /**
+     * Whether the method has no {@link Allow} annotation, or an empty one.
+     */
+    private final boolean unrestricted;
+    private final boolean publicAllowed;
+    private final boolean ownerAllowed;
+    /**
+     * The index of the {@link DataFetchingEnvironment} parameter, or -1 if there is none.
+     */
+    private final int environmentIndex;
+    private final ApiType apiType;
+
+    private ResolverRequirement(Method method) {
+        Allow allow = method.getAnnotation(Allow.class);
+        Permission[] permissions = allow == null ? new Permission[0] : allow.value();
+        this.permissionMask = PermissionUtil.toMask(Arrays.asList(permissions));
+        this.unrestricted = permissions.length == 0;
+        this.publicAllowed = Arrays.asList(permissions).contains(Permission.Public);
+        this.ownerAllowed = Arrays.asList(permissions).contains(Permission.Owner);
+
+        int index = -1;
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for(int i = 0; i < parameterTypes.length && index < 0; i++) {
+            if (DataFetchingEnvironment.class.isAssignableFrom(parameterTypes[i])) index = i;
+        }
+        this.environmentIndex = index;
+        this.apiType = resolveApiType(method.getDeclaringClass().getName());
+    }
+
+    public static ResolverRequirement compile(Method method) {
+        return new ResolverRequirement(method);
+    }
+
+    private static ApiType resolveApiType(String className) {
+        if (className.contains("." + ApiType.ADMIN.name().toLowerCase() + ".")) {
+            return ApiType.ADMIN;
+        } else if (className.contains("." + ApiType.SHOP.name().toLowerCase() + ".")) {
+            return ApiType.SHOP;
+        } else {
+            return ApiType.CUSTOM;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.security;
+
+import io.geekstore.common.ApiType;
+import graphql.kickstart.tools.GraphQLMutationResolver;
+import graphql.kickstart.tools.GraphQLQueryResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link ResolverRequirement}s of all the query & mutation resolver methods, compiled at startup so that
+ * the auth guard does not reflect on the resolvers on every call. Methods which were not compiled at startup,
+ * e.g. of lazily created resolvers, are compiled on first use.
+ *
+ * The table also records which API the root Query & Mutation fields belong to, by the name of their resolver
+ * methods. A name resolved in both the shop & admin APIs is recorded as a shop API field.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ResolverRequirementTable implements SmartInitializingSingleton {
+    private final ApplicationContext applicationContext;
+
+    private final Map<Method, ResolverRequirement> requirements = new ConcurrentHashMap<>();
+    private final Map<String, ApiType> rootFieldApiTypes = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Object> resolvers = new ArrayList<>();
+        resolvers.addAll(this.applicationContext.getBeansOfType(GraphQLQueryResolver.class).values());
+        resolvers.addAll(this.applicationContext.getBeansOfType(GraphQLMutationResolver.class).values());
+        for(Object resolver : resolvers) {
+            for(Method method : AopUtils.getTargetClass(resolver).getMethods()) {
+                if (method.getDeclaringClass() == Object.class) continue;
+                ResolverRequirement requirement =
+                        this.requirements.computeIfAbsent(method, ResolverRequirement::compile);
+                this.rootFieldApiTypes.merge(method.getName(), requirement.getApiType(),
+                        (type1, type2) -> type1 == type2 ? type1 : ApiType.SHOP);
+            }
+        }
+        log.info("Compiled the permission requirements of " + this.requirements.size() + " resolver methods");
+    }
+
+    public ResolverRequirement get(Method method) {
+        return this.requirements.computeIfAbsent(method, ResolverRequirement::compile);
+    }
+
+    /**
+     * Returns the API of the root Query or Mutation field, or null if no resolver method is named after it.
+     */
+    public ApiType getRootFieldApiType(String fieldName) {
+        return this.rootFieldApiTypes.get(fieldName);
+    }
+}
@@ -8,6 +8,7 @@ package io.geekstore.eventbus;
 import io.geekstore.entity.ProductVariantEntity;
 import io.geekstore.eventbus.events.*;
 import io.geekstore.service.SearchIndexService;
+import io.geekstore.service.helpers.search_index.SearchIndexUpdateQueue;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import lombok.RequiredArgsConstructor;
@@ -15,12 +16,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
+ * Product, ProductVariant & Collection changes are passed on to the {@link SearchIndexUpdateQueue}, which
+ * applies them to the search index in de-duplicated batches. Deletions are applied right away, and cancel the
+ * pending changes of the deleted items.
+ *
  * Created on Jan, 2021 by @author bobo
  */
 @Component
@@ -29,6 +34,7 @@ import java.util.stream.Collectors;
 public class SearchIndexRelatedSubscriber {
     private final EventBus eventBus;
     private final SearchIndexService searchIndexService;
+    private final SearchIndexUpdateQueue searchIndexUpdateQueue;
 
     @PostConstruct
     void init() {
@@ -38,9 +44,10 @@ public class SearchIndexRelatedSubscriber {
     @Subscribe
     public void onEvent(ProductEvent event) {
         if (Objects.equals(event.getType(), "deleted")) {
+            this.searchIndexUpdateQueue.removeProducts(Collections.singletonList(event.getProduct().getId()));
             this.searchIndexService.deleteProduct(event.getProduct().getId());
         } else {
-            this.searchIndexService.updateProduct(event.getProduct().getId());
+            this.searchIndexUpdateQueue.addProducts(Collections.singletonList(event.getProduct().getId()));
         }
     }
 
@@ -49,9 +56,10 @@ public class SearchIndexRelatedSubscriber {
         List<Long> variantIds = event.getVariants().stream()
                 .map(ProductVariantEntity::getId).collect(Collectors.toList());
         if (Objects.equals(event.getType(), "deleted")) {
+            this.searchIndexUpdateQueue.removeVariants(variantIds);
             this.searchIndexService.deleteVariants(variantIds);
         } else {
-            this.searchIndexService.updateVariants(variantIds);
+            this.searchIndexUpdateQueue.addVariants(variantIds);
         }
     }
 
@@ -67,7 +75,7 @@ public class SearchIndexRelatedSubscriber {
 
     @Subscribe
     public void onEvent(CollectionModificationEvent event) {
-        this.searchIndexService.updateVariants(new ArrayList<>(event.getProductVariantIds()));
+        this.searchIndexUpdateQueue.addVariants(event.getProductVariantIds());
     }
 
     @Subscribe
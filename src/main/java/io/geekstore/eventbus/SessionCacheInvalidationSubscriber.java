@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.eventbus;
+
+import io.geekstore.eventbus.events.RoleAssignmentEvent;
+import io.geekstore.eventbus.events.RoleEvent;
+import io.geekstore.service.SessionService;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Objects;
+
+/**
+ * The cached sessions hold the permissions of their User, so they are evicted when a Role the User has is
+ * changed, or when the Roles of the User are changed. Only the affected sessions are evicted.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionCacheInvalidationSubscriber {
+    private final EventBus eventBus;
+    private final SessionService sessionService;
+
+    @PostConstruct
+    void init() {
+        eventBus.register(this);
+    }
+
+    @Subscribe
+    public void onEvent(RoleEvent event) {
+        if (!Objects.equals(event.getType(), "created")) {
+            this.sessionService.evictCachedSessionsByRoleId(event.getRole().getId());
+        }
+    }
+
+    @Subscribe
+    public void onEvent(RoleAssignmentEvent event) {
+        this.sessionService.evictCachedSessionsByUserId(event.getUserId());
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.eventbus.events;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * This event is fired whenever the Roles assigned to an existing User are changed.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class RoleAssignmentEvent extends BaseEvent {
+    private final Long userId;
+}
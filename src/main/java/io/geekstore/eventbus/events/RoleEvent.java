@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.eventbus.events;
+
+import io.geekstore.common.RequestContext;
+import io.geekstore.entity.RoleEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * This event is fired whenever a {@link io.geekstore.types.role.Role} is added, updated
+ * or deleted.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class RoleEvent extends BaseEvent {
+    private final RequestContext ctx;
+    private final RoleEntity role;
+    private final String type; // 'created' | 'updated' | 'deleted'
+}
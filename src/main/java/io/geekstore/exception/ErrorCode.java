@@ -52,7 +52,9 @@ public enum ErrorCode {
 
     COUPON_CODE_LIMIT_REACHED("Coupon code limit has been reached"),
 
-    ORDER_ITEMS_LIMIT_EXCEEDED("Order item limit exceeded");
+    ORDER_ITEMS_LIMIT_EXCEEDED("Order item limit exceeded"),
+
+    TOO_MANY_REQUESTS("The server is busy, please try again later");
 
     public final String defaultMessage;
 
@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.exception;
+
+/**
+ * This error should be thrown when a request is rejected because the server cannot take on more of its kind,
+ * in which case the client may try again later.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class TooManyRequestsException extends AbstractGraphqlException {
+    public TooManyRequestsException() {
+        super(ErrorCode.TOO_MANY_REQUESTS);
+    }
+}
@@ -6,12 +6,25 @@
 package io.geekstore.mapper;
 
 import io.geekstore.entity.ProductVariantEntity;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
 
 /**
  * Created on Nov, 2020 by @author bobo
  */
 @Mapper
 public interface ProductVariantEntityMapper extends BaseMapper<ProductVariantEntity> {
+    /**
+     * Streams the matching rows rather than loading them all at once. The cursor must be consumed within
+     * a transaction, since it is closed together with its SqlSession.
+     */
+    @Select("select * from tb_product_variant ${ew.customSqlSegment}")
+    @Options(fetchSize = 500)
+    Cursor<ProductVariantEntity> selectCursor(@Param(Constants.WRAPPER) Wrapper<ProductVariantEntity> queryWrapper);
 }
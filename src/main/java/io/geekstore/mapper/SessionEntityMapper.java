@@ -8,10 +8,25 @@ package io.geekstore.mapper;
 import io.geekstore.entity.SessionEntity;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
 
 /**
  * Created on Nov, 2020 by @author bobo
  */
 @Mapper
 public interface SessionEntityMapper extends BaseMapper<SessionEntity> {
+    /**
+     * Sets the `expires` of many sessions in a single statement. Only the `id` & `expires` of the given
+     * sessions are used.
+     */
+    @Update({"<script>",
+            "update tb_session set expires = case id",
+            "<foreach collection='sessions' item='s'> when #{s.id} then #{s.expires} </foreach>",
+            "end where id in",
+            "<foreach collection='sessions' item='s' open='(' separator=',' close=')'>#{s.id}</foreach>",
+            "</script>"})
+    int updateExpiries(@Param("sessions") Collection<SessionEntity> sessions);
 }
@@ -71,6 +71,45 @@ public class AuthOptions {
      */
     private int sessionCacheTTL = 300;
 
+    /**
+     * The time in milliseconds for which session expiry extensions are collected in memory before they are
+     * written to the database as one batched update. Set to 0 to write each extension as soon as it is made.
+     *
+     * @default 5000
+     */
+    private int sessionExpiryFlushInterval = 5000;
+
+    /**
+     * The maximum number of Users, with their Roles & native authentication method, kept in memory to spare
+     * their lookups on logins & session cache misses.
+     *
+     * @default 1000
+     */
+    private int userCacheSize = 1000;
+
+    /**
+     * The time in seconds a cached User is kept. Changes made through this node are applied at once, so this
+     * only bounds how long changes made through other nodes may go unnoticed.
+     *
+     * @default 60
+     */
+    private int userCacheTtl = 60;
+
+    /**
+     * Configures the purging of expired & invalidated sessions.
+     */
+    private SessionReaperOptions sessionReaperOptions = new SessionReaperOptions();
+
+    /**
+     * Configures where the sessions are cached.
+     */
+    private SessionCacheOptions sessionCacheOptions = new SessionCacheOptions();
+
+    /**
+     * Configures the hashing & verification of passwords.
+     */
+    private PasswordHashingOptions passwordHashingOptions = new PasswordHashingOptions();
+
     /**
      * Determines whether new User accounts require verification of their email address.
      *
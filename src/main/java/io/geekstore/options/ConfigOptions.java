@@ -38,4 +38,24 @@ public class ConfigOptions {
      * Configuration settings governing how orders are handled.
      */
     private OrderOptions orderOptions = new OrderOptions();
+
+    /**
+     * Configuration settings for product search.
+     */
+    private SearchOptions searchOptions = new SearchOptions();
+
+    /**
+     * Configuration settings for counting the results of paginated list queries & searches.
+     */
+    private ListQueryOptions listQueryOptions = new ListQueryOptions();
+
+    /**
+     * Configuration settings for the GraphQL DataLoaders.
+     */
+    private DataLoaderOptions dataLoaderOptions = new DataLoaderOptions();
+
+    /**
+     * Configuration settings for limiting the depth & cost of GraphQL queries.
+     */
+    private QueryLimitOptions queryLimitOptions = new QueryLimitOptions();
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+import lombok.Data;
+
+/**
+ * Options of the executor which runs the batch functions of the GraphQL DataLoaders.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class DataLoaderOptions {
+    /**
+     * The number of threads running DataLoader batch functions. Batch functions block on database queries,
+     * so the pool should be sized to the database connection pool rather than to the number of processors.
+     *
+     * @default 10
+     */
+    private int poolSize = 10;
+
+    /**
+     * The maximum number of batch functions waiting for a thread.
+     *
+     * @default 500
+     */
+    private int queueCapacity = 500;
+
+    /**
+     * What happens to a batch function submitted while the queue is full.
+     *
+     * @default 'caller_runs'
+     */
+    private RejectionPolicyType rejectionPolicy = RejectionPolicyType.caller_runs;
+
+    /**
+     * Whether the DataLoaders of Assets, Facets, FacetValues, ProductOptionGroups & ProductOptions share a cache
+     * across requests, see {@link io.geekstore.service.helpers.CatalogCache}.
+     *
+     * @default false
+     */
+    private boolean catalogCacheEnabled = false;
+
+    /**
+     * The maximum number of entries of each kind of catalog data kept in the shared cache.
+     *
+     * @default 10000
+     */
+    private int catalogCacheSize = 10000;
+
+    /**
+     * The time in seconds for which catalog data is cached. Mutations evict the affected entries before then.
+     *
+     * @default 300
+     */
+    private long catalogCacheTtl = 300;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+import io.geekstore.types.common.CountStrategy;
+import lombok.Data;
+
+/**
+ * Options related to how paginated list queries & searches count their `totalItems`.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class ListQueryOptions {
+    /**
+     * The {@link CountStrategy} used when a list query or search does not specify one.
+     *
+     * @default EXACT
+     */
+    private CountStrategy defaultCountStrategy = CountStrategy.EXACT;
+
+    /**
+     * The number of items at which a `CAPPED` count stops counting.
+     *
+     * @default 1000
+     */
+    private int countCap = 1000;
+
+    /**
+     * The time in seconds for which a `CACHED` count is reused for queries with identical filters.
+     *
+     * @default 10
+     */
+    private int countCacheTtl = 10;
+
+    /**
+     * The maximum number of counts kept for `CACHED` counting.
+     *
+     * @default 1000
+     */
+    private int countCacheSize = 1000;
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+import lombok.Data;
+
+/**
+ * Options of the hashing & verification of passwords with BCrypt.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class PasswordHashingOptions {
+    /**
+     * The number of threads hashing & verifying passwords. 0 means the number of available processors.
+     *
+     * @default 0
+     */
+    private int poolSize = 0;
+
+    /**
+     * The maximum number of passwords waiting to be hashed or verified. When the queue is full, further logins
+     * are rejected at once with a `TOO_MANY_REQUESTS` error rather than tying up the request threads.
+     *
+     * @default 100
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * The BCrypt strength (log rounds) of new password hashes. 0 means that the strength is calibrated at
+     * startup, to the highest one between `minStrength` & `maxStrength` whose hash time does not exceed
+     * `targetHashTime` on the current hardware.
+     *
+     * Passwords hashed with a lower strength are rehashed on the next successful login.
+     *
+     * @default 0
+     */
+    private int strength = 0;
+
+    /**
+     * The target time in milliseconds of hashing a password, when calibrating the strength.
+     *
+     * @default 250
+     */
+    private long targetHashTime = 250;
+
+    /**
+     * @default 10
+     */
+    private int minStrength = 10;
+
+    /**
+     * @default 16
+     */
+    private int maxStrength = 16;
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+import lombok.Data;
+
+/**
+ * Limits of the depth & static cost of GraphQL operations, see
+ * {@link io.geekstore.custom.graphql.QueryLimitInstrumentation}. Operations which only select admin API fields are
+ * checked against the admin limits, all others against the shop limits. A limit of 0 disables the check.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class QueryLimitOptions {
+    /**
+     * The maximum nesting depth of the fields selected by a shop API operation.
+     *
+     * @default 10
+     */
+    private int shopMaxDepth = 10;
+
+    /**
+     * The maximum cost of a shop API operation.
+     *
+     * @default 50000
+     */
+    private long shopMaxCost = 50000;
+
+    /**
+     * The maximum nesting depth of the fields selected by an admin API operation.
+     *
+     * @default 15
+     */
+    private int adminMaxDepth = 15;
+
+    /**
+     * The maximum cost of an admin API operation.
+     *
+     * @default 1000000
+     */
+    private long adminMaxCost = 1000000;
+
+    /**
+     * The number of elements assumed for a list field whose size is not bounded by a `pageSize` or `take`
+     * argument, e.g. the variants of a Product.
+     *
+     * @default 10
+     */
+    private int defaultListSize = 10;
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public enum RejectionPolicyType {
+    /**
+     * Runs the rejected task on the thread which submitted it, which slows down the submitting request.
+     */
+    caller_runs,
+    /**
+     * Fails the rejected task at once with a `TOO_MANY_REQUESTS` error.
+     */
+    abort
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+import lombok.Data;
+
+/**
+ * Options related to product search.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class SearchOptions {
+    /**
+     * Selects the {@link io.geekstore.service.helpers.search_strategy.SearchStrategy} used to serve
+     * the `search` & `searchByAdmin` queries.
+     *
+     * * 'db': each search is run as a query against the search index table.
+     * * 'memory': searches are answered from an in-memory inverted index, no SQL query is issued per search.
+     *
+     * @default 'db'
+     */
+    private SearchStrategyType strategy = SearchStrategyType.db;
+
+    /**
+     * The number of ProductVariants which are loaded, built and written together during a full reindex.
+     *
+     * @default 500
+     */
+    private int reindexBatchSize = 500;
+
+    /**
+     * The number of threads which process the ProductVariant id ranges in parallel during a full reindex.
+     *
+     * @default 4
+     */
+    private int reindexWorkers = 4;
+
+    /**
+     * The time in milliseconds for which Product & ProductVariant changes are collected before the search
+     * index is updated. All changes collected within this window are de-duplicated and applied as one batch.
+     * Set to 0 to apply the changes as soon as they are received.
+     *
+     * @default 100
+     */
+    private int indexUpdateDelay = 100;
+
+    /**
+     * The maximum number of search results kept in the search result cache. Set to 0 to disable the cache.
+     *
+     * @default 1000
+     */
+    private int resultCacheSize = 1000;
+
+    /**
+     * The time in seconds a search result is kept in the search result cache. The results are evicted as soon
+     * as the index updates made on this server affect them, so this only bounds how long the index updates made
+     * through other servers may go unnoticed. Set to 0 to only rely on the eviction.
+     *
+     * @default 60
+     */
+    private int resultCacheTtl = 60;
+
+    /**
+     * The maximum number of ProductVariant ids matched by the facet & collection filters which the 'db' strategy
+     * passes to the search query as an `IN (...)` list. Broader filters are applied in SQL instead, as `LIKE`
+     * conditions on the facet value & collection columns, so that the size of the query stays bounded.
+     *
+     * @default 1000
+     */
+    private int filterIdListLimit = 1000;
+
+    /**
+     * The interval in milliseconds at which each server reloads its in-memory search structures (the filter
+     * bitmaps, the suggestion index, the 'memory' strategy index and the result cache) from the search index
+     * table. These are only kept up to date by the index updates made on the same server, so when several
+     * servers share the database the changes made by the others are seen after at most one interval.
+     *
+     * Each reload reads the search index table again (the whole of it with the 'memory' strategy) and empties
+     * the result cache, so a shorter interval trades database load for fresher results. Set to 0 to disable
+     * the reload with a single server, whose structures are always up to date.
+     *
+     * @default 60000
+     */
+    private long localIndexRefreshInterval = 60000;
+}
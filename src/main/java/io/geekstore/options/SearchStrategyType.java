@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public enum SearchStrategyType {
+    /**
+     * Searches the `tb_search_index_item` table directly, using weighted `LIKE '%term%'` queries.
+     */
+    db,
+    /**
+     * Searches an in-memory inverted index which is built from, and kept in sync with,
+     * the `tb_search_index_item` table.
+     */
+    memory
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+import lombok.Data;
+
+/**
+ * Options related to the caching of sessions.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class SessionCacheOptions {
+    /**
+     * Selects the {@link io.geekstore.config.session_cache.SessionCacheStrategy}.
+     *
+     * * 'memory': each server caches the sessions in its own memory, so a request which reaches another server
+     *   than the previous one usually misses the cache. Suitable for single-server setups.
+     * * 'shared': the sessions are cached in a {@link io.geekstore.config.session_cache.SharedSessionStore}
+     *   shared by all servers, fronted by a small near-cache on each server.
+     *
+     * @default 'memory'
+     */
+    private SessionCacheType strategy = SessionCacheType.memory;
+
+    /**
+     * The maximum number of sessions kept in memory when using the 'memory' strategy.
+     *
+     * @default 1000
+     */
+    private int cacheSize = 1000;
+
+    /**
+     * Bounds the sessions kept in memory when using the 'memory' strategy by their approximate total size in bytes,
+     * instead of by their number. Set to 0 to bound the cache by `cacheSize`.
+     *
+     * @default 0
+     */
+    private long maxWeight = 0;
+
+    /**
+     * The maximum number of sessions kept in the near-cache of each server when using the 'shared' strategy.
+     *
+     * @default 1000
+     */
+    private int nearCacheSize = 1000;
+
+    /**
+     * The time in seconds after which a session is dropped from the near-cache and read again from the shared
+     * store. This bounds how long a server may use a session after an invalidation message was lost.
+     *
+     * @default 10
+     */
+    private int nearCacheTtl = 10;
+
+    /**
+     * The directory of the file based shared store, which is used when no other
+     * {@link io.geekstore.config.session_cache.SharedSessionStore} bean is defined. All the servers sharing
+     * the cache must have access to the same directory.
+     *
+     * @default 'session-cache'
+     */
+    private String sharedStorePath = "session-cache";
+
+    /**
+     * The interval in milliseconds at which the file based shared store checks for invalidations published
+     * by the other servers.
+     *
+     * @default 200
+     */
+    private int invalidationPollInterval = 200;
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public enum SessionCacheType {
+    /**
+     * Sessions are cached in the memory of each server, see
+     * {@link io.geekstore.config.session_cache.InMemorySessionCacheStrategy}.
+     */
+    memory,
+    /**
+     * Sessions are cached in a store shared by all servers, fronted by a small near-cache on each server, see
+     * {@link io.geekstore.config.session_cache.TwoTierSessionCacheStrategy}.
+     */
+    shared
+}
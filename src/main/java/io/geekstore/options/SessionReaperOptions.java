@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.options;
+
+import lombok.Data;
+
+/**
+ * Options of the job which purges expired & invalidated sessions from the database.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class SessionReaperOptions {
+    /**
+     * Whether the expired & invalidated sessions are periodically deleted.
+     *
+     * @default true
+     */
+    private boolean enabled = true;
+
+    /**
+     * The time in milliseconds between the end of a run and the start of the next one. Also the delay of the
+     * first run after startup.
+     *
+     * @default 3600000
+     */
+    private long interval = 3600000;
+
+    /**
+     * The maximum number of sessions deleted by a single statement. Smaller batches hold their locks for less time.
+     *
+     * @default 1000
+     */
+    private int batchSize = 1000;
+
+    /**
+     * The time in milliseconds to pause between two batches, leaving room for the other queries on the table.
+     *
+     * @default 100
+     */
+    private long batchPause = 100;
+}
@@ -117,6 +117,7 @@ public class CustomerResolver implements GraphQLResolver<Customer> {
             orderList.setTotalItems(0);
             return orderList;
         }
-        return this.orderService.findAllWithItemsByCustomerId(customer.getId(), options);
+        return this.orderService.findAllWithItemsByCustomerId(
+                customer.getId(), options, dfe.getSelectionSet().contains("totalItems"));
     }
 }
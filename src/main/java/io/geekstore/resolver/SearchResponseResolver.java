@@ -33,6 +33,9 @@ public class SearchResponseResolver implements GraphQLResolver<SearchResponse> {
             publicOnly = true;
         }
 
+        if (searchResponse.getFacetValueCounts() != null) {
+            return this.searchService.facetValues(searchResponse.getFacetValueCounts(), publicOnly);
+        }
         return this.searchService.facetValues(searchResponse.getSearchInput(), publicOnly);
     }
 }
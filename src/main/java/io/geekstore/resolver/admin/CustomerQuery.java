@@ -28,7 +28,7 @@ public class CustomerQuery implements GraphQLQueryResolver {
 
     @Allow(Permission.ReadCustomer)
     public CustomerList customers(CustomerListOptions options, DataFetchingEnvironment dfe) {
-        return this.customerService.findAll(options);
+        return this.customerService.findAll(options, null, dfe.getSelectionSet().contains("totalItems"));
     }
 
     @Allow(Permission.ReadCustomer)
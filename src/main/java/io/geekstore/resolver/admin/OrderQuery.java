@@ -39,6 +39,6 @@ public class OrderQuery implements GraphQLQueryResolver {
 
     @Allow(Permission.ReadOrder)
     public OrderList orders(OrderListOptions options, DataFetchingEnvironment dfe) {
-        return this.orderService.findAllWithItems(options);
+        return this.orderService.findAllWithItems(options, dfe.getSelectionSet().contains("totalItems"));
     }
 }
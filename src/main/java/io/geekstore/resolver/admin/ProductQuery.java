@@ -34,7 +34,7 @@ public class ProductQuery implements GraphQLQueryResolver {
 
     @Allow(Permission.ReadCatalog)
     public ProductList adminProducts(ProductListOptions options, DataFetchingEnvironment dfe) {
-        return this.productService.findAll(options);
+        return this.productService.findAll(options, dfe.getSelectionSet().contains("totalItems"));
     }
 
     /**
@@ -9,6 +9,7 @@ import io.geekstore.custom.security.Allow;
 import io.geekstore.service.SearchService;
 import io.geekstore.types.common.Permission;
 import io.geekstore.types.common.SearchInput;
+import io.geekstore.types.search.SearchReindexProgress;
 import io.geekstore.types.search.SearchResponse;
 import graphql.kickstart.tools.GraphQLQueryResolver;
 import graphql.schema.DataFetchingEnvironment;
@@ -30,4 +31,9 @@ public class ProductSearchQuery implements GraphQLQueryResolver {
         searchResponse.setSearchInput(input);
         return searchResponse;
     }
+
+    @Allow(Permission.ReadCatalog)
+    public SearchReindexProgress searchReindexProgress(DataFetchingEnvironment dfe) {
+        return this.searchService.getReindexProgress();
+    }
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -29,11 +30,14 @@ import java.util.stream.Collectors;
 public class AdministratorUserDataLoader implements MappedBatchLoader<Long, User> {
     private final UserEntityMapper userEntityMapper;
     private final AdministratorEntityMapper administratorEntityMapper;
+    private final Executor executor;
 
     public AdministratorUserDataLoader(UserEntityMapper userEntityMapper,
-                                       AdministratorEntityMapper administratorEntityMapper) {
+                                       AdministratorEntityMapper administratorEntityMapper,
+                                       Executor executor) {
         this.userEntityMapper = userEntityMapper;
         this.administratorEntityMapper = administratorEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -65,6 +69,6 @@ public class AdministratorUserDataLoader implements MappedBatchLoader<Long, User
             });
 
             return administratorUserMap;
-        });
+        }, this.executor);
     }
 }
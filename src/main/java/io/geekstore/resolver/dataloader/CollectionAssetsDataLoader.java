@@ -19,6 +19,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +31,7 @@ public class CollectionAssetsDataLoader implements MappedBatchLoader<Long, List<
 
     private final CollectionAssetJoinEntityMapper collectionAssetJoinEntityMapper;
     private final AssetEntityMapper assetEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, List<Asset>>> load(Set<Long> collectionIds) {
@@ -61,6 +63,6 @@ public class CollectionAssetsDataLoader implements MappedBatchLoader<Long, List<
             });
 
             return collectionAssetsMap;
-        });
+        }, this.executor);
     }
 }
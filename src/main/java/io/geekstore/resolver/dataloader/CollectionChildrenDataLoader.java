@@ -16,6 +16,7 @@ import org.dataloader.MappedBatchLoader;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CollectionChildrenDataLoader implements MappedBatchLoader<Long, List<Collection>> {
     private final CollectionEntityMapper collectionEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, List<Collection>>> load(Set<Long> parentIds) {
@@ -46,6 +48,6 @@ public class CollectionChildrenDataLoader implements MappedBatchLoader<Long, Lis
                             )));
 
             return groupByCollectionId;
-        });
+        }, this.executor);
     }
 }
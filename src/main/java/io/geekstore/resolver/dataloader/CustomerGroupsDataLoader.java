@@ -18,6 +18,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -27,12 +28,15 @@ public class CustomerGroupsDataLoader implements MappedBatchLoader<Long, List<Cu
 
     private final CustomerGroupJoinEntityMapper customerGroupJoinEntityMapper;
     private final CustomerGroupEntityMapper customerGroupEntityMapper;
+    private final Executor executor;
 
     public CustomerGroupsDataLoader(
             CustomerGroupJoinEntityMapper customerGroupJoinEntityMapper,
-            CustomerGroupEntityMapper customerGroupEntityMapper) {
+            CustomerGroupEntityMapper customerGroupEntityMapper,
+            Executor executor) {
         this.customerGroupJoinEntityMapper = customerGroupJoinEntityMapper;
         this.customerGroupEntityMapper = customerGroupEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -65,6 +69,6 @@ public class CustomerGroupsDataLoader implements MappedBatchLoader<Long, List<Cu
             });
 
             return customerGroupMap;
-        });
+        }, this.executor);
     }
 }
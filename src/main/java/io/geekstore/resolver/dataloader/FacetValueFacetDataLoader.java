@@ -8,14 +8,16 @@ package io.geekstore.resolver.dataloader;
 import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.entity.FacetEntity;
 import io.geekstore.mapper.FacetEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.types.facet.Facet;
 import org.dataloader.MappedBatchLoader;
 
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -23,19 +25,25 @@ import java.util.stream.Collectors;
  */
 public class FacetValueFacetDataLoader implements MappedBatchLoader<Long, Facet> {
     private final FacetEntityMapper facetEntityMapper;
+    private final CatalogCache catalogCache;
+    private final Executor executor;
 
-    public FacetValueFacetDataLoader(FacetEntityMapper facetEntityMapper) {
+    public FacetValueFacetDataLoader(FacetEntityMapper facetEntityMapper, CatalogCache catalogCache,
+                                     Executor executor) {
         this.facetEntityMapper = facetEntityMapper;
+        this.catalogCache = catalogCache;
+        this.executor = executor;
     }
 
     @Override
     public CompletionStage<Map<Long, Facet>> load(Set<Long> facetIds) {
         return CompletableFuture.supplyAsync(() -> {
-            List<FacetEntity> facetEntityList = this.facetEntityMapper.selectBatchIds(facetIds);
-            List<Facet> facetList = facetEntityList.stream()
-                    .map(facetEntity -> BeanMapper.map(facetEntity, Facet.class)).collect(Collectors.toList());
-            Map<Long, Facet> facetMap = facetList.stream().collect(Collectors.toMap(Facet::getId, facet -> facet));
+            Map<Long, FacetEntity> facetEntityMap = this.catalogCache.getFacets(facetIds, ids ->
+                    this.facetEntityMapper.selectBatchIds(ids).stream()
+                            .collect(Collectors.toMap(FacetEntity::getId, facetEntity -> facetEntity)));
+            Map<Long, Facet> facetMap = new HashMap<>();
+            facetEntityMap.forEach((id, facetEntity) -> facetMap.put(id, BeanMapper.map(facetEntity, Facet.class)));
             return facetMap;
-        });
+        }, this.executor);
     }
 }
@@ -8,6 +8,7 @@ package io.geekstore.resolver.dataloader;
 import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.entity.FacetValueEntity;
 import io.geekstore.mapper.FacetValueEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.types.facet.FacetValue;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import org.dataloader.MappedBatchLoader;
@@ -15,6 +16,7 @@ import org.dataloader.MappedBatchLoader;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -22,31 +24,32 @@ import java.util.stream.Collectors;
  */
 public class FacetValuesDataLoader implements MappedBatchLoader<Long, List<FacetValue>> {
     private final FacetValueEntityMapper facetValueEntityMapper;
+    private final CatalogCache catalogCache;
+    private final Executor executor;
 
-    public FacetValuesDataLoader(FacetValueEntityMapper facetValueEntityMapper) {
+    public FacetValuesDataLoader(FacetValueEntityMapper facetValueEntityMapper, CatalogCache catalogCache,
+                                 Executor executor) {
         this.facetValueEntityMapper = facetValueEntityMapper;
+        this.catalogCache = catalogCache;
+        this.executor = executor;
     }
 
     @Override
     public CompletionStage<Map<Long, List<FacetValue>>> load(Set<Long> facetIds) {
         return CompletableFuture.supplyAsync(() -> {
-            QueryWrapper<FacetValueEntity> queryWrapper = new QueryWrapper<>();
-            queryWrapper.lambda().in(FacetValueEntity::getFacetId, facetIds);
-            List<FacetValueEntity> facetValueEntityList = this.facetValueEntityMapper.selectList(queryWrapper);
-
-            if (facetValueEntityList.size() == 0) {
-                Map<Long, List<FacetValue>> emptyMap = new HashMap<>();
-                facetIds.forEach(id -> emptyMap.put(id, new ArrayList<>()));
-                return emptyMap;
-            }
-
-            Map<Long, List<FacetValue>> groupByFacetId = facetValueEntityList.stream()
-                    .collect(Collectors.groupingBy(FacetValueEntity::getFacetId,
-                            Collectors.mapping(facetValueEntity -> BeanMapper.map(facetValueEntity, FacetValue.class),
-                                    Collectors.toList()
-                            )));
-
+            Map<Long, List<FacetValueEntity>> facetValueEntityMap = this.catalogCache.getFacetValues(facetIds, ids -> {
+                QueryWrapper<FacetValueEntity> queryWrapper = new QueryWrapper<>();
+                queryWrapper.lambda().in(FacetValueEntity::getFacetId, ids);
+                return this.facetValueEntityMapper.selectList(queryWrapper).stream()
+                        .collect(Collectors.groupingBy(FacetValueEntity::getFacetId));
+            });
+
+            Map<Long, List<FacetValue>> groupByFacetId = new HashMap<>();
+            facetValueEntityMap.forEach((facetId, facetValueEntities) -> groupByFacetId.put(facetId,
+                    facetValueEntities.stream()
+                            .map(facetValueEntity -> BeanMapper.map(facetValueEntity, FacetValue.class))
+                            .collect(Collectors.toList())));
             return groupByFacetId;
-        });
+        }, this.executor);
     }
 }
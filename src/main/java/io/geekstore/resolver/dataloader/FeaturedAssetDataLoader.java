@@ -8,14 +8,16 @@ package io.geekstore.resolver.dataloader;
 import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.entity.AssetEntity;
 import io.geekstore.mapper.AssetEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.types.asset.Asset;
 import org.dataloader.MappedBatchLoader;
 
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -24,20 +26,25 @@ import java.util.stream.Collectors;
 
 public class FeaturedAssetDataLoader implements MappedBatchLoader<Long, Asset> {
     private final AssetEntityMapper assetEntityMapper;
+    private final CatalogCache catalogCache;
+    private final Executor executor;
 
-    public FeaturedAssetDataLoader(AssetEntityMapper assetEntityMapper) {
+    public FeaturedAssetDataLoader(AssetEntityMapper assetEntityMapper, CatalogCache catalogCache, Executor executor) {
         this.assetEntityMapper = assetEntityMapper;
+        this.catalogCache = catalogCache;
+        this.executor = executor;
     }
 
     @Override
     public CompletionStage<Map<Long, Asset>> load(Set<Long> assetIds) {
         return CompletableFuture.supplyAsync(() -> {
-            List<AssetEntity> assetEntityList = this.assetEntityMapper.selectBatchIds(assetIds);
-            List<Asset> assetList = assetEntityList.stream()
-                    .map(assetEntity -> BeanMapper.map(assetEntity, Asset.class)).collect(Collectors.toList());
-            Map<Long, Asset> featuredAssetMap = assetList.stream()
-                    .collect(Collectors.toMap(Asset::getId, asset -> asset));
+            Map<Long, AssetEntity> assetEntityMap = this.catalogCache.getAssets(assetIds, ids ->
+                    this.assetEntityMapper.selectBatchIds(ids).stream()
+                            .collect(Collectors.toMap(AssetEntity::getId, assetEntity -> assetEntity)));
+            Map<Long, Asset> featuredAssetMap = new HashMap<>();
+            assetEntityMap.forEach((id, assetEntity) ->
+                    featuredAssetMap.put(id, BeanMapper.map(assetEntity, Asset.class)));
             return featuredAssetMap;
-        });
+        }, this.executor);
     }
 }
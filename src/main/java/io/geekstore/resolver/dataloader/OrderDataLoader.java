@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -23,9 +24,11 @@ import java.util.stream.Collectors;
  */
 public class OrderDataLoader implements MappedBatchLoader<Long, Order> {
     private final OrderEntityMapper orderEntityMapper;
+    private final Executor executor;
 
-    public OrderDataLoader(OrderEntityMapper orderEntityMapper) {
+    public OrderDataLoader(OrderEntityMapper orderEntityMapper, Executor executor) {
         this.orderEntityMapper = orderEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -39,6 +42,6 @@ public class OrderDataLoader implements MappedBatchLoader<Long, Order> {
             Map<Long, Order> orderMap = orders.stream()
                     .collect(Collectors.toMap(Order::getId, order -> order));
             return orderMap;
-        });
+        }, this.executor);
     }
 }
@@ -16,6 +16,7 @@ import org.dataloader.MappedBatchLoader;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 public class OrderLineItemsDataLoader implements MappedBatchLoader<Long, List<OrderItem>> {
 
     private final OrderItemEntityMapper orderItemEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, List<OrderItem>>> load(Set<Long> orderLineIds) {
@@ -48,6 +50,6 @@ public class OrderLineItemsDataLoader implements MappedBatchLoader<Long, List<Or
                             )));
 
             return groupByOrderLineId;
-        });
+        }, this.executor);
     }
 }
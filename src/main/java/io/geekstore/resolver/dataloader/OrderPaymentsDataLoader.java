@@ -15,6 +15,7 @@ import org.dataloader.MappedBatchLoader;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -24,9 +25,11 @@ import java.util.stream.Collectors;
 public class OrderPaymentsDataLoader implements MappedBatchLoader<Long, List<Payment>> {
 
     private final PaymentEntityMapper paymentEntityMapper;
+    private final Executor executor;
 
-    public OrderPaymentsDataLoader(PaymentEntityMapper paymentEntityMapper) {
+    public OrderPaymentsDataLoader(PaymentEntityMapper paymentEntityMapper, Executor executor) {
         this.paymentEntityMapper = paymentEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -55,6 +58,6 @@ public class OrderPaymentsDataLoader implements MappedBatchLoader<Long, List<Pay
                             )));
 
             return groupByOrderId;
-        });
+        }, this.executor);
     }
 }
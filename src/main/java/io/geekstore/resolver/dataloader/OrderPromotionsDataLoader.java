@@ -18,6 +18,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -28,12 +29,15 @@ public class OrderPromotionsDataLoader implements MappedBatchLoader<Long, List<P
 
     private final OrderPromotionJoinEntityMapper orderPromotionJoinEntityMapper;
     private final PromotionEntityMapper promotionEntityMapper;
+    private final Executor executor;
 
     public OrderPromotionsDataLoader(
             OrderPromotionJoinEntityMapper orderPromotionJoinEntityMapper,
-            PromotionEntityMapper promotionEntityMapper) {
+            PromotionEntityMapper promotionEntityMapper,
+            Executor executor) {
         this.orderPromotionJoinEntityMapper = orderPromotionJoinEntityMapper;
         this.promotionEntityMapper = promotionEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -66,6 +70,6 @@ public class OrderPromotionsDataLoader implements MappedBatchLoader<Long, List<P
             });
 
             return orderPromotionsMap;
-        });
+        }, this.executor);
     }
 }
@@ -19,6 +19,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
 public class ProductAssetsDataLoader implements MappedBatchLoader<Long, List<Asset>> {
     private final ProductAssetJoinEntityMapper productAssetJoinEntityMapper;
     private final AssetEntityMapper assetEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, List<Asset>>> load(Set<Long> productIds) {
@@ -60,6 +62,6 @@ public class ProductAssetsDataLoader implements MappedBatchLoader<Long, List<Ass
             });
 
             return productAssetsMap;
-        });
+        }, this.executor);
     }
 }
@@ -24,6 +24,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toMap;
@@ -37,6 +38,7 @@ public class ProductFacetValuesDataLoader implements MappedBatchLoaderWithContex
     private final ProductFacetValueJoinEntityMapper productFacetValueJoinEntityMapper;
     private final FacetValueEntityMapper facetValueEntityMapper;
     private final FacetEntityMapper facetEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, List<FacetValue>>> load(Set<Long> productIds, BatchLoaderEnvironment environment) {
@@ -86,6 +88,6 @@ public class ProductFacetValuesDataLoader implements MappedBatchLoaderWithContex
             });
 
             return facetValuesMap;
-        });
+        }, this.executor);
     }
 }
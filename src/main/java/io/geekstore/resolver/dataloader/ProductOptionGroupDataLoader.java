@@ -8,14 +8,16 @@ package io.geekstore.resolver.dataloader;
 import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.entity.ProductOptionGroupEntity;
 import io.geekstore.mapper.ProductOptionGroupEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.types.product.ProductOptionGroup;
 import org.dataloader.MappedBatchLoader;
 
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -24,22 +26,27 @@ import java.util.stream.Collectors;
 public class ProductOptionGroupDataLoader implements MappedBatchLoader<Long, ProductOptionGroup> {
 
     private final ProductOptionGroupEntityMapper productOptionGroupEntityMapper;
+    private final CatalogCache catalogCache;
+    private final Executor executor;
 
-    public ProductOptionGroupDataLoader(ProductOptionGroupEntityMapper productOptionGroupEntityMapper) {
+    public ProductOptionGroupDataLoader(ProductOptionGroupEntityMapper productOptionGroupEntityMapper,
+                                        CatalogCache catalogCache, Executor executor) {
         this.productOptionGroupEntityMapper = productOptionGroupEntityMapper;
+        this.catalogCache = catalogCache;
+        this.executor = executor;
     }
 
     @Override
     public CompletionStage<Map<Long, ProductOptionGroup>> load(Set<Long> groupIds) {
         return CompletableFuture.supplyAsync(() -> {
-            List<ProductOptionGroupEntity> productOptionGroupEntities =
-                    this.productOptionGroupEntityMapper.selectBatchIds(groupIds);
-            List<ProductOptionGroup> productOptionGroups = productOptionGroupEntities.stream()
-                    .map(optionGroupEntity -> BeanMapper.map(optionGroupEntity, ProductOptionGroup.class))
-                    .collect(Collectors.toList());
-            Map<Long, ProductOptionGroup> optionGroupMap = productOptionGroups.stream()
-                    .collect(Collectors.toMap(ProductOptionGroup::getId, group -> group));
+            Map<Long, ProductOptionGroupEntity> optionGroupEntityMap =
+                    this.catalogCache.getOptionGroups(groupIds, ids ->
+                            this.productOptionGroupEntityMapper.selectBatchIds(ids).stream()
+                                    .collect(Collectors.toMap(ProductOptionGroupEntity::getId, group -> group)));
+            Map<Long, ProductOptionGroup> optionGroupMap = new HashMap<>();
+            optionGroupEntityMap.forEach((id, groupEntity) ->
+                    optionGroupMap.put(id, BeanMapper.map(groupEntity, ProductOptionGroup.class)));
             return optionGroupMap;
-        });
+        }, this.executor);
     }
 }
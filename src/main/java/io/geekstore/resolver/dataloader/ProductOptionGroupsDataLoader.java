@@ -19,6 +19,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
 public class ProductOptionGroupsDataLoader implements MappedBatchLoader<Long, List<ProductOptionGroup>> {
     private final ProductOptionGroupJoinEntityMapper productOptionGroupJoinEntityMapper;
     private final ProductOptionGroupEntityMapper productOptionGroupEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, List<ProductOptionGroup>>> load(Set<Long> productIds) {
@@ -62,6 +64,6 @@ public class ProductOptionGroupsDataLoader implements MappedBatchLoader<Long, Li
             });
 
             return optionGroupsMap;
-        });
+        }, this.executor);
     }
 }
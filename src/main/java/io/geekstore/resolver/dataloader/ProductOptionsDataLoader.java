@@ -8,6 +8,7 @@ package io.geekstore.resolver.dataloader;
 import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.entity.ProductOptionEntity;
 import io.geekstore.mapper.ProductOptionEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.types.product.ProductOption;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import org.dataloader.MappedBatchLoader;
@@ -15,6 +16,7 @@ import org.dataloader.MappedBatchLoader;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -23,31 +25,32 @@ import java.util.stream.Collectors;
 public class ProductOptionsDataLoader implements MappedBatchLoader<Long, List<ProductOption>> {
 
     private final ProductOptionEntityMapper productOptionEntityMapper;
+    private final CatalogCache catalogCache;
+    private final Executor executor;
 
-    public ProductOptionsDataLoader(ProductOptionEntityMapper productOptionEntityMapper) {
+    public ProductOptionsDataLoader(ProductOptionEntityMapper productOptionEntityMapper, CatalogCache catalogCache,
+                                    Executor executor) {
         this.productOptionEntityMapper = productOptionEntityMapper;
+        this.catalogCache = catalogCache;
+        this.executor = executor;
     }
 
     @Override
     public CompletionStage<Map<Long, List<ProductOption>>> load(Set<Long> groupIds) {
         return CompletableFuture.supplyAsync(() -> {
-            QueryWrapper<ProductOptionEntity> queryWrapper = new QueryWrapper<>();
-            queryWrapper.lambda().in(ProductOptionEntity::getGroupId, groupIds);
-            List<ProductOptionEntity> productOptionEntities = this.productOptionEntityMapper.selectList(queryWrapper);
-
-            if (productOptionEntities.size() == 0) {
-                Map<Long, List<ProductOption>> emptyMap = new HashMap<>();
-                groupIds.forEach(id -> emptyMap.put(id, new ArrayList<>()));
-                return emptyMap;
-            }
-
-            Map<Long, List<ProductOption>> groupByGroupId = productOptionEntities.stream()
-                    .collect(Collectors.groupingBy(ProductOptionEntity::getGroupId,
-                            Collectors.mapping(optionEntity -> BeanMapper.map(optionEntity, ProductOption.class),
-                                    Collectors.toList()
-                            )));
-
+            Map<Long, List<ProductOptionEntity>> optionEntityMap = this.catalogCache.getOptions(groupIds, ids -> {
+                QueryWrapper<ProductOptionEntity> queryWrapper = new QueryWrapper<>();
+                queryWrapper.lambda().in(ProductOptionEntity::getGroupId, ids);
+                return this.productOptionEntityMapper.selectList(queryWrapper).stream()
+                        .collect(Collectors.groupingBy(ProductOptionEntity::getGroupId));
+            });
+
+            Map<Long, List<ProductOption>> groupByGroupId = new HashMap<>();
+            optionEntityMap.forEach((groupId, optionEntities) -> groupByGroupId.put(groupId,
+                    optionEntities.stream()
+                            .map(optionEntity -> BeanMapper.map(optionEntity, ProductOption.class))
+                            .collect(Collectors.toList())));
             return groupByGroupId;
-        });
+        }, this.executor);
     }
 }
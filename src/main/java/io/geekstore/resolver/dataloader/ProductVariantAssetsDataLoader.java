@@ -19,6 +19,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
 public class ProductVariantAssetsDataLoader implements MappedBatchLoader<Long, List<Asset>> {
     private final ProductVariantAssetJoinEntityMapper productVariantAssetJoinEntityMapper;
     private final AssetEntityMapper assetEntityMapper;
+    private final Executor executor;
 
 
     @Override
@@ -61,6 +63,6 @@ public class ProductVariantAssetsDataLoader implements MappedBatchLoader<Long, L
             });
 
             return variantAssetsMap;
-        });
+        }, this.executor);
     }
 }
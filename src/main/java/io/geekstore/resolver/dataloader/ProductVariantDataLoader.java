@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -23,9 +24,11 @@ import java.util.stream.Collectors;
  */
 public class ProductVariantDataLoader implements MappedBatchLoader<Long, ProductVariant> {
     private final ProductVariantEntityMapper productVariantEntityMapper;
+    private final Executor executor;
 
-    public ProductVariantDataLoader(ProductVariantEntityMapper productVariantEntityMapper) {
+    public ProductVariantDataLoader(ProductVariantEntityMapper productVariantEntityMapper, Executor executor) {
         this.productVariantEntityMapper = productVariantEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -39,6 +42,6 @@ public class ProductVariantDataLoader implements MappedBatchLoader<Long, Product
             Map<Long, ProductVariant> productVariantMap = productVariants.stream()
                     .collect(Collectors.toMap(ProductVariant::getId, productVariant -> productVariant));
             return productVariantMap;
-        });
+        }, this.executor);
     }
 }
@@ -24,6 +24,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toMap;
@@ -37,6 +38,7 @@ public class ProductVariantFacetValuesDataLoader implements MappedBatchLoaderWit
     private final ProductVariantFacetValueJoinEntityMapper productVariantFacetValueJoinEntityMapper;
     private final FacetValueEntityMapper facetValueEntityMapper;
     private final FacetEntityMapper facetEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, List<FacetValue>>> load(
@@ -89,6 +91,6 @@ public class ProductVariantFacetValuesDataLoader implements MappedBatchLoaderWit
             });
 
             return variantFacetValuesMap;
-        });
+        }, this.executor);
     }
 }
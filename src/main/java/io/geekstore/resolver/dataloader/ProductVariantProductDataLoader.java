@@ -17,6 +17,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 public class ProductVariantProductDataLoader implements MappedBatchLoader<Long, Product> {
 
     private final ProductEntityMapper productEntityMapper;
+    private final Executor executor;
 
     @Override
     public CompletionStage<Map<Long, Product>> load(Set<Long> productIds) {
@@ -36,6 +38,6 @@ public class ProductVariantProductDataLoader implements MappedBatchLoader<Long,
             Map<Long, Product> productMap = products.stream()
                     .collect(Collectors.toMap(Product::getId, product -> product));
             return productMap;
-        });
+        }, this.executor);
     }
 }
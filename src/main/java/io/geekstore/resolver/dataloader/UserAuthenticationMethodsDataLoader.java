@@ -15,6 +15,7 @@ import org.dataloader.MappedBatchLoader;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -23,9 +24,12 @@ import java.util.stream.Collectors;
 
 public class UserAuthenticationMethodsDataLoader implements MappedBatchLoader<Long, List<AuthenticationMethod>> {
     private final AuthenticationMethodEntityMapper authenticationMethodEntityMapper;
+    private final Executor executor;
 
-    public UserAuthenticationMethodsDataLoader(AuthenticationMethodEntityMapper authenticationMethodEntityMapper) {
+    public UserAuthenticationMethodsDataLoader(AuthenticationMethodEntityMapper authenticationMethodEntityMapper,
+                                               Executor executor) {
         this.authenticationMethodEntityMapper = authenticationMethodEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -55,6 +59,6 @@ public class UserAuthenticationMethodsDataLoader implements MappedBatchLoader<Lo
                                 }, Collectors.toList())));
 
             return groupByUserId;
-        });
+        }, this.executor);
     }
 }
@@ -18,6 +18,7 @@ import org.springframework.util.CollectionUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -26,11 +27,14 @@ import java.util.stream.Collectors;
 public class UserRolesDataLoader implements MappedBatchLoader<Long, List<Role>> {
     private final UserRoleJoinEntityMapper userRoleJoinEntityMapper;
     private final RoleEntityMapper roleEntityMapper;
+    private final Executor executor;
 
 
-    public UserRolesDataLoader(UserRoleJoinEntityMapper userRoleJoinEntityMapper, RoleEntityMapper roleEntityMapper) {
+    public UserRolesDataLoader(UserRoleJoinEntityMapper userRoleJoinEntityMapper, RoleEntityMapper roleEntityMapper,
+                               Executor executor) {
         this.userRoleJoinEntityMapper = userRoleJoinEntityMapper;
         this.roleEntityMapper = roleEntityMapper;
+        this.executor = executor;
     }
 
     @Override
@@ -62,6 +66,6 @@ public class UserRolesDataLoader implements MappedBatchLoader<Long, List<Role>>
             });
 
             return userRoleMap;
-        });
+        }, this.executor);
     }
 }
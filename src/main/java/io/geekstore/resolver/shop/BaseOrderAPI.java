@@ -31,7 +31,11 @@ public abstract class BaseOrderAPI {
 
     protected Order getOrderFromContext(RequestContext ctx, boolean createIfNotExists) {
         if (ctx.getSession() == null) {
-            throw new InternalServerError("No active session");
+            // 没有会话就没有活动订单，只有需要创建订单时才创建匿名会话
+            if (!createIfNotExists && ctx.getAnonymousSessionFactory() != null) return null;
+            if (ctx.getOrCreateSession() == null) {
+                throw new InternalServerError("No active session");
+            }
         }
         OrderEntity orderEntity = ctx.getSession().getActiveOrderId() != null
                 ? this.orderService.findOne(ctx.getSession().getActiveOrderId())
@@ -22,11 +22,13 @@ import io.geekstore.types.common.Permission;
 import io.geekstore.types.common.SearchInput;
 import io.geekstore.types.product.*;
 import io.geekstore.types.search.SearchResponse;
+import io.geekstore.types.search.SearchSuggestion;
 import graphql.kickstart.tools.GraphQLQueryResolver;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -52,7 +54,7 @@ public class ShopProductsQuery implements GraphQLQueryResolver {
         booleanOperators.setEq(true);
         filter.setEnabled(booleanOperators);
 
-        return this.productService.findAll(options);
+        return this.productService.findAll(options, dfe.getSelectionSet().contains("totalItems"));
     }
 
     public Product product(Long id, String slug, DataFetchingEnvironment dfe) {
@@ -108,4 +110,9 @@ public class ShopProductsQuery implements GraphQLQueryResolver {
         searchResponse.setSearchInput(input);
         return searchResponse;
     }
+
+    @Allow(Permission.Public)
+    public List<SearchSuggestion> searchSuggestions(String prefix, Integer limit, DataFetchingEnvironment dfe) {
+        return this.searchService.suggest(prefix, limit);
+    }
 }
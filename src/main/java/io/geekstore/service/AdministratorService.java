@@ -7,6 +7,7 @@ package io.geekstore.service;
 
 import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.entity.*;
+import io.geekstore.eventbus.events.RoleAssignmentEvent;
 import io.geekstore.exception.EntityNotFoundException;
 import io.geekstore.mapper.AdministratorEntityMapper;
 import io.geekstore.mapper.AuthenticationMethodEntityMapper;
@@ -23,10 +24,13 @@ import io.geekstore.types.role.Role;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.eventbus.EventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -48,6 +52,7 @@ public class AdministratorService {
     private final AuthenticationMethodEntityMapper authenticationMethodEntityMapper;
     private final UserService userService;
     private final RoleService roleService;
+    private final EventBus eventBus;
 
     @PostConstruct
     public void initAdministrators() {
@@ -120,7 +125,7 @@ public class AdministratorService {
         UserEntity userEntity = this.userService.createAdminUser(input.getEmailAddress(), input.getPassword());
         administratorEntity.setUserId(userEntity.getId());
         this.administratorEntityMapper.insert(administratorEntity);
-        input.getRoleIds().forEach(roleId -> this.assignRole(administratorEntity.getId(), roleId));
+        input.getRoleIds().forEach(roleId -> this.doAssignRole(administratorEntity, roleId));
         return administratorEntity;
     }
 
@@ -133,9 +138,10 @@ public class AdministratorService {
 
         if (!StringUtils.isEmpty(input.getPassword())) {
             AuthenticationMethodEntity nativeAuthMethodEntity =
-                    userService.getNativeAuthMethodEntityByUserId(administratorEntity.getUserId());
+                    this.userService.loadNativeAuthMethodEntityByUserId(administratorEntity.getUserId());
             nativeAuthMethodEntity.setPasswordHash(this.passwordEncoder.encode(input.getPassword()));
             this.authenticationMethodEntityMapper.updateById(nativeAuthMethodEntity);
+            this.userService.evictCachedUser(administratorEntity.getUserId());
         }
         if (!CollectionUtils.isEmpty(input.getRoleIds())) {
             // 清除现有roles
@@ -143,7 +149,9 @@ public class AdministratorService {
             queryWrapper.lambda().eq(UserRoleJoinEntity::getUserId, administratorEntity.getUserId());
             this.userRoleJoinEntityMapper.delete(queryWrapper);
 
-            input.getRoleIds().forEach(roleId -> this.assignRole(administratorEntity.getId(), roleId));
+            input.getRoleIds().forEach(roleId -> this.doAssignRole(administratorEntity, roleId));
+            this.userService.evictCachedUser(administratorEntity.getUserId());
+            this.postAfterCommit(new RoleAssignmentEvent(administratorEntity.getUserId()));
         }
         return administratorEntity;
     }
@@ -154,6 +162,34 @@ public class AdministratorService {
     public AdministratorEntity assignRole(Long administratorId, Long roleId) {
         AdministratorEntity administratorEntity = this.administratorEntityMapper.selectById(administratorId);
         if (administratorEntity == null) throw new EntityNotFoundException("Administrator", administratorId);
+        if (this.doAssignRole(administratorEntity, roleId)) {
+            this.userService.evictCachedUser(administratorEntity.getUserId());
+            this.postAfterCommit(new RoleAssignmentEvent(administratorEntity.getUserId()));
+        }
+        return administratorEntity;
+    }
+
+    /**
+     * The sessions are evicted asynchronously and re-cached from the database on their next use, so the event is
+     * only posted once the new Roles have been committed.
+     */
+    private void postAfterCommit(RoleAssignmentEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.eventBus.post(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                eventBus.post(event);
+            }
+        });
+    }
+
+    /**
+     * Returns whether the Role was assigned, i.e. it was not assigned already.
+     */
+    private boolean doAssignRole(AdministratorEntity administratorEntity, Long roleId) {
         Role role = this.roleService.findOne(roleId);
         if (role == null) throw new EntityNotFoundException("Role", roleId);
         QueryWrapper<UserRoleJoinEntity> queryWrapper = new QueryWrapper<>();
@@ -164,8 +200,9 @@ public class AdministratorService {
             userRoleJoinEntity.setRoleId(roleId);
             userRoleJoinEntity.setUserId(administratorEntity.getUserId());
             this.userRoleJoinEntityMapper.insert(userRoleJoinEntity);
+            return true;
         }
-        return administratorEntity;
+        return false;
     }
 
     public DeletionResponse softDelete(Long id) {
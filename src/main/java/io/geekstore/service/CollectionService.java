@@ -30,6 +30,8 @@ import com.google.common.eventbus.EventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 import java.util.*;
@@ -239,7 +241,7 @@ public class CollectionService {
 
         ApplyCollectionFilterEvent event =
                 new ApplyCollectionFilterEvent(ctx, Arrays.asList(collectionEntity.getId()));
-        this.eventBus.post(event);
+        this.postAfterCommit(event);
 
         return collectionEntity;
     }
@@ -284,7 +286,7 @@ public class CollectionService {
         if (!CollectionUtils.isEmpty(input.getFilters())) {
             ApplyCollectionFilterEvent event =
                     new ApplyCollectionFilterEvent(ctx, Arrays.asList(collectionEntity.getId()));
-            this.eventBus.post(event);
+            this.postAfterCommit(event);
         }
 
         return collectionEntity;
@@ -352,7 +354,7 @@ public class CollectionService {
 
         ApplyCollectionFilterEvent event =
                 new ApplyCollectionFilterEvent(ctx, Arrays.asList(target.getId()));
-        this.eventBus.post(event);
+        this.postAfterCommit(event);
 
         return target;
     }
@@ -506,6 +508,23 @@ public class CollectionService {
         return newRoot;
     }
 
+    /**
+     * The filters are applied asynchronously by reading the Collection back, so the event is only posted once
+     * the Collection has been committed.
+     */
+    private void postAfterCommit(ApplyCollectionFilterEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.eventBus.post(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                eventBus.post(event);
+            }
+        });
+    }
+
     private static Pattern alreadySuffixed = Pattern.compile("-\\d+$");
 
     /**
@@ -79,4 +79,12 @@ public class ConfigService {
     }
 
     public OrderOptions getOrderOptions() { return this.configOptions.getOrderOptions(); }
+
+    public SearchOptions getSearchOptions() { return this.configOptions.getSearchOptions(); }
+
+    public ListQueryOptions getListQueryOptions() { return this.configOptions.getListQueryOptions(); }
+
+    public DataLoaderOptions getDataLoaderOptions() { return this.configOptions.getDataLoaderOptions(); }
+
+    public QueryLimitOptions getQueryLimitOptions() { return this.configOptions.getQueryLimitOptions(); }
 }
@@ -21,15 +21,15 @@ import io.geekstore.exception.UserInputException;
 import io.geekstore.mapper.*;
 import io.geekstore.service.args.CreateCustomerHistoryEntryArgs;
 import io.geekstore.service.args.UpdateCustomerHistoryEntryArgs;
+import io.geekstore.service.helpers.KeysetPagination;
 import io.geekstore.service.helpers.PageInfo;
 import io.geekstore.service.helpers.QueryHelper;
 import io.geekstore.service.helpers.ServiceHelper;
+import io.geekstore.service.helpers.TotalItemsCounter;
 import io.geekstore.types.common.*;
 import io.geekstore.types.customer.*;
 import io.geekstore.types.history.HistoryEntryType;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.eventbus.EventBus;
@@ -60,28 +60,43 @@ public class CustomerService {
     private final EventBus eventBus;
     private final ConfigService configService;
     private final ObjectMapper objectMapper;
+    private final TotalItemsCounter totalItemsCounter;
 
     public CustomerList findAll(CustomerListOptions options) {
         return findAll(options, null);
     }
 
     public CustomerList findAll(CustomerListOptions options, List<Long> customerIds) {
+        return findAll(options, customerIds, true);
+    }
+
+    /**
+     * With `options.after` set, the page following that cursor is selected by keyset pagination. The total count
+     * is only queried if `countTotal` is set, according to `options.countStrategy`.
+     */
+    public CustomerList findAll(CustomerListOptions options, List<Long> customerIds, boolean countTotal) {
         PageInfo pageInfo = ServiceHelper.getListOptions(options);
-        IPage<CustomerEntity> page = new Page<>(pageInfo.current, pageInfo.size);
-        QueryWrapper<CustomerEntity> queryWrapper = new QueryWrapper<>();
-        if (!CollectionUtils.isEmpty(customerIds)) {
-            queryWrapper.lambda().in(CustomerEntity::getId, customerIds);
-        }
-        queryWrapper.lambda().isNull(CustomerEntity::getDeletedAt); // 未删除
+        KeysetPagination<CustomerEntity> pagination = new KeysetPagination<>("id", CustomerEntity::getId);
         if (options != null) {
-            buildFilter(queryWrapper, options.getFilter());
-            buildSortOrder(queryWrapper, options.getSort());
+            buildSortOrder(pagination, options.getSort());
         }
-        IPage<CustomerEntity> customerEntityPage =
-                this.customerEntityMapper.selectPage(page, queryWrapper);
+        KeysetPagination.Result<CustomerEntity> customerEntityPage = pagination.selectPage(
+                this.customerEntityMapper, () -> {
+                    QueryWrapper<CustomerEntity> queryWrapper = new QueryWrapper<>();
+                    if (!CollectionUtils.isEmpty(customerIds)) {
+                        queryWrapper.lambda().in(CustomerEntity::getId, customerIds);
+                    }
+                    queryWrapper.lambda().isNull(CustomerEntity::getDeletedAt); // 未删除
+                    if (options != null) {
+                        buildFilter(queryWrapper, options.getFilter());
+                    }
+                    return queryWrapper;
+                }, pageInfo, countTotal ? this.totalItemsCounter : null);
 
         CustomerList customerList = new CustomerList();
-        customerList.setTotalItems((int) customerEntityPage.getTotal()); // 设置满足条件总记录数
+        customerList.setTotalItems(customerEntityPage.getTotalItems()); // 设置满足条件总记录数
+        customerList.setTotalItemsCapped(customerEntityPage.getTotalItemsCapped());
+        customerList.setNextCursor(customerEntityPage.getNextCursor());
 
         if (CollectionUtils.isEmpty(customerEntityPage.getRecords()))
             return customerList; // 返回空
@@ -95,15 +110,15 @@ public class CustomerService {
         return customerList;
     }
 
-    private void buildSortOrder(QueryWrapper queryWrapper, CustomerSortParameter sortParameter) {
+    private void buildSortOrder(KeysetPagination<CustomerEntity> pagination, CustomerSortParameter sortParameter) {
         if (sortParameter == null) return ;
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getId(), "id");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getFirstName(), "first_name");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getLastName(), "last_name");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getPhoneNumber(), "phone_number");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getEmailAddress(), "email_address");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getCreatedAt(), "created_at");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getUpdatedAt(), "updated_at");
+        pagination.sortBy(sortParameter.getId(), "id", CustomerEntity::getId)
+                .sortBy(sortParameter.getFirstName(), "first_name", CustomerEntity::getFirstName)
+                .sortBy(sortParameter.getLastName(), "last_name", CustomerEntity::getLastName)
+                .sortBy(sortParameter.getPhoneNumber(), "phone_number", CustomerEntity::getPhoneNumber)
+                .sortBy(sortParameter.getEmailAddress(), "email_address", CustomerEntity::getEmailAddress)
+                .sortBy(sortParameter.getCreatedAt(), "created_at", CustomerEntity::getCreatedAt)
+                .sortBy(sortParameter.getUpdatedAt(), "updated_at", CustomerEntity::getUpdatedAt);
     }
 
     private void buildFilter(QueryWrapper queryWrapper, CustomerFilterParameter filterParameter) {
@@ -340,6 +355,7 @@ public class CustomerService {
             userEntity.setIdentifier(newEmailAddress);
             customerEntity.setEmailAddress(newEmailAddress);
             this.userEntityMapper.updateById(userEntity);
+            this.userService.evictCachedUser(userId);
             this.customerEntityMapper.updateById(customerEntity);
             this.eventBus.post(new IdentifierChangeEvent(ctx, userEntity, oldIdentifier));
 
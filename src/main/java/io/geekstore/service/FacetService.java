@@ -10,6 +10,7 @@ import io.geekstore.entity.FacetEntity;
 import io.geekstore.entity.FacetValueEntity;
 import io.geekstore.mapper.FacetEntityMapper;
 import io.geekstore.mapper.FacetValueEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.service.helpers.PageInfo;
 import io.geekstore.service.helpers.QueryHelper;
 import io.geekstore.service.helpers.ServiceHelper;
@@ -38,6 +39,7 @@ public class FacetService {
     private final FacetValueService facetValueService;
     private final FacetEntityMapper facetEntityMapper;
     private final FacetValueEntityMapper facetValueEntityMapper;
+    private final CatalogCache catalogCache;
 
     public FacetList findAll(FacetListOptions options) {
         PageInfo pageInfo = ServiceHelper.getListOptions(options);
@@ -126,6 +128,7 @@ public class FacetService {
                 ServiceHelper.getEntityOrThrow(this.facetEntityMapper, FacetEntity.class, input.getId());
         BeanMapper.patch(input, facetEntity);
         this.facetEntityMapper.updateById(facetEntity);
+        this.catalogCache.evictFacet(facetEntity.getId());
         return facetEntity;
     }
 
@@ -154,6 +157,7 @@ public class FacetService {
             queryWrapperFVE.lambda().eq(FacetValueEntity::getFacetId, id);
             this.facetValueEntityMapper.delete(queryWrapperFVE);
             this.facetEntityMapper.deleteById(id);
+            this.catalogCache.evictFacet(id);
             result = DeletionResult.DELETED;
         } else {
             message = "The selected Facet includes FacetValues which are assigned to " +
@@ -14,6 +14,7 @@ import io.geekstore.mapper.FacetEntityMapper;
 import io.geekstore.mapper.FacetValueEntityMapper;
 import io.geekstore.mapper.ProductFacetValueJoinEntityMapper;
 import io.geekstore.mapper.ProductVariantFacetValueJoinEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.service.helpers.ServiceHelper;
 import io.geekstore.types.common.DeletionResponse;
 import io.geekstore.types.common.DeletionResult;
@@ -40,6 +41,7 @@ public class FacetValueService {
     private final FacetEntityMapper facetEntityMapper;
     private final ProductFacetValueJoinEntityMapper productFacetValueJoinEntityMapper;
     private final ProductVariantFacetValueJoinEntityMapper productVariantFacetValueJoinEntityMapper;
+    private final CatalogCache catalogCache;
 
     public List<FacetValueEntity> findAll() {
         return facetValueEntityMapper.selectList(null);
@@ -67,6 +69,7 @@ public class FacetValueService {
         facetValueEntity.setCode(input.getCode());
         facetValueEntity.setName(input.getName());
         facetValueEntityMapper.insert(facetValueEntity);
+        catalogCache.evictFacetValues(input.getFacetId());
         return facetValueEntity;
     }
 
@@ -75,6 +78,7 @@ public class FacetValueService {
                 ServiceHelper.getEntityOrThrow(facetValueEntityMapper, FacetValueEntity.class, input.getId());
         BeanMapper.patch(input, facetValueEntity);
         facetValueEntityMapper.updateById(facetValueEntity);
+        catalogCache.evictFacetValues(facetValueEntity.getFacetId());
         return facetValueEntity;
     }
 
@@ -89,8 +93,10 @@ public class FacetValueService {
         DeletionResult result = null;
 
         if (!isInUse) {
-            ServiceHelper.getEntityOrThrow(this.facetValueEntityMapper, FacetValueEntity.class, id);
+            FacetValueEntity facetValueEntity =
+                    ServiceHelper.getEntityOrThrow(this.facetValueEntityMapper, FacetValueEntity.class, id);
             this.facetValueEntityMapper.deleteById(id);
+            this.catalogCache.evictFacetValues(facetValueEntity.getFacetId());
             result = DeletionResult.DELETED;
         } else {
             message = "The selected FacetValue is assigned to " +
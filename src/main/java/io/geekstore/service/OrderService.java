@@ -18,9 +18,11 @@ import io.geekstore.mapper.*;
 import io.geekstore.service.args.CreateOrderHistoryEntryArgs;
 import io.geekstore.service.args.UpdateOrderHistoryEntryArgs;
 import io.geekstore.service.helpers.OrderHelper;
+import io.geekstore.service.helpers.KeysetPagination;
 import io.geekstore.service.helpers.PageInfo;
 import io.geekstore.service.helpers.QueryHelper;
 import io.geekstore.service.helpers.ServiceHelper;
+import io.geekstore.service.helpers.TotalItemsCounter;
 import io.geekstore.service.helpers.order_calculator.OrderCalculator;
 import io.geekstore.service.helpers.order_merger.LineItem;
 import io.geekstore.service.helpers.order_merger.MergeResult;
@@ -43,8 +45,6 @@ import io.geekstore.types.payment.PaymentInput;
 import io.geekstore.types.settings.OrderProcessState;
 import io.geekstore.types.shipping.ShippingMethodQuote;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.eventbus.EventBus;
 import lombok.RequiredArgsConstructor;
@@ -92,6 +92,7 @@ public class OrderService {
     private final StockMovementService stockMovementService;
     private final OrderHelper orderHelper;
     private final OrderCodeGenerator orderCodeGenerator;
+    private final TotalItemsCounter totalItemsCounter;
 
     public List<OrderProcessState> getOrderProcessStates() {
         return this.orderStateMachine.getOrderStateTransitions().entrySet().stream()
@@ -104,7 +105,11 @@ public class OrderService {
     }
 
     public OrderList findAllWithItems(OrderListOptions options) {
-        return this.findOrderList(null, options);
+        return this.findAllWithItems(options, true);
+    }
+
+    public OrderList findAllWithItems(OrderListOptions options, boolean countTotal) {
+        return this.findOrderList(null, options, countTotal);
     }
 
     /**
@@ -130,26 +135,41 @@ public class OrderService {
     }
 
     public OrderList findAllWithItemsByCustomerId(Long customerId, OrderListOptions options) {
-        return this.findOrderList(customerId, options);
+        return this.findAllWithItemsByCustomerId(customerId, options, true);
     }
 
-    private OrderList findOrderList(Long customerId, OrderListOptions options) {
+    public OrderList findAllWithItemsByCustomerId(Long customerId, OrderListOptions options, boolean countTotal) {
+        return this.findOrderList(customerId, options, countTotal);
+    }
+
+    /**
+     * With `options.after` set, the page following that cursor is selected by keyset pagination. The total count
+     * is only queried if `countTotal` is set, according to `options.countStrategy`.
+     */
+    private OrderList findOrderList(Long customerId, OrderListOptions options, boolean countTotal) {
         PageInfo pageInfo = ServiceHelper.getListOptions(options);
-        IPage<OrderEntity> page = new Page<>(pageInfo.current, pageInfo.size);
-        QueryWrapper<OrderEntity> queryWrapper = new QueryWrapper<>();
-        if (customerId != null) {
-            queryWrapper.lambda().in(OrderEntity::getCustomerId, customerId);
-        }
+        // 先只获取id及排序列，后面再次获取Order并填充Items
+        KeysetPagination<OrderEntity> pagination =
+                new KeysetPagination<>("id", OrderEntity::getId).selectKeysOnly();
         if (options != null) {
-            buildFilter(queryWrapper, options.getFilter());
-            buildSortOrder(queryWrapper, options.getSort());
-        }
-        queryWrapper.lambda().select(OrderEntity::getId); // 先只获取id，后面再次获取Order并填充Items
-        IPage<OrderEntity> orderEntityPage =
-                this.orderEntityMapper.selectPage(page, queryWrapper);
+            buildSortOrder(pagination, options.getSort());
+        }
+        KeysetPagination.Result<OrderEntity> orderEntityPage = pagination.selectPage(
+                this.orderEntityMapper, () -> {
+                    QueryWrapper<OrderEntity> queryWrapper = new QueryWrapper<>();
+                    if (customerId != null) {
+                        queryWrapper.lambda().in(OrderEntity::getCustomerId, customerId);
+                    }
+                    if (options != null) {
+                        buildFilter(queryWrapper, options.getFilter());
+                    }
+                    return queryWrapper;
+                }, pageInfo, countTotal ? this.totalItemsCounter : null);
 
         OrderList orderList = new OrderList();
-        orderList.setTotalItems((int) orderEntityPage.getTotal()); // 设置满足条件总记录数
+        orderList.setTotalItems(orderEntityPage.getTotalItems()); // 设置满足条件总记录数
+        orderList.setTotalItemsCapped(orderEntityPage.getTotalItemsCapped());
+        orderList.setNextCursor(orderEntityPage.getNextCursor());
 
         if (CollectionUtils.isEmpty(orderEntityPage.getRecords()))
             return orderList; // 返回空
@@ -164,16 +184,16 @@ public class OrderService {
         return orderList;
     }
 
-    private void buildSortOrder(QueryWrapper queryWrapper, OrderSortParameter sortParameter) {
+    private void buildSortOrder(KeysetPagination<OrderEntity> pagination, OrderSortParameter sortParameter) {
         if (sortParameter == null) return ;
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getId(), "id");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getCode(), "code");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getState(), "state");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getSubTotal(), "sub_total");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getShipping(), "shipping");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getTotal(), "total");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getCreatedAt(), "created_at");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getUpdatedAt(), "updated_at");
+        pagination.sortBy(sortParameter.getId(), "id", OrderEntity::getId)
+                .sortBy(sortParameter.getCode(), "code", OrderEntity::getCode)
+                .sortBy(sortParameter.getState(), "state", OrderEntity::getState)
+                .sortBy(sortParameter.getSubTotal(), "sub_total", OrderEntity::getSubTotal)
+                .sortBy(sortParameter.getShipping(), "shipping", OrderEntity::getShipping)
+                .sortBy(sortParameter.getTotal(), "total", OrderEntity::getTotal)
+                .sortBy(sortParameter.getCreatedAt(), "created_at", OrderEntity::getCreatedAt)
+                .sortBy(sortParameter.getUpdatedAt(), "updated_at", OrderEntity::getUpdatedAt);
     }
 
     private void buildFilter(QueryWrapper queryWrapper, OrderFilterParameter filterParameter) {
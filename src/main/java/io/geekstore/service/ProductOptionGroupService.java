@@ -10,6 +10,7 @@ import io.geekstore.entity.ProductOptionGroupEntity;
 import io.geekstore.entity.ProductOptionGroupJoinEntity;
 import io.geekstore.mapper.ProductOptionGroupEntityMapper;
 import io.geekstore.mapper.ProductOptionGroupJoinEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.service.helpers.ServiceHelper;
 import io.geekstore.types.product.CreateProductOptionGroupInput;
 import io.geekstore.types.product.CreateProductOptionInput;
@@ -33,6 +34,7 @@ public class ProductOptionGroupService {
     private final ProductOptionGroupEntityMapper productOptionGroupEntityMapper;
     private final ProductOptionGroupJoinEntityMapper productOptionGroupJoinEntityMapper;
     private final ProductOptionService productOptionService;
+    private final CatalogCache catalogCache;
 
     public List<ProductOptionGroupEntity> findAll(String filterTerm) {
         QueryWrapper<ProductOptionGroupEntity> queryWrapper = new QueryWrapper<>();
@@ -84,6 +86,7 @@ public class ProductOptionGroupService {
                         productOptionGroupEntityMapper, ProductOptionGroupEntity.class, input.getId());
         BeanMapper.patch(input, productOptionGroupEntity);
         productOptionGroupEntityMapper.updateById(productOptionGroupEntity);
+        catalogCache.evictOptionGroup(productOptionGroupEntity.getId());
         return productOptionGroupEntity;
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import io.geekstore.entity.ProductOptionEntity;
 import io.geekstore.entity.ProductOptionGroupEntity;
 import io.geekstore.mapper.ProductOptionEntityMapper;
 import io.geekstore.mapper.ProductOptionGroupEntityMapper;
+import io.geekstore.service.helpers.CatalogCache;
 import io.geekstore.service.helpers.ServiceHelper;
 import io.geekstore.types.product.CreateProductOptionInput;
 import io.geekstore.types.product.UpdateProductOptionInput;
@@ -26,6 +27,7 @@ import java.util.List;
 public class ProductOptionService {
     private final ProductOptionEntityMapper productOptionEntityMapper;
     private final ProductOptionGroupEntityMapper productOptionGroupEntityMapper;
+    private final CatalogCache catalogCache;
 
     public List<ProductOptionEntity> findAll() {
         return this.productOptionEntityMapper.selectList(null);
@@ -44,6 +46,7 @@ public class ProductOptionService {
         productOptionEntity.setGroupId(input.getProductOptionGroupId());
 
         productOptionEntityMapper.insert(productOptionEntity);
+        catalogCache.evictOptions(input.getProductOptionGroupId());
 
         return productOptionEntity;
     }
@@ -54,6 +57,7 @@ public class ProductOptionService {
         );
         BeanMapper.patch(input, productOptionEntity);
         productOptionEntityMapper.updateById(productOptionEntity);
+        catalogCache.evictOptions(productOptionEntity.getGroupId());
         return productOptionEntity;
     }
 }
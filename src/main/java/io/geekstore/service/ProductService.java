@@ -12,15 +12,15 @@ import io.geekstore.entity.*;
 import io.geekstore.eventbus.events.ProductEvent;
 import io.geekstore.exception.UserInputException;
 import io.geekstore.mapper.*;
+import io.geekstore.service.helpers.KeysetPagination;
 import io.geekstore.service.helpers.PageInfo;
 import io.geekstore.service.helpers.QueryHelper;
 import io.geekstore.service.helpers.ServiceHelper;
+import io.geekstore.service.helpers.TotalItemsCounter;
 import io.geekstore.types.common.DeletionResponse;
 import io.geekstore.types.common.DeletionResult;
 import io.geekstore.types.product.*;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.google.common.eventbus.EventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -47,23 +47,38 @@ public class ProductService {
     private final ProductOptionGroupEntityMapper productOptionGroupEntityMapper;
     private final ProductOptionGroupJoinEntityMapper productOptionGroupJoinEntityMapper;
     private final ProductVariantEntityMapper productVariantEntityMapper;
+    private final TotalItemsCounter totalItemsCounter;
 
     private final EventBus eventBus;
 
     public ProductList findAll(ProductListOptions options) {
+        return this.findAll(options, true);
+    }
+
+    /**
+     * With `options.after` set, the page following that cursor is selected by keyset pagination. The total count
+     * is only queried if `countTotal` is set, according to `options.countStrategy`.
+     */
+    public ProductList findAll(ProductListOptions options, boolean countTotal) {
         PageInfo pageInfo = ServiceHelper.getListOptions(options);
-        IPage<ProductEntity> page = new Page<>(pageInfo.current, pageInfo.size);
-        QueryWrapper<ProductEntity> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().isNull(ProductEntity::getDeletedAt); // 未删除
+        KeysetPagination<ProductEntity> pagination = new KeysetPagination<>("id", ProductEntity::getId);
         if (options != null) {
-            buildFilter(queryWrapper, options.getFilter());
-            buildSortOrder(queryWrapper, options.getSort());
+            buildSortOrder(pagination, options.getSort());
         }
-        IPage<ProductEntity> productPage =
-                this.productEntityMapper.selectPage(page, queryWrapper);
+        KeysetPagination.Result<ProductEntity> productPage = pagination.selectPage(
+                this.productEntityMapper, () -> {
+                    QueryWrapper<ProductEntity> queryWrapper = new QueryWrapper<>();
+                    queryWrapper.lambda().isNull(ProductEntity::getDeletedAt); // 未删除
+                    if (options != null) {
+                        buildFilter(queryWrapper, options.getFilter());
+                    }
+                    return queryWrapper;
+                }, pageInfo, countTotal ? this.totalItemsCounter : null);
 
         ProductList productList = new ProductList();
-        productList.setTotalItems((int) productPage.getTotal()); // 设置满足条件总记录数
+        productList.setTotalItems(productPage.getTotalItems()); // 设置满足条件总记录数
+        productList.setTotalItemsCapped(productPage.getTotalItemsCapped());
+        productList.setNextCursor(productPage.getNextCursor());
 
         if (CollectionUtils.isEmpty(productPage.getRecords()))
             return productList; // 返回空
@@ -77,14 +92,14 @@ public class ProductService {
         return productList;
     }
 
-    private void buildSortOrder(QueryWrapper queryWrapper, ProductSortParameter sortParameter) {
+    private void buildSortOrder(KeysetPagination<ProductEntity> pagination, ProductSortParameter sortParameter) {
         if (sortParameter == null) return ;
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getId(), "id");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getName(), "name");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getSlug(), "slug");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getDescription(), "description");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getCreatedAt(), "created_at");
-        QueryHelper.buildOneSortOrder(queryWrapper, sortParameter.getUpdatedAt(), "updated_at");
+        pagination.sortBy(sortParameter.getId(), "id", ProductEntity::getId)
+                .sortBy(sortParameter.getName(), "name", ProductEntity::getName)
+                .sortBy(sortParameter.getSlug(), "slug", ProductEntity::getSlug)
+                .sortBy(sortParameter.getDescription(), "description", ProductEntity::getDescription)
+                .sortBy(sortParameter.getCreatedAt(), "created_at", ProductEntity::getCreatedAt)
+                .sortBy(sortParameter.getUpdatedAt(), "updated_at", ProductEntity::getUpdatedAt);
     }
 
     private void buildFilter(QueryWrapper queryWrapper, ProductFilterParameter filterParameter) {
@@ -9,6 +9,7 @@ import io.geekstore.common.RequestContext;
 import io.geekstore.common.RoleCode;
 import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.entity.RoleEntity;
+import io.geekstore.eventbus.events.RoleEvent;
 import io.geekstore.exception.EntityNotFoundException;
 import io.geekstore.exception.ForbiddenException;
 import io.geekstore.exception.InternalServerError;
@@ -17,6 +18,7 @@ import io.geekstore.mapper.RoleEntityMapper;
 import io.geekstore.service.helpers.PageInfo;
 import io.geekstore.service.helpers.QueryHelper;
 import io.geekstore.service.helpers.ServiceHelper;
+import io.geekstore.service.helpers.UserCache;
 import io.geekstore.types.common.DeletionResponse;
 import io.geekstore.types.common.DeletionResult;
 import io.geekstore.types.common.Permission;
@@ -24,8 +26,11 @@ import io.geekstore.types.role.*;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.eventbus.EventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -41,6 +46,8 @@ import java.util.stream.Collectors;
 @SuppressWarnings("Duplicates")
 public class RoleService {
     private final RoleEntityMapper roleEntityMapper;
+    private final EventBus eventBus;
+    private final UserCache userCache;
 
     public RoleList findAll(RoleListOptions options) {
         PageInfo pageInfo = ServiceHelper.getListOptions(options);
@@ -114,6 +121,7 @@ public class RoleService {
         this.checkPermissionsAreValid(input.getPermissions());
 
         RoleEntity roleEntity = this.createRoleEntity(input);
+        this.postAfterCommit(new RoleEvent(ctx, roleEntity, "created"));
         return BeanMapper.map(roleEntity, Role.class);
     }
 
@@ -138,6 +146,8 @@ public class RoleService {
             roleEntity.setPermissions(new ArrayList<>(permissions));
         }
         this.roleEntityMapper.updateById(roleEntity);
+        this.userCache.evictUsersByRoleId(roleEntity.getId());
+        this.postAfterCommit(new RoleEvent(ctx, roleEntity, "updated"));
         return BeanMapper.map(roleEntity, Role.class);
     }
 
@@ -149,11 +159,30 @@ public class RoleService {
             throw new InternalServerError("The role '" +roleEntity.getCode() + "' cannot be deleted");
         }
         this.roleEntityMapper.deleteById(id);
+        this.userCache.evictUsersByRoleId(id);
+        this.postAfterCommit(new RoleEvent(ctx, roleEntity, "deleted"));
         DeletionResponse response = new DeletionResponse();
         response.setResult(DeletionResult.DELETED);
         return response;
     }
 
+    /**
+     * The sessions having the Role are evicted asynchronously and re-cached from the database on their next use,
+     * so the event is only posted once the Role has been committed.
+     */
+    private void postAfterCommit(RoleEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.eventBus.post(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                eventBus.post(event);
+            }
+        });
+    }
+
     private void checkPermissionsAreValid(List<Permission> permissions) {
         if (CollectionUtils.isEmpty(permissions)) return;
         List allPermissions = this.getAllPermissions();
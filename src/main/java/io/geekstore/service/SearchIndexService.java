@@ -7,13 +7,28 @@ package io.geekstore.service;
 
 import io.geekstore.entity.*;
 import io.geekstore.mapper.*;
+import io.geekstore.service.helpers.search_index.SearchIndexShadowTable;
+import io.geekstore.service.helpers.search_index.SearchReindexJob;
+import io.geekstore.service.helpers.search_strategy.SearchFilterIndex;
+import io.geekstore.service.helpers.search_strategy.SearchResultCache;
+import io.geekstore.service.helpers.search_strategy.SearchStrategy;
+import io.geekstore.service.helpers.search_strategy.SearchSuggestionIndex;
+import io.geekstore.types.search.SearchReindexProgress;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
@@ -35,43 +50,175 @@ public class SearchIndexService {
     private final ProductVariantCollectionJoinEntityMapper productVariantCollectionJoinEntityMapper;
     private final CollectionEntityMapper collectionEntityMapper;
     private final ProductVariantEntityMapper productVariantEntityMapper;
+    private final SearchStrategy searchStrategy;
+    private final SearchFilterIndex searchFilterIndex;
+    private final SearchResultCache searchResultCache;
+    private final SearchSuggestionIndex searchSuggestionIndex;
+    private final SearchIndexShadowTable searchIndexShadowTable;
+    private final ConfigService configService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+
+    private final Object reindexLock = new Object();
+    // 串行化对索引表的增量写入，避免并发的更新对同一条目重复插入
+    private final Object indexWriteLock = new Object();
+    private volatile Set<Long> variantsChangedDuringReindex;
+    private volatile SearchReindexJob reindexJob;
+
+    @PostConstruct
+    void init() {
+        long interval = this.configService.getSearchOptions().getLocalIndexRefreshInterval();
+        if (interval > 0) {
+            // 启动时已加载，一个间隔之后再刷新
+            this.taskScheduler.scheduleWithFixedDelay(
+                    this::refreshLocalIndexes, new Date(System.currentTimeMillis() + interval), interval);
+        }
+    }
 
-    public boolean reindex() {
-        List<ProductVariantEntity> productVariants = getAllValidProductVariants();
-        log.info("Reindexing " + productVariants.size() + " variants");
+    /**
+     * Reloads the in-memory search structures of this server from the search index table, so that the index
+     * updates made by other servers are picked up, see `search-options.localIndexRefreshInterval`.
+     */
+    public void refreshLocalIndexes() {
+        try {
+            synchronized (this.indexWriteLock) {
+                this.onIndexReplaced();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh the local search indexes", e);
+        }
+    }
 
-        this.searchIndexItemEntityMapper.delete(new QueryWrapper<>());
-        log.info("Deleted existing index items");
+    /**
+     * Returns the progress of the most recent reindex, or null if none has been run.
+     */
+    public SearchReindexProgress getReindexProgress() {
+        SearchReindexJob job = this.reindexJob;
+        return job == null ? null : job.toProgress();
+    }
 
-        this.saveVariants(productVariants);
-        log.info("Completed reindexing");
+    /**
+     * Rebuilds the whole search index. The new index is written into a shadow table, which is swapped with the
+     * live table once complete, so searches keep being served from the previous index while the reindex runs.
+     *
+     * The ProductVariant id space is split into ranges, which are processed in parallel by a bounded pool of
+     * `search-options.reindexWorkers` threads. Each worker streams the variants of its range through a cursor
+     * and writes them in batches, so the heap used does not grow with the size of the catalog.
+     */
+    public boolean reindex() {
+        synchronized (this.reindexLock) {
+            SearchReindexJob job = new SearchReindexJob();
+            this.reindexJob = job;
+            Set<Long> changedVariantIds = ConcurrentHashMap.newKeySet();
+            this.variantsChangedDuringReindex = changedVariantIds;
+            try {
+                this.searchIndexShadowTable.clear();
+                this.writeShadowIndex(job);
+                synchronized (this.indexWriteLock) {
+                    this.searchIndexShadowTable.swap();
+                    this.onIndexReplaced();
+                }
+                log.info("Swapped in the rebuilt index of " + job.toProgress().getProcessed() + " variants");
+            } catch (RuntimeException e) {
+                log.error("Failed to reindex", e);
+                job.fail(e);
+                return false;
+            } finally {
+                this.variantsChangedDuringReindex = null;
+            }
+            this.searchIndexShadowTable.clear();
 
+            if (!changedVariantIds.isEmpty()) {
+                // 重建期间写入旧索引的增量更新，需在新索引上重新应用
+                log.info("Refreshing " + changedVariantIds.size() + " variants changed during the reindex");
+                this.refreshVariants(new ArrayList<>(changedVariantIds));
+            }
+            job.complete();
+            log.info("Completed reindexing");
+        }
         return true;
     }
 
-    private List<ProductVariantEntity> getAllValidProductVariants() {
+    /**
+     * Writes the index items of all valid ProductVariants into the shadow table, processing id ranges in parallel.
+     */
+    private void writeShadowIndex(SearchReindexJob job) {
         QueryWrapper<ProductVariantEntity> queryWrapper = new QueryWrapper<>();
         queryWrapper.lambda().isNull(ProductVariantEntity::getDeletedAt); // 未删除
-        List<ProductVariantEntity> productVariants = this.productVariantEntityMapper.selectList(queryWrapper);
-
-        if (CollectionUtils.isEmpty(productVariants)) return new ArrayList<>();
+        job.setTotal(this.productVariantEntityMapper.selectCount(queryWrapper));
+
+        Long minId = this.selectIdBound("min(id)");
+        Long maxId = this.selectIdBound("max(id)");
+        if (minId == null || maxId == null) return;
+
+        int workers = Math.max(this.configService.getSearchOptions().getReindexWorkers(), 1);
+        int batchSize = this.configService.getSearchOptions().getReindexBatchSize();
+        // 每个线程分得若干区间，避免个别稀疏或密集的区间拖慢整体
+        long rangeSize = Math.max((maxId - minId + 1) / (workers * 4L) + 1, batchSize);
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                workers, new CustomizableThreadFactory("ReindexThread-"));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(long fromId = minId; fromId <= maxId; fromId += rangeSize) {
+                long rangeFromId = fromId;
+                long rangeToId = Math.min(fromId + rangeSize - 1, maxId);
+                futures.add(executor.submit(
+                        () -> this.writeShadowIndexRange(rangeFromId, rangeToId, batchSize, job)));
+            }
+            for(Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reindex was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-        List<Long> productIds = productVariants.stream()
-                .map(ProductVariantEntity::getProductId).collect(Collectors.toList());
+    private Long selectIdBound(String aggregate) {
+        QueryWrapper<ProductVariantEntity> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(aggregate).lambda().isNull(ProductVariantEntity::getDeletedAt);
+        List<Object> result = this.productVariantEntityMapper.selectObjs(queryWrapper);
+        if (CollectionUtils.isEmpty(result) || result.get(0) == null) return null;
+        return ((Number) result.get(0)).longValue();
+    }
 
-        QueryWrapper<ProductEntity> productEntityQueryWrapper = new QueryWrapper<>();
-        productEntityQueryWrapper.lambda().in(ProductEntity::getId, productIds)
-                .isNotNull(ProductEntity::getDeletedAt) // 已删除
-                .select(ProductEntity::getId);
-        Set<Long> deletedProductIds = this.productEntityMapper.selectList(productEntityQueryWrapper)
-                .stream().map(ProductEntity::getId).collect(Collectors.toSet());
+    /**
+     * Streams the valid ProductVariants with ids in the given (inclusive) range and writes their index items
+     * into the shadow table in batches.
+     */
+    private void writeShadowIndexRange(long fromId, long toId, int batchSize, SearchReindexJob job) {
+        this.transactionTemplate.execute(status -> {
+            QueryWrapper<ProductVariantEntity> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda().isNull(ProductVariantEntity::getDeletedAt) // 未删除
+                    .between(ProductVariantEntity::getId, fromId, toId)
+                    .orderByAsc(ProductVariantEntity::getId);
+            try (Cursor<ProductVariantEntity> cursor = this.productVariantEntityMapper.selectCursor(queryWrapper)) {
+                List<ProductVariantEntity> batch = new ArrayList<>(batchSize);
+                for(ProductVariantEntity variant : cursor) {
+                    batch.add(variant);
+                    if (batch.size() >= batchSize) {
+                        this.writeShadowIndexBatch(batch, job);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                this.writeShadowIndexBatch(batch, job);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
 
-        if (!CollectionUtils.isEmpty(deletedProductIds)) {
-            // 确保对应的Product没有删除
-            productVariants = productVariants.stream()
-                    .filter(v -> !deletedProductIds.contains(v.getProductId())).collect(Collectors.toList());
-        }
-        return productVariants;
+    private void writeShadowIndexBatch(List<ProductVariantEntity> variants, SearchReindexJob job) {
+        if (variants.isEmpty()) return;
+        this.searchIndexShadowTable.insert(this.buildIndexItems(variants));
+        job.addProcessed(variants.size());
     }
 
     public boolean updateProduct(Long productId) {
@@ -82,6 +229,26 @@ public class SearchIndexService {
         return this._updateVariants(variantIds);
     }
 
+    /**
+     * Updates, as one batch, the index items of the given ProductVariants and of all variants of the given
+     * Products. Items of variants which are no longer valid are removed.
+     */
+    public boolean updateProductsAndVariants(Collection<Long> productIds, Collection<Long> variantIds) {
+        Set<Long> allVariantIds = new HashSet<>(variantIds);
+        if (!CollectionUtils.isEmpty(productIds)) {
+            QueryWrapper<ProductVariantEntity> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda().in(ProductVariantEntity::getProductId, productIds)
+                    .select(ProductVariantEntity::getId);
+            this.productVariantEntityMapper.selectList(queryWrapper)
+                    .forEach(v -> allVariantIds.add(v.getId()));
+        }
+        if (!CollectionUtils.isEmpty(allVariantIds)) {
+            log.info("Updating " + allVariantIds.size() + " variants");
+            this.refreshVariants(new ArrayList<>(allVariantIds));
+        }
+        return true;
+    }
+
     public boolean deleteProduct(Long productId) {
         return this._deleteProduct(productId);
     }
@@ -92,41 +259,57 @@ public class SearchIndexService {
     }
 
     public boolean deleteAsset(Long assetId) {
-        QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(SearchIndexItemEntity::getProductAssetId, assetId);
-        List<SearchIndexItemEntity> indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
-        if (!CollectionUtils.isEmpty(indexItems)) {
-            indexItems.forEach(item -> item.setProductPreviewFocalPoint(null));
-            indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
-        }
+        synchronized (this.indexWriteLock) {
+            QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda().eq(SearchIndexItemEntity::getProductAssetId, assetId);
+            List<SearchIndexItemEntity> indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
+            if (!CollectionUtils.isEmpty(indexItems)) {
+                this.recordChangedVariants(indexItems.stream()
+                        .map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toList()));
+                indexItems.forEach(item -> item.setProductPreviewFocalPoint(null));
+                indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
+                this.onIndexItemsSaved(indexItems);
+            }
 
-        queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(SearchIndexItemEntity::getProductVariantAssetId, assetId);
-        indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
-        if (!CollectionUtils.isEmpty(indexItems)) {
-            indexItems.forEach(item -> item.setProductPreviewFocalPoint(null));
-            indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
+            queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda().eq(SearchIndexItemEntity::getProductVariantAssetId, assetId);
+            indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
+            if (!CollectionUtils.isEmpty(indexItems)) {
+                this.recordChangedVariants(indexItems.stream()
+                        .map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toList()));
+                indexItems.forEach(item -> item.setProductPreviewFocalPoint(null));
+                indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
+                this.onIndexItemsSaved(indexItems);
+            }
+            return true;
         }
-        return true;
     }
 
     public boolean updateAsset(AssetEntity asset) {
-        QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(SearchIndexItemEntity::getProductAssetId, asset.getId());
-        List<SearchIndexItemEntity> indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
-        if (!CollectionUtils.isEmpty(indexItems)) {
-            indexItems.forEach(item -> item.setProductPreviewFocalPoint(asset.getFocalPoint()));
-            indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
-        }
+        synchronized (this.indexWriteLock) {
+            QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda().eq(SearchIndexItemEntity::getProductAssetId, asset.getId());
+            List<SearchIndexItemEntity> indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
+            if (!CollectionUtils.isEmpty(indexItems)) {
+                this.recordChangedVariants(indexItems.stream()
+                        .map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toList()));
+                indexItems.forEach(item -> item.setProductPreviewFocalPoint(asset.getFocalPoint()));
+                indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
+                this.onIndexItemsSaved(indexItems);
+            }
 
-        queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(SearchIndexItemEntity::getProductVariantAssetId, asset.getId());
-        indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
-        if (!CollectionUtils.isEmpty(indexItems)) {
-            indexItems.forEach(item -> item.setProductPreviewFocalPoint(asset.getFocalPoint()));
-            indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
+            queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda().eq(SearchIndexItemEntity::getProductVariantAssetId, asset.getId());
+            indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
+            if (!CollectionUtils.isEmpty(indexItems)) {
+                this.recordChangedVariants(indexItems.stream()
+                        .map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toList()));
+                indexItems.forEach(item -> item.setProductPreviewFocalPoint(asset.getFocalPoint()));
+                indexItems.forEach(item -> this.searchIndexItemEntityMapper.updateById(item));
+                this.onIndexItemsSaved(indexItems);
+            }
+            return true;
         }
-        return true;
     }
 
     private boolean _updateProduct(Long productId) {
@@ -171,13 +354,86 @@ public class SearchIndexService {
         return true;
     }
 
-    private void saveVariants(List<ProductVariantEntity> variants) {
+    private List<SearchIndexItemEntity> saveVariants(List<ProductVariantEntity> variants) {
+        synchronized (this.indexWriteLock) {
+            List<SearchIndexItemEntity> items = this.buildIndexItems(variants);
+            if (CollectionUtils.isEmpty(items)) return items;
+
+            List<Long> variantIds = items.stream()
+                    .map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toList());
+            this.recordChangedVariants(variantIds);
+
+            QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda().in(SearchIndexItemEntity::getProductVariantId, variantIds)
+                    .select(SearchIndexItemEntity::getProductVariantId);
+            Set<Long> existingIds = this.searchIndexItemEntityMapper.selectList(queryWrapper)
+                    .stream().map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toSet());
+
+            for(SearchIndexItemEntity item : items) {
+                if (existingIds.contains(item.getProductVariantId())) {
+                    this.searchIndexItemEntityMapper.updateById(item);
+                } else {
+                    this.searchIndexItemEntityMapper.insert(item);
+                }
+            }
+            this.onIndexItemsSaved(items);
+            return items;
+        }
+    }
+
+    /**
+     * Brings the index items of the given ProductVariants up to date, removing those of variants which are
+     * no longer valid.
+     */
+    private void refreshVariants(List<Long> variantIds) {
+        QueryWrapper<ProductVariantEntity> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().in(ProductVariantEntity::getId, variantIds)
+                .isNull(ProductVariantEntity::getDeletedAt);
+        Set<Long> savedIds = this.saveVariants(this.productVariantEntityMapper.selectList(queryWrapper))
+                .stream().map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toSet());
+
+        List<Long> removedIds = variantIds.stream()
+                .filter(id -> !savedIds.contains(id)).collect(Collectors.toList());
+        if (!CollectionUtils.isEmpty(removedIds)) {
+            this.removeSearchIndexItems(removedIds);
+        }
+    }
+
+    /**
+     * Builds the index items of the given ProductVariants. The related Products, Assets, FacetValues and
+     * Collections are loaded with one set query each for the whole list, rather than per variant.
+     * Variants whose Product does not exist or has been deleted are skipped.
+     */
+    private List<SearchIndexItemEntity> buildIndexItems(List<ProductVariantEntity> variants) {
+        if (CollectionUtils.isEmpty(variants)) return new ArrayList<>();
+
+        List<Long> variantIds = variants.stream().map(ProductVariantEntity::getId).collect(Collectors.toList());
+        Set<Long> productIds = variants.stream().map(ProductVariantEntity::getProductId).collect(Collectors.toSet());
+
+        Map<Long, ProductEntity> productMap = this.productEntityMapper.selectBatchIds(productIds)
+                .stream().collect(Collectors.toMap(ProductEntity::getId, p -> p));
+
+        Set<Long> assetIds = new HashSet<>();
+        productMap.values().stream().map(ProductEntity::getFeaturedAssetId)
+                .filter(Objects::nonNull).forEach(assetIds::add);
+        variants.stream().map(ProductVariantEntity::getFeaturedAssetId)
+                .filter(Objects::nonNull).forEach(assetIds::add);
+        Map<Long, AssetEntity> assetMap = CollectionUtils.isEmpty(assetIds) ? new HashMap<>() :
+                this.assetEntityMapper.selectBatchIds(assetIds)
+                        .stream().collect(Collectors.toMap(AssetEntity::getId, a -> a));
+
+        Map<Long, List<Long>> facetValueIdsMap = this.getFacetValueIds(variants, variantIds, productIds);
+        Map<Long, Long> facetIdMap = this.getFacetIds(facetValueIdsMap);
+        Map<Long, List<CollectionEntity>> collectionsMap = this.getCollections(variantIds);
+
+        List<SearchIndexItemEntity> items = new ArrayList<>();
         for(ProductVariantEntity variant : variants) {
+            ProductEntity product = productMap.get(variant.getProductId());
+            if (product == null || product.getDeletedAt() != null) continue; // 确保对应的Product没有删除
+
             SearchIndexItemEntity item = new SearchIndexItemEntity();
             item.setProductVariantId(variant.getId());
             item.setSku(variant.getSku());
-
-            ProductEntity product = productEntityMapper.selectById(variant.getProductId());
             item.setEnabled(product.isEnabled() ? variant.isEnabled(): false);
             item.setSlug(product.getSlug());
             item.setPrice(variant.getPrice());
@@ -186,91 +442,147 @@ public class SearchIndexService {
             item.setDescription(product.getDescription());
             item.setProductVariantName(variant.getName());
 
-            if (product.getFeaturedAssetId() != null) {
-                AssetEntity featuredAsset = assetEntityMapper.selectById(product.getFeaturedAssetId());
-                item.setProductAssetId(featuredAsset.getId());
-                item.setProductPreviewFocalPoint(featuredAsset.getFocalPoint());
-                item.setProductPreview(featuredAsset.getPreview());
+            AssetEntity productAsset = assetMap.get(product.getFeaturedAssetId());
+            if (productAsset != null) {
+                item.setProductAssetId(productAsset.getId());
+                item.setProductPreviewFocalPoint(productAsset.getFocalPoint());
+                item.setProductPreview(productAsset.getPreview());
             }
-            if (variant.getFeaturedAssetId() != null) {
-                AssetEntity featuredAsset = assetEntityMapper.selectById(variant.getFeaturedAssetId());
-                item.setProductVariantPreviewFocalPoint(featuredAsset.getFocalPoint());
-                item.setProductVariantAssetId(featuredAsset.getId());
-                item.setProductPreview(featuredAsset.getPreview());
+            AssetEntity variantAsset = assetMap.get(variant.getFeaturedAssetId());
+            if (variantAsset != null) {
+                item.setProductVariantPreviewFocalPoint(variantAsset.getFocalPoint());
+                item.setProductVariantAssetId(variantAsset.getId());
+                item.setProductPreview(variantAsset.getPreview());
             }
-            item.setFacetIds(this.getFacetIds(variant));
-            item.setFacetValueIds(this.getFacetValueIds(variant));
 
-            List<CollectionEntity> collections = this.getCollections(variant.getId());
+            List<Long> facetValueIds = facetValueIdsMap.getOrDefault(variant.getId(), new ArrayList<>());
+            item.setFacetValueIds(facetValueIds);
+            item.setFacetIds(facetValueIds.stream()
+                    .map(facetIdMap::get).filter(Objects::nonNull).collect(Collectors.toList()));
+
+            List<CollectionEntity> collections = collectionsMap.getOrDefault(variant.getId(), new ArrayList<>());
             item.setCollectionIds(collections.stream().map(CollectionEntity::getId).collect(Collectors.toList()));
             item.setCollectionSlugs(collections.stream().map(CollectionEntity::getSlug).collect(Collectors.toList()));
 
-            if (checkExists(item.getProductVariantId())) {
-                this.searchIndexItemEntityMapper.updateById(item);
-            } else {
-                this.searchIndexItemEntityMapper.insert(item);
-            }
+            items.add(item);
         }
+        return items;
     }
 
-    private boolean checkExists(Long productVariantId) {
-        QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(SearchIndexItemEntity::getProductVariantId, productVariantId);
-        return this.searchIndexItemEntityMapper.selectCount(queryWrapper) > 0;
-    }
-
-    private List<CollectionEntity> getCollections(Long productVariantId) {
+    /**
+     * Returns a map of `productVariantId` => `collections`.
+     */
+    private Map<Long, List<CollectionEntity>> getCollections(List<Long> productVariantIds) {
         QueryWrapper<ProductVariantCollectionJoinEntity> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(ProductVariantCollectionJoinEntity::getProductVariantId, productVariantId);
-
-        List<Long> collectionIds = this.productVariantCollectionJoinEntityMapper.selectList(queryWrapper)
-                .stream().map(ProductVariantCollectionJoinEntity::getCollectionId)
-                .collect(Collectors.toList());
-        if (CollectionUtils.isEmpty(collectionIds)) return new ArrayList<>();
+        queryWrapper.lambda().in(ProductVariantCollectionJoinEntity::getProductVariantId, productVariantIds);
+        List<ProductVariantCollectionJoinEntity> joins =
+                this.productVariantCollectionJoinEntityMapper.selectList(queryWrapper);
+        if (CollectionUtils.isEmpty(joins)) return new HashMap<>();
 
+        Set<Long> collectionIds = joins.stream()
+                .map(ProductVariantCollectionJoinEntity::getCollectionId).collect(Collectors.toSet());
         QueryWrapper<CollectionEntity> collectionEntityQueryWrapper = new QueryWrapper<>();
         collectionEntityQueryWrapper.lambda().in(CollectionEntity::getId, collectionIds);
         collectionEntityQueryWrapper.lambda().select(CollectionEntity::getId, CollectionEntity::getSlug);
-        return this.collectionEntityMapper.selectList(collectionEntityQueryWrapper);
+        Map<Long, CollectionEntity> collectionMap = this.collectionEntityMapper.selectList(collectionEntityQueryWrapper)
+                .stream().collect(Collectors.toMap(CollectionEntity::getId, c -> c));
+
+        Map<Long, List<CollectionEntity>> result = new HashMap<>();
+        for(ProductVariantCollectionJoinEntity join : joins) {
+            CollectionEntity collection = collectionMap.get(join.getCollectionId());
+            if (collection != null) {
+                result.computeIfAbsent(join.getProductVariantId(), k -> new ArrayList<>()).add(collection);
+            }
+        }
+        return result;
     }
 
-    private List<Long> getFacetIds(ProductVariantEntity productVariant) {
-        List<Long> facetValueIds = this.getFacetValueIds(productVariant);
-        if (CollectionUtils.isEmpty(facetValueIds)) return new ArrayList<>();
+    /**
+     * Returns a map of `facetValueId` => `facetId` for all the given FacetValues.
+     */
+    private Map<Long, Long> getFacetIds(Map<Long, List<Long>> facetValueIdsMap) {
+        Set<Long> facetValueIds = new HashSet<>();
+        facetValueIdsMap.values().forEach(facetValueIds::addAll);
+        if (CollectionUtils.isEmpty(facetValueIds)) return new HashMap<>();
 
         QueryWrapper<FacetValueEntity> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().in(FacetValueEntity::getId, facetValueIds).select(FacetValueEntity::getFacetId);
-        List<Long> facetIds = this.facetValueEntityMapper.selectList(queryWrapper)
-                .stream().map(FacetValueEntity::getFacetId)
-                .collect(Collectors.toList());
-
-        return facetIds;
+        queryWrapper.lambda().in(FacetValueEntity::getId, facetValueIds)
+                .select(FacetValueEntity::getId, FacetValueEntity::getFacetId);
+        return this.facetValueEntityMapper.selectList(queryWrapper)
+                .stream().collect(Collectors.toMap(FacetValueEntity::getId, FacetValueEntity::getFacetId));
     }
 
-    private List<Long> getFacetValueIds(ProductVariantEntity productVariant) {
+    /**
+     * Returns a map of `productVariantId` => `facetValueIds`, combining the FacetValues of each variant
+     * with those of its Product.
+     */
+    private Map<Long, List<Long>> getFacetValueIds(
+            List<ProductVariantEntity> productVariants, List<Long> productVariantIds, Set<Long> productIds) {
         QueryWrapper<ProductVariantFacetValueJoinEntity> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(ProductVariantFacetValueJoinEntity::getProductVariantId, productVariant.getId());
-        List<Long> variantFacetValueIds = this.productVariantFacetValueJoinEntityMapper
+        queryWrapper.lambda().in(ProductVariantFacetValueJoinEntity::getProductVariantId, productVariantIds);
+        Map<Long, Set<Long>> variantFacetValueIds = this.productVariantFacetValueJoinEntityMapper
                 .selectList(queryWrapper).stream()
-                .map(ProductVariantFacetValueJoinEntity::getFacetValueId)
-                .collect(Collectors.toList());
+                .collect(Collectors.groupingBy(ProductVariantFacetValueJoinEntity::getProductVariantId,
+                        Collectors.mapping(ProductVariantFacetValueJoinEntity::getFacetValueId, Collectors.toSet())));
 
         QueryWrapper<ProductFacetValueJoinEntity> productFacetValueJoinEntityQueryWrapper = new QueryWrapper<>();
         productFacetValueJoinEntityQueryWrapper.lambda()
-                .eq(ProductFacetValueJoinEntity::getProductId, productVariant.getProductId());
-        List<Long> productFacetValueIds = this.productFacetValueJoinEntityMapper
+                .in(ProductFacetValueJoinEntity::getProductId, productIds);
+        Map<Long, Set<Long>> productFacetValueIds = this.productFacetValueJoinEntityMapper
                 .selectList(productFacetValueJoinEntityQueryWrapper).stream()
-                .map(ProductFacetValueJoinEntity::getFacetValueId)
-                .collect(Collectors.toList());
+                .collect(Collectors.groupingBy(ProductFacetValueJoinEntity::getProductId,
+                        Collectors.mapping(ProductFacetValueJoinEntity::getFacetValueId, Collectors.toSet())));
+
+        Map<Long, List<Long>> result = new HashMap<>();
+        for(ProductVariantEntity productVariant : productVariants) {
+            Set<Long> set = new HashSet<>();
+            set.addAll(variantFacetValueIds.getOrDefault(productVariant.getId(), new HashSet<>()));
+            set.addAll(productFacetValueIds.getOrDefault(productVariant.getProductId(), new HashSet<>()));
+            result.put(productVariant.getId(), new ArrayList<>(set));
+        }
+        return result;
+    }
 
-        Set<Long> set = new HashSet<>();
-        set.addAll(variantFacetValueIds);
-        set.addAll(productFacetValueIds);
+    private void removeSearchIndexItems(List<Long> variantIds) {
+        synchronized (this.indexWriteLock) {
+            this.recordChangedVariants(variantIds);
+            this.searchIndexItemEntityMapper.deleteBatchIds(variantIds);
+            this.onIndexItemsRemoved(variantIds);
+        }
+    }
 
-        return new ArrayList<>(set);
+    /**
+     * Keeps the in-memory index structures in sync with the search index table.
+     */
+    private void onIndexItemsSaved(List<SearchIndexItemEntity> items) {
+        this.searchFilterIndex.put(items);
+        this.searchSuggestionIndex.put(items);
+        this.searchStrategy.onIndexItemsSaved(items);
+        this.searchResultCache.onIndexItemsSaved(items);
     }
 
-    private void removeSearchIndexItems(List<Long> variantIds) {
-        this.searchIndexItemEntityMapper.deleteBatchIds(variantIds);
+    private void onIndexItemsRemoved(List<Long> variantIds) {
+        this.searchFilterIndex.remove(variantIds);
+        this.searchSuggestionIndex.remove(variantIds);
+        this.searchStrategy.onIndexItemsRemoved(variantIds);
+        this.searchResultCache.onIndexItemsRemoved(variantIds);
+    }
+
+    private void onIndexReplaced() {
+        this.searchFilterIndex.reload();
+        this.searchSuggestionIndex.reload();
+        this.searchStrategy.onIndexReplaced();
+        this.searchResultCache.onIndexReplaced();
+    }
+
+    /**
+     * Remembers which ProductVariants were changed in the live table while a reindex is running, since the
+     * swapped in index may have been built from their previous state.
+     */
+    private void recordChangedVariants(Collection<Long> variantIds) {
+        Set<Long> changedVariantIds = this.variantsChangedDuringReindex;
+        if (changedVariantIds != null) {
+            changedVariantIds.addAll(variantIds);
+        }
     }
 }
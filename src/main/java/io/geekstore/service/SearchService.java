@@ -11,12 +11,16 @@ import io.geekstore.entity.FacetValueEntity;
 import io.geekstore.eventbus.events.ReIndexEvent;
 import io.geekstore.mapper.FacetEntityMapper;
 import io.geekstore.mapper.FacetValueEntityMapper;
+import io.geekstore.service.helpers.search_strategy.SearchResultCache;
 import io.geekstore.service.helpers.search_strategy.SearchStrategy;
+import io.geekstore.service.helpers.search_strategy.SearchStrategyResult;
+import io.geekstore.service.helpers.search_strategy.SearchSuggestionIndex;
 import io.geekstore.types.common.SearchInput;
 import io.geekstore.types.facet.FacetValue;
 import io.geekstore.types.search.FacetValueResult;
+import io.geekstore.types.search.SearchReindexProgress;
 import io.geekstore.types.search.SearchResponse;
-import io.geekstore.types.search.SearchResult;
+import io.geekstore.types.search.SearchSuggestion;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.google.common.eventbus.EventBus;
 import lombok.RequiredArgsConstructor;
@@ -37,10 +41,16 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class SearchService {
+    private static final int DEFAULT_SUGGESTIONS_LIMIT = 10;
+    private static final int MAX_SUGGESTIONS_LIMIT = 100;
+
     private final SearchStrategy searchStrategy;
+    private final SearchResultCache searchResultCache;
+    private final SearchSuggestionIndex searchSuggestionIndex;
     private final FacetValueEntityMapper facetValueEntityMapper;
     private final FacetEntityMapper facetEntityMapper;
     private final EventBus eventBus;
+    private final SearchIndexService searchIndexService;
 
     public SearchResponse search(SearchInput input) {
         return this.search(input, false);
@@ -48,14 +58,21 @@ public class SearchService {
 
     /**
      * Perform a search according to the provided input arguments.
+     *
+     * The items, the total count and the facet value counts are computed together, the latter being kept on the
+     * response so that resolving its `facetValues` field does not need to search again. Results are served from
+     * the {@link SearchResultCache} when possible.
      */
     public SearchResponse search(SearchInput input, boolean enabledOnly) {
-        List<SearchResult> items = this.searchStrategy.getSearchResults(input, enabledOnly);
-        Integer totalItems = this.searchStrategy.getTotalCount(input, enabledOnly);
+        SearchStrategyResult result = this.searchResultCache.get(
+                input, enabledOnly, () -> this.searchStrategy.search(input, enabledOnly));
 
         SearchResponse response = new SearchResponse();
-        response.setItems(items);
-        response.setTotalItems(totalItems);
+        response.setItems(result.getItems());
+        response.setTotalItems(result.getTotalItems());
+        response.setTotalItemsCapped(result.isTotalItemsCapped());
+        response.setNextCursor(result.getNextCursor());
+        response.setFacetValueCounts(result.getFacetValueCounts());
 
         return response;
     }
@@ -69,6 +86,14 @@ public class SearchService {
      */
     public List<FacetValueResult> facetValues(SearchInput input, boolean enabledOnly, boolean publicOnly) {
         Map<Long, Integer> facetValueIdsMap  = this.searchStrategy.getFacetValueIds(input, enabledOnly);
+        return this.facetValues(facetValueIdsMap, publicOnly);
+    }
+
+    /**
+     * Return the FacetValues of a map of `facetValueId` => `count`, as computed by a search.
+     */
+    public List<FacetValueResult> facetValues(Map<Long, Integer> facetValueIdsMap, boolean publicOnly) {
+        if (CollectionUtils.isEmpty(facetValueIdsMap)) return new ArrayList<>();
         List<FacetValueEntity> facetValueEntities =
                 this.facetValueEntityMapper.selectBatchIds(facetValueIdsMap.keySet());
         if (CollectionUtils.isEmpty(facetValueEntities)) return new ArrayList<>();
@@ -79,8 +104,6 @@ public class SearchService {
             QueryWrapper<FacetEntity> queryWrapper = new QueryWrapper<>();
             queryWrapper.lambda().eq(FacetEntity::isPrivateOnly, true).in(FacetEntity::getId, facetIds);
 
-            List<FacetEntity> facetEntities = this.facetEntityMapper.selectList(null);
-
             Set<Long> privateOnlyFacetIds = this.facetEntityMapper.selectList(queryWrapper)
                     .stream().map(FacetEntity::getId).collect(Collectors.toSet());
 
@@ -109,4 +132,16 @@ public class SearchService {
         return true;
     }
 
+    /**
+     * Returns typeahead suggestions for the prefix from the in-memory {@link SearchSuggestionIndex}.
+     */
+    public List<SearchSuggestion> suggest(String prefix, Integer limit) {
+        int actualLimit = limit == null ? DEFAULT_SUGGESTIONS_LIMIT : Math.min(limit, MAX_SUGGESTIONS_LIMIT);
+        return this.searchSuggestionIndex.suggest(prefix, actualLimit);
+    }
+
+    public SearchReindexProgress getReindexProgress() {
+        return this.searchIndexService.getReindexProgress();
+    }
+
 }
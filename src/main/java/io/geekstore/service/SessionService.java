@@ -7,7 +7,6 @@ package io.geekstore.service;
 
 import io.geekstore.common.Constant;
 import io.geekstore.common.RequestContext;
-import io.geekstore.common.utils.BeanMapper;
 import io.geekstore.common.utils.TimeSpanUtil;
 import io.geekstore.common.utils.TokenUtil;
 import io.geekstore.config.session_cache.CachedSession;
@@ -15,7 +14,12 @@ import io.geekstore.config.session_cache.CachedSessionUser;
 import io.geekstore.config.session_cache.SessionCacheStrategy;
 import io.geekstore.entity.OrderEntity;
 import io.geekstore.entity.SessionEntity;
+import io.geekstore.entity.UserRoleJoinEntity;
 import io.geekstore.mapper.SessionEntityMapper;
+import io.geekstore.mapper.UserRoleJoinEntityMapper;
+import io.geekstore.service.helpers.SessionCacheIndex;
+import io.geekstore.service.helpers.SessionExpiryBuffer;
+import io.geekstore.types.role.Role;
 import io.geekstore.types.user.User;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Created on Nov, 2020 by @author bobo
@@ -34,8 +39,11 @@ import java.util.*;
 public class SessionService {
     private final ConfigService configService;
     private final SessionEntityMapper sessionEntityMapper;
+    private final UserRoleJoinEntityMapper userRoleJoinEntityMapper;
     private final UserService userService;
     private final OrderService orderService;
+    private final SessionCacheIndex sessionCacheIndex;
+    private final SessionExpiryBuffer sessionExpiryBuffer;
 
     private long getSessionDurationInMs() {
         return TimeSpanUtil.toMs(this.configService.getAuthOptions().getSessionDuration());
@@ -45,11 +53,77 @@ public class SessionService {
         return this.configService.getAuthConfig().getSessionCacheStrategy();
     }
 
-    // TODO
-    // If Role changes, potentially all the cached permissions in the
-    // session cache will be wrong, so we just clear the entire cache. It should however
-    // be a very rate occurrence in normal operation, once initial setup is complete.
-    // this.sessionCacheStrategy.clear();
+    private void cacheSession(CachedSession serializedSession) {
+        this.getSessionCacheStrategy().set(serializedSession);
+        this.sessionCacheIndex.add(serializedSession);
+    }
+
+    private void uncacheSession(String sessionToken) {
+        this.getSessionCacheStrategy().delete(sessionToken);
+        this.sessionCacheIndex.remove(sessionToken);
+    }
+
+    /**
+     * Evicts the sessions from the cache, e.g. because they were deleted.
+     */
+    public void evictCachedSessions(Collection<String> sessionTokens) {
+        sessionTokens.forEach(this::uncacheSession);
+    }
+
+    /**
+     * Evicts the cached sessions of the User, e.g. because its Roles were changed. The sessions remain valid
+     * and are taken from the database on their next use.
+     *
+     * The {@link SessionCacheIndex} only knows the sessions cached by this server, so with a shared cache the
+     * sessions of the User are looked up in the database, and their eviction is sent to the other servers.
+     */
+    public void evictCachedSessionsByUserId(Long userId) {
+        Set<String> tokens = this.sessionCacheIndex.getTokensByUserId(userId);
+        if (this.getSessionCacheStrategy().isShared()) {
+            tokens.addAll(this.findSessionTokensByUserId(userId));
+        }
+        tokens.forEach(this::uncacheSession);
+    }
+
+    /**
+     * Evicts the cached sessions of the Users having the Role, e.g. because its permissions were changed.
+     *
+     * With a shared cache, the Users having the Role are looked up in the database, which still holds them after
+     * the Role is deleted, and their sessions are evicted on all the servers.
+     */
+    public void evictCachedSessionsByRoleId(Long roleId) {
+        if (this.getSessionCacheStrategy().isShared()) {
+            this.findUserIdsByRoleId(roleId).forEach(this::evictCachedSessionsByUserId);
+            return;
+        }
+        this.sessionCacheIndex.getTokensByRoleId(roleId).forEach(this::uncacheSession);
+    }
+
+    private Set<Long> findUserIdsByRoleId(Long roleId) {
+        QueryWrapper<UserRoleJoinEntity> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().select(UserRoleJoinEntity::getUserId).eq(UserRoleJoinEntity::getRoleId, roleId);
+        return this.userRoleJoinEntityMapper.selectList(queryWrapper).stream()
+                .map(UserRoleJoinEntity::getUserId).collect(Collectors.toSet());
+    }
+
+    private List<String> findSessionTokensByUserId(Long userId) {
+        QueryWrapper<SessionEntity> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().select(SessionEntity::getToken).eq(SessionEntity::getUserId, userId);
+        return this.sessionEntityMapper.selectList(queryWrapper).stream()
+                .map(SessionEntity::getToken).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the User to cache a session with. The Users are cached by each server and only evicted on the
+     * changes made through it, so with a shared session cache the User is read from the database, lest a server
+     * spreads the stale Roles of a User changed through another one.
+     */
+    private User findSessionUser(Long userId) {
+        if (this.getSessionCacheStrategy().isShared()) {
+            return this.userService.loadUserWithRolesById(userId);
+        }
+        return this.userService.findUserWithRolesById(userId);
+    }
 
     /**
      * Authenticates a user's credentials and if okay, creates a new session.
@@ -74,8 +148,9 @@ public class SessionService {
 
         this.sessionEntityMapper.insert(sessionEntity);
 
-        CachedSession authenticatedSession = this.serializeSession(sessionEntity, user);
-        this.getSessionCacheStrategy().set(authenticatedSession);
+        CachedSession authenticatedSession = this.serializeSession(sessionEntity,
+                this.getSessionCacheStrategy().isShared() ? this.findSessionUser(user.getId()) : user);
+        this.cacheSession(authenticatedSession);
 
         return authenticatedSession;
     }
@@ -93,8 +168,8 @@ public class SessionService {
         newSession.setAnonymous(true);
         // save the new session
         this.sessionEntityMapper.insert(newSession);
-        CachedSession serializedSession = this.serializeSession(newSession, null);
-        this.getSessionCacheStrategy().set(serializedSession);
+        CachedSession serializedSession = this.serializeSession(newSession, (User) null);
+        this.cacheSession(serializedSession);
         return serializedSession;
     }
 
@@ -111,10 +186,10 @@ public class SessionService {
 
         User user = null;
         if (session.getUserId() != null) {
-            user = this.userService.findUserWithRolesById(session.getUserId());
+            user = this.findSessionUser(session.getUserId());
         }
         serializedSession = this.serializeSession(session, user);
-        this.getSessionCacheStrategy().set(serializedSession);
+        this.cacheSession(serializedSession);
         return serializedSession;
     }
 
@@ -125,7 +200,9 @@ public class SessionService {
         QueryWrapper<SessionEntity> queryWrapper = new QueryWrapper<>();
         queryWrapper.lambda().eq(SessionEntity::getUserId, userId);
         List<SessionEntity> sessionEntityList = this.sessionEntityMapper.selectList(queryWrapper);
-        sessionEntityList.forEach(sessionEntity -> this.getSessionCacheStrategy().delete(sessionEntity.getToken()));
+        sessionEntityList.forEach(sessionEntity -> this.uncacheSession(sessionEntity.getToken()));
+        this.sessionExpiryBuffer.discard(
+                sessionEntityList.stream().map(SessionEntity::getId).collect(Collectors.toList()));
         this.sessionEntityMapper.delete(queryWrapper);
     }
 
@@ -136,7 +213,8 @@ public class SessionService {
         QueryWrapper<SessionEntity> queryWrapper = new QueryWrapper<>();
         queryWrapper.lambda().eq(SessionEntity::getActiveOrderId, activeOrderId);
         List<SessionEntity> sessions = this.sessionEntityMapper.selectList(queryWrapper);
-        sessions.forEach(session -> this.getSessionCacheStrategy().delete(session.getToken()));
+        sessions.forEach(session -> this.uncacheSession(session.getToken()));
+        this.sessionExpiryBuffer.discard(sessions.stream().map(SessionEntity::getId).collect(Collectors.toList()));
         this.sessionEntityMapper.delete(queryWrapper);
     }
 
@@ -145,12 +223,8 @@ public class SessionService {
         if (session != null) {
             session.setActiveOrderId(orderId);
             this.sessionEntityMapper.updateById(session);
-            User user = null;
-            if (serializedSession.getUser() != null) {
-                user = BeanMapper.map(serializedSession.getUser(), User.class);
-            }
-            CachedSession updatedSerializedSession = this.serializeSession(session, user);
-            this.getSessionCacheStrategy().set(updatedSerializedSession);
+            CachedSession updatedSerializedSession = this.serializeSession(session, serializedSession.getUser());
+            this.cacheSession(updatedSerializedSession);
             return updatedSerializedSession;
         }
         return serializedSession;
@@ -162,12 +236,8 @@ public class SessionService {
             if (session != null) {
                 session.setActiveOrderId(null);
                 this.sessionEntityMapper.updateById(session);
-                User user = null;
-                if (serializedSession.getUser() != null) {
-                    user = BeanMapper.map(serializedSession.getUser(), User.class);
-                }
-                CachedSession updatedSerializedSession = this.serializeSession(session, user);
-                this.getSessionCacheStrategy().set(updatedSerializedSession);
+                CachedSession updatedSerializedSession = this.serializeSession(session, serializedSession.getUser());
+                this.cacheSession(updatedSerializedSession);
                 return updatedSerializedSession;
             }
         }
@@ -181,6 +251,9 @@ public class SessionService {
         QueryWrapper<SessionEntity> queryWrapper = new QueryWrapper<>();
         queryWrapper.lambda().eq(SessionEntity::isInvalidated, false).eq(SessionEntity::getToken, token);
         SessionEntity session = this.sessionEntityMapper.selectOne(queryWrapper);
+        if (session != null) {
+            session.setExpires(this.sessionExpiryBuffer.getExpires(session));
+        }
         if (session != null && session.getExpires().getTime() > new Date().getTime()) {
             this.updateSessionExpiry(session);
             return session;
@@ -192,7 +265,8 @@ public class SessionService {
      * If we are over half way to the current session's expiry date, then we update it.
      *
      * This ensures that the session will not expire when in active use, but prevents us from
-     * needing to run an update query on *every* request.
+     * needing to run an update query on *every* request. The new expiry date is written in batches
+     * by the {@link SessionExpiryBuffer}.
      */
     private void updateSessionExpiry(SessionEntity session) {
         long now = new Date().getTime();
@@ -200,11 +274,27 @@ public class SessionService {
         if (durationBeforeExpiry > 0 && durationBeforeExpiry < this.getSessionDurationInMs() / 2) {
             Date newExpiryDate = this.getExpiryDate(this.getSessionDurationInMs());
             session.setExpires(newExpiryDate);
-            this.sessionEntityMapper.updateById(session);
+            this.sessionExpiryBuffer.extend(session.getId(), newExpiryDate);
         }
     }
 
     private CachedSession serializeSession(SessionEntity session, User user) {
+        CachedSessionUser cachedSessionUser = null;
+        if (user != null) {
+            cachedSessionUser = new CachedSessionUser();
+            cachedSessionUser.setId(user.getId());
+            cachedSessionUser.setIdentifier(user.getIdentifier());
+            cachedSessionUser.setVerified(user.getVerified());
+            cachedSessionUser.setPermissions(user.getPermissions());
+            cachedSessionUser.setRoleIds(user.getRoles().stream().map(Role::getId).collect(Collectors.toList()));
+        }
+        return this.serializeSession(session, cachedSessionUser);
+    }
+
+    /**
+     * Serializes the session with an already cached User, which is kept as is.
+     */
+    private CachedSession serializeSession(SessionEntity session, CachedSessionUser cachedSessionUser) {
         long expiry = new Date().getTime() + this.configService.getAuthOptions().getSessionCacheTTL() * 1000;
         CachedSession serializedSession = new CachedSession();
         serializedSession.setCacheExpiry(expiry);
@@ -212,13 +302,8 @@ public class SessionService {
         serializedSession.setToken(session.getToken());
         serializedSession.setExpires(session.getExpires());
         serializedSession.setActiveOrderId(session.getActiveOrderId());
-        if (!session.isAnonymous() && user != null) { // authenticated session
+        if (!session.isAnonymous() && cachedSessionUser != null) { // authenticated session
             serializedSession.setAuthenticationStrategy(session.getAuthenticationStrategy());
-            CachedSessionUser cachedSessionUser = new CachedSessionUser();
-            cachedSessionUser.setId(user.getId());
-            cachedSessionUser.setIdentifier(user.getIdentifier());
-            cachedSessionUser.setVerified(user.getVerified());
-            cachedSessionUser.setPermissions(user.getPermissions());
             serializedSession.setUser(cachedSessionUser);
         }
         return serializedSession;
@@ -16,6 +16,7 @@ import io.geekstore.mapper.RoleEntityMapper;
 import io.geekstore.mapper.UserEntityMapper;
 import io.geekstore.mapper.UserRoleJoinEntityMapper;
 import io.geekstore.service.helpers.ServiceHelper;
+import io.geekstore.service.helpers.UserCache;
 import io.geekstore.service.helpers.VerificationTokenGenerator;
 import io.geekstore.types.role.Role;
 import io.geekstore.types.user.User;
@@ -47,6 +48,7 @@ public class UserService {
     private final RoleService roleService;
     private final VerificationTokenGenerator verificationTokenGenerator;
     private final AuthenticationMethodEntityMapper authenticationMethodEntityMapper;
+    private final UserCache userCache;
 
     public boolean checkHasNativeAuthMethod(Long userId) {
         QueryWrapper<AuthenticationMethodEntity> queryWrapper = new QueryWrapper<>();
@@ -59,7 +61,19 @@ public class UserService {
         return authMethods.stream().anyMatch(m -> !m.isExternal());
     }
 
+    /**
+     * Returns a copy of the cached native authentication method of the User. Use it to read the method only,
+     * changes go through {@link #loadNativeAuthMethodEntityByUserId} and evict the cache.
+     */
     public AuthenticationMethodEntity getNativeAuthMethodEntityByUserId(Long userId) {
+        return this.userCache.getNativeAuthMethod(userId, () -> this.loadNativeAuthMethodEntityByUserId(userId));
+    }
+
+    /**
+     * Reads the native authentication method of the User from the database, to be changed by the caller, who
+     * must then evict the User from the cache.
+     */
+    public AuthenticationMethodEntity loadNativeAuthMethodEntityByUserId(Long userId) {
         QueryWrapper<AuthenticationMethodEntity> queryWrapper = new QueryWrapper<>();
         queryWrapper.lambda().eq(AuthenticationMethodEntity::getUserId, userId);
         List<AuthenticationMethodEntity> authMethods =
@@ -81,12 +95,16 @@ public class UserService {
     }
 
     public User findUserWithRolesById(Long userId) {
+        return this.userCache.getUser(userId, () -> this.loadUserWithRolesById(userId));
+    }
+
+    /**
+     * Reads the User with its Roles from the database, bypassing the cache, which only sees the changes made
+     * through this server.
+     */
+    public User loadUserWithRolesById(Long userId) {
         UserEntity userEntity = this.findUserEntityById(userId);
-        if (userEntity == null) return null;
-        User user = BeanMapper.map(userEntity, User.class);
-        List<Role> roles = this.findRolesByUserId(userId);
-        user.setRoles(roles);
-        return user;
+        return userEntity == null ? null : this.toUserWithRoles(userEntity);
     }
 
     public UserEntity findUserEntityByIdentifier(String identifier) {
@@ -103,10 +121,33 @@ public class UserService {
     }
 
     public User findUserWithRoleByIdentifier(String identifier) {
+        Long userId = this.userCache.getUserId(identifier);
+        if (userId != null) {
+            User user = this.findUserWithRolesById(userId);
+            // 标识符大小写不敏感
+            if (user != null && identifier.equalsIgnoreCase(user.getIdentifier())) return user;
+        }
+
+        long generation = this.userCache.getGeneration();
         UserEntity userEntity = this.findUserEntityByIdentifier(identifier);
         if (userEntity == null) return null;
+        User user = this.toUserWithRoles(userEntity);
+        this.userCache.putUserId(identifier, user.getId(), generation);
+        this.userCache.putUser(user.getId(), user, generation);
+        return user;
+    }
+
+    /**
+     * Evicts the cached data of the User, which must be done whenever the User, its Roles or its authentication
+     * methods are changed.
+     */
+    public void evictCachedUser(Long userId) {
+        this.userCache.evictUser(userId);
+    }
+
+    private User toUserWithRoles(UserEntity userEntity) {
         User user = BeanMapper.map(userEntity, User.class);
-        List<Role> roles = this.findRolesByUserId(user.getId());
+        List<Role> roles = this.findRolesByUserId(userEntity.getId());
         user.setRoles(roles);
         return user;
     }
@@ -164,6 +205,7 @@ public class UserService {
         authenticationMethodEntity.setIdentifier(identifier);
         authenticationMethodEntity.setUserId(userEntity.getId());
         this.authenticationMethodEntityMapper.insert(authenticationMethodEntity);
+        this.userCache.evictUser(userEntity.getId());
         return userEntity;
     }
 
@@ -186,15 +228,17 @@ public class UserService {
         UserEntity userEntity = ServiceHelper.getEntityOrThrow(this.userEntityMapper, UserEntity.class, userId);
         userEntity.setDeletedAt(new Date());
         this.userEntityMapper.updateById(userEntity);
+        this.userCache.evictUser(userId);
     }
 
     @Transactional
     public UserEntity setVerificationToken(UserEntity userEntity) {
-        AuthenticationMethodEntity nativeAuthMethodEntity = getNativeAuthMethodEntityByUserId(userEntity.getId());
+        AuthenticationMethodEntity nativeAuthMethodEntity = loadNativeAuthMethodEntityByUserId(userEntity.getId());
         nativeAuthMethodEntity.setVerificationToken(this.verificationTokenGenerator.generateVerificationToken());
         this.authenticationMethodEntityMapper.updateById(nativeAuthMethodEntity);
         userEntity.setVerified(false);
         this.userEntityMapper.updateById(userEntity);
+        this.userCache.evictUser(userEntity.getId());
         return userEntity;
     }
 
@@ -211,7 +255,7 @@ public class UserService {
         }
 
         AuthenticationMethodEntity nativeAuthMethod =
-                this.getNativeAuthMethodEntityByUserId(authMethodEntity.getUserId());
+                this.loadNativeAuthMethodEntityByUserId(authMethodEntity.getUserId());
         if (StringUtils.isEmpty(password)) {
             if (StringUtils.isEmpty(nativeAuthMethod.getPasswordHash())) {
                 throw new UserInputException("A password must be provided as it was not set during registration");
@@ -228,6 +272,7 @@ public class UserService {
         UserEntity userEntity = this.userEntityMapper.selectById(authMethodEntity.getUserId());
         userEntity.setVerified(true);
         this.userEntityMapper.updateById(userEntity);
+        this.userCache.evictUser(userEntity.getId());
 
         return userEntity;
     }
@@ -237,9 +282,10 @@ public class UserService {
         if (userEntity == null) return null;
 
         AuthenticationMethodEntity nativeAuthMethod =
-                this.getNativeAuthMethodEntityByUserId(userEntity.getId());
+                this.loadNativeAuthMethodEntityByUserId(userEntity.getId());
         nativeAuthMethod.setPasswordResetToken(this.verificationTokenGenerator.generateVerificationToken());
         this.authenticationMethodEntityMapper.updateById(nativeAuthMethod);
+        this.userCache.evictUser(userEntity.getId());
         return userEntity;
     }
 
@@ -255,11 +301,12 @@ public class UserService {
         }
 
         AuthenticationMethodEntity nativeAuthMethod =
-                this.getNativeAuthMethodEntityByUserId(authMethodEntity.getUserId());
+                this.loadNativeAuthMethodEntityByUserId(authMethodEntity.getUserId());
         nativeAuthMethod.setPasswordHash(this.passwordEncoder.encode(password));
         nativeAuthMethod.setPasswordResetToken(null);
 
         this.authenticationMethodEntityMapper.updateById(nativeAuthMethod);
+        this.userCache.evictUser(authMethodEntity.getUserId());
 
         return this.findUserEntityById(authMethodEntity.getUserId());
     }
@@ -276,7 +323,7 @@ public class UserService {
         }
 
         AuthenticationMethodEntity nativeAuthMethod =
-                this.getNativeAuthMethodEntityByUserId(authMethodEntity.getUserId());
+                this.loadNativeAuthMethodEntityByUserId(authMethodEntity.getUserId());
         String pendingIdentifier = nativeAuthMethod.getPendingIdentifier();
         if (StringUtils.isEmpty(pendingIdentifier)) {
             throw new InternalServerError("Pending identifier is missing");
@@ -291,6 +338,7 @@ public class UserService {
 
         this.authenticationMethodEntityMapper.updateById(nativeAuthMethod);
         this.userEntityMapper.updateById(userEntity);
+        this.userCache.evictUser(userEntity.getId());
 
         return Pair.of(userEntity, oldIdentifier);
     }
@@ -299,22 +347,24 @@ public class UserService {
         // 确保用户存在
         ServiceHelper.getEntityOrThrow(this.userEntityMapper, UserEntity.class, userId);
         AuthenticationMethodEntity nativeAuthMethod =
-                this.getNativeAuthMethodEntityByUserId(userId);
+                this.loadNativeAuthMethodEntityByUserId(userId);
         boolean matches = this.passwordEncoder.matches(currentPassword, nativeAuthMethod.getPasswordHash());
         if (!matches) {
             throw new UnauthorizedException();
         }
         nativeAuthMethod.setPasswordHash(this.passwordEncoder.encode(newPassword));
         this.authenticationMethodEntityMapper.updateById(nativeAuthMethod);
+        this.userCache.evictUser(userId);
         return true;
     }
 
     public void changeIdentifierAndSetToken(Long userId, String newIdentifier) {
         AuthenticationMethodEntity nativeAuthMethod =
-                this.getNativeAuthMethodEntityByUserId(userId);
+                this.loadNativeAuthMethodEntityByUserId(userId);
         nativeAuthMethod.setPendingIdentifier(newIdentifier);
         nativeAuthMethod.setIdentifierChangeToken(this.verificationTokenGenerator.generateVerificationToken());
         this.authenticationMethodEntityMapper.updateById(nativeAuthMethod);
+        this.userCache.evictUser(userId);
     }
 
 }
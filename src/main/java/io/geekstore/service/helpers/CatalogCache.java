@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.entity.*;
+import io.geekstore.eventbus.events.AssetEvent;
+import io.geekstore.options.DataLoaderOptions;
+import io.geekstore.service.ConfigService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A cache shared across requests of the mostly static catalog data loaded by the DataLoaders: Assets, Facets with
+ * their FacetValues, and ProductOptionGroups with their ProductOptions. The cache of a DataLoader only lasts for one
+ * request, so without it a product list page loads the same rows again on every request.
+ *
+ * The cache is opt-in through `catalogCacheEnabled`. Entries expire after `catalogCacheTtl` seconds, and are
+ * evicted when an {@link AssetEvent} reports an Asset update or deletion, or when the Facet & ProductOption services
+ * mutate the cached rows. As in the {@link UserCache}, evictions made within a transaction are repeated after its
+ * commit, and a value loaded while an eviction is going on is not cached.
+ *
+ * The DataLoaders map the cached entities to new GraphQL types, so the entities themselves are never modified.
+ * Cache hits & misses are exposed through the actuator as the `catalog.*` cache metrics.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+public class CatalogCache {
+    private final EventBus eventBus;
+    private final Cache<Long, AssetEntity> assets;
+    private final Cache<Long, FacetEntity> facets;
+    private final Cache<Long, List<FacetValueEntity>> facetValuesByFacetId;
+    private final Cache<Long, ProductOptionGroupEntity> optionGroups;
+    private final Cache<Long, List<ProductOptionEntity>> optionsByGroupId;
+    private long generation; // guarded by this
+
+    public CatalogCache(ConfigService configService, MeterRegistry meterRegistry, EventBus eventBus) {
+        this.eventBus = eventBus;
+        DataLoaderOptions options = configService.getDataLoaderOptions();
+        if (options.isCatalogCacheEnabled()) {
+            this.assets = buildCache(options);
+            this.facets = buildCache(options);
+            this.facetValuesByFacetId = buildCache(options);
+            this.optionGroups = buildCache(options);
+            this.optionsByGroupId = buildCache(options);
+            GuavaCacheMetrics.monitor(meterRegistry, this.assets, "catalog.assets");
+            GuavaCacheMetrics.monitor(meterRegistry, this.facets, "catalog.facets");
+            GuavaCacheMetrics.monitor(meterRegistry, this.facetValuesByFacetId, "catalog.facet.values");
+            GuavaCacheMetrics.monitor(meterRegistry, this.optionGroups, "catalog.option.groups");
+            GuavaCacheMetrics.monitor(meterRegistry, this.optionsByGroupId, "catalog.options");
+        } else {
+            this.assets = null;
+            this.facets = null;
+            this.facetValuesByFacetId = null;
+            this.optionGroups = null;
+            this.optionsByGroupId = null;
+        }
+    }
+
+    private static <K, V> Cache<K, V> buildCache(DataLoaderOptions options) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(options.getCatalogCacheSize())
+                .expireAfterWrite(options.getCatalogCacheTtl(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    void init() {
+        eventBus.register(this);
+    }
+
+    /**
+     * Returns the Assets by id, loading the ones which are not cached with the loader.
+     */
+    public Map<Long, AssetEntity> getAssets(Set<Long> ids, Function<Set<Long>, Map<Long, AssetEntity>> loader) {
+        return this.getAll(this.assets, ids, loader, null);
+    }
+
+    public Map<Long, FacetEntity> getFacets(Set<Long> ids, Function<Set<Long>, Map<Long, FacetEntity>> loader) {
+        return this.getAll(this.facets, ids, loader, null);
+    }
+
+    /**
+     * Returns the FacetValues by Facet id, with an empty list for the Facets without any.
+     */
+    public Map<Long, List<FacetValueEntity>> getFacetValues(
+            Set<Long> facetIds, Function<Set<Long>, Map<Long, List<FacetValueEntity>>> loader) {
+        return this.getAll(this.facetValuesByFacetId, facetIds, loader, Collections.emptyList());
+    }
+
+    public Map<Long, ProductOptionGroupEntity> getOptionGroups(
+            Set<Long> ids, Function<Set<Long>, Map<Long, ProductOptionGroupEntity>> loader) {
+        return this.getAll(this.optionGroups, ids, loader, null);
+    }
+
+    /**
+     * Returns the ProductOptions by ProductOptionGroup id, with an empty list for the groups without any.
+     */
+    public Map<Long, List<ProductOptionEntity>> getOptions(
+            Set<Long> groupIds, Function<Set<Long>, Map<Long, List<ProductOptionEntity>>> loader) {
+        return this.getAll(this.optionsByGroupId, groupIds, loader, Collections.emptyList());
+    }
+
+    @Subscribe
+    public void onEvent(AssetEvent event) {
+        if (Objects.equals(event.getType(), "updated") || Objects.equals(event.getType(), "deleted")) {
+            this.evict(this.assets, event.getAsset().getId());
+        }
+    }
+
+    /**
+     * Evicts the Facet together with its FacetValues.
+     */
+    public void evictFacet(Long facetId) {
+        this.evict(this.facets, facetId);
+        this.evict(this.facetValuesByFacetId, facetId);
+    }
+
+    public void evictFacetValues(Long facetId) {
+        this.evict(this.facetValuesByFacetId, facetId);
+    }
+
+    /**
+     * Evicts the ProductOptionGroup together with its ProductOptions.
+     */
+    public void evictOptionGroup(Long groupId) {
+        this.evict(this.optionGroups, groupId);
+        this.evict(this.optionsByGroupId, groupId);
+    }
+
+    public void evictOptions(Long groupId) {
+        this.evict(this.optionsByGroupId, groupId);
+    }
+
+    /**
+     * If a default value is given, it is cached for the ids which the loader returned nothing for.
+     */
+    private <V> Map<Long, V> getAll(Cache<Long, V> cache, Set<Long> ids,
+                                    Function<Set<Long>, Map<Long, V>> loader, V defaultValue) {
+        Map<Long, V> result = new HashMap<>();
+        Set<Long> missingIds = ids;
+        if (cache != null) {
+            result.putAll(cache.getAllPresent(ids));
+            missingIds = new HashSet<>(ids);
+            missingIds.removeAll(result.keySet());
+            if (missingIds.isEmpty()) return result;
+        }
+
+        long loadedGeneration = this.getGeneration();
+        Map<Long, V> loaded = loader.apply(missingIds);
+        for(Long id : missingIds) {
+            V value = loaded.getOrDefault(id, defaultValue);
+            if (value == null) continue;
+            result.put(id, value);
+            if (cache != null) {
+                this.putIfUnchanged(cache, id, value, loadedGeneration);
+            }
+        }
+        return result;
+    }
+
+    private synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    private synchronized <V> void putIfUnchanged(Cache<Long, V> cache, Long id, V value, long loadedGeneration) {
+        // 加载期间发生过失效，加载的值可能已过期
+        if (this.generation == loadedGeneration) {
+            cache.put(id, value);
+        }
+    }
+
+    /**
+     * Runs the eviction now, and again after the commit of the current transaction if there is one.
+     */
+    private void evict(Cache<Long, ?> cache, Long id) {
+        if (cache == null) return;
+        Runnable eviction = () -> {
+            synchronized (this) {
+                this.generation++;
+                cache.invalidate(id);
+            }
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs a flush action once a delay has passed since it was first requested, so that all the requests made in the
+ * meantime are served by a single run. The flush is scheduled on a dedicated scheduler thread, which also runs it,
+ * so no pool thread is held while waiting for the delay.
+ *
+ * Shared by the {@link SessionExpiryBuffer} and the
+ * {@link io.geekstore.service.helpers.search_index.SearchIndexUpdateQueue}.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Slf4j
+public class DebouncedFlush {
+    private final LongSupplier delay;
+    private final Runnable flush;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /**
+     * The number of flushes which are scheduled or running.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * @param threadNamePrefix the name prefix of the scheduler thread
+     * @param delay supplies the delay in milliseconds, read whenever a flush is scheduled
+     * @param flush the flush action
+     */
+    public DebouncedFlush(String threadNamePrefix, LongSupplier delay, Runnable flush) {
+        this.delay = delay;
+        this.flush = flush;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Schedules the flush, unless one is already scheduled.
+     */
+    public void request() {
+        if (!this.scheduled.compareAndSet(false, true)) return;
+        this.pending.incrementAndGet();
+        try {
+            this.scheduler.schedule(this::run, Math.max(this.delay.getAsLong(), 0), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 已关闭，由所有者在关闭时直接刷新
+            this.pending.decrementAndGet();
+            this.scheduled.set(false);
+        }
+    }
+
+    /**
+     * Returns true while a flush is scheduled or running.
+     */
+    public boolean isPending() {
+        return this.pending.get() > 0;
+    }
+
+    /**
+     * Cancels the scheduled flush, if any. The owner is expected to flush right away afterwards.
+     */
+    public void shutdown() {
+        this.scheduler.shutdown();
+    }
+
+    private void run() {
+        // 先清除标记，刷新期间到达的请求会安排下一次刷新
+        this.scheduled.set(false);
+        try {
+            this.flush.run();
+        } catch (RuntimeException e) {
+            log.error("Failed to run a debounced flush", e);
+        } finally {
+            this.pending.decrementAndGet();
+        }
+    }
+}
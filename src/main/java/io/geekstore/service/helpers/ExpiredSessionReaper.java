@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.entity.SessionEntity;
+import io.geekstore.mapper.SessionEntityMapper;
+import io.geekstore.options.SessionReaperOptions;
+import io.geekstore.service.ConfigService;
+import io.geekstore.service.SessionService;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically deletes the expired & invalidated sessions, which are otherwise never removed from `tb_session`.
+ *
+ * The sessions are deleted by id in batches of `sessionReaperOptions.batchSize`, each in its own short statement
+ * followed by a pause, so that no lock is held on the table for long. A session whose expiry extension is still
+ * pending in the {@link SessionExpiryBuffer} is not expired and is skipped. The deleted sessions are evicted from
+ * the session cache.
+ *
+ * The number of deleted sessions is logged after each run, and exposed through the actuator as the
+ * `geekstore.session.reaped` counter.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@Slf4j
+public class ExpiredSessionReaper {
+    private final SessionEntityMapper sessionEntityMapper;
+    private final SessionService sessionService;
+    private final SessionExpiryBuffer sessionExpiryBuffer;
+    private final ConfigService configService;
+    private final Counter reapedCounter;
+
+    private volatile boolean stopped;
+
+    public ExpiredSessionReaper(SessionEntityMapper sessionEntityMapper,
+                                SessionService sessionService,
+                                SessionExpiryBuffer sessionExpiryBuffer,
+                                ConfigService configService,
+                                MeterRegistry meterRegistry) {
+        this.sessionEntityMapper = sessionEntityMapper;
+        this.sessionService = sessionService;
+        this.sessionExpiryBuffer = sessionExpiryBuffer;
+        this.configService = configService;
+        this.reapedCounter = Counter.builder("geekstore.session.reaped")
+                .description("Expired & invalidated sessions deleted from the database")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${geekstore.auth-options.session-reaper-options.interval:3600000}",
+            initialDelayString = "${geekstore.auth-options.session-reaper-options.interval:3600000}")
+    public void scheduledReap() {
+        if (!this.getOptions().isEnabled()) return;
+        try {
+            int count = this.reap();
+            log.info("Deleted " + count + " expired sessions");
+        } catch (Exception ex) {
+            log.error("Failed to delete the expired sessions", ex);
+        }
+    }
+
+    /**
+     * Deletes the sessions which expired or were invalidated, and returns their number.
+     */
+    public int reap() {
+        SessionReaperOptions options = this.getOptions();
+        Date now = new Date();
+        int count = 0;
+        long lastId = 0;
+        while (!this.stopped) {
+            QueryWrapper<SessionEntity> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lambda()
+                    .select(SessionEntity::getId, SessionEntity::getToken, SessionEntity::getExpires,
+                            SessionEntity::isInvalidated)
+                    .gt(SessionEntity::getId, lastId)
+                    .and(w -> w.lt(SessionEntity::getExpires, now).or().eq(SessionEntity::isInvalidated, true))
+                    .orderByAsc(SessionEntity::getId)
+                    .last("limit " + options.getBatchSize());
+            List<SessionEntity> sessions = this.sessionEntityMapper.selectList(queryWrapper);
+            if (sessions.isEmpty()) break;
+            lastId = sessions.get(sessions.size() - 1).getId();
+
+            // 延期尚未写入数据库的会话仍然有效
+            List<SessionEntity> expiredSessions = sessions.stream()
+                    .filter(s -> !this.sessionExpiryBuffer.getExpires(s).after(now) || s.isInvalidated())
+                    .collect(Collectors.toList());
+            if (!expiredSessions.isEmpty()) {
+                List<Long> ids = expiredSessions.stream().map(SessionEntity::getId).collect(Collectors.toList());
+                this.sessionEntityMapper.deleteBatchIds(ids);
+                this.sessionExpiryBuffer.discard(ids);
+                this.sessionService.evictCachedSessions(
+                        expiredSessions.stream().map(SessionEntity::getToken).collect(Collectors.toList()));
+                count += ids.size();
+                this.reapedCounter.increment(ids.size());
+            }
+
+            if (sessions.size() < options.getBatchSize()) break;
+            if (options.getBatchPause() > 0) {
+                try {
+                    Thread.sleep(options.getBatchPause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    @PreDestroy
+    void stop() {
+        this.stopped = true;
+    }
+
+    private SessionReaperOptions getOptions() {
+        return this.configService.getAuthOptions().getSessionReaperOptions();
+    }
+}
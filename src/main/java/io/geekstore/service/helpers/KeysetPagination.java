@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.exception.UserInputException;
+import io.geekstore.types.common.SortOrder;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.Base64Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Seek (a.k.a. keyset) pagination. Rather than skipping `(currentPage - 1) * pageSize` rows, the page following
+ * a given row is selected by a condition on the sort columns, `WHERE (sort, id) > (?, ?)`, so that a deep page
+ * costs no more than the first one.
+ *
+ * The position is carried between requests by an opaque cursor, which encodes the sort columns together with their
+ * values in the last row of the previous page. The id column always sorts last, which makes the order total.
+ * Nulls sort first in ascending order and last in descending order, as they do on both H2 & MySQL.
+ *
+ * @param <R> the type of the paginated rows
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class KeysetPagination<R> {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String idColumn;
+    private final Function<R, ?> idGetter;
+    private final List<SortKey<R>> sortKeys = new ArrayList<>();
+    private SortOrder idOrder;
+    private boolean selectKeysOnly;
+
+    public KeysetPagination(String idColumn, Function<R, ?> idGetter) {
+        this.idColumn = idColumn;
+        this.idGetter = idGetter;
+    }
+
+    /**
+     * Adds a sort column, unless the order is null. Columns following the id column are ignored, as the id
+     * already determines the order.
+     */
+    public KeysetPagination<R> sortBy(SortOrder order, String column, Function<R, ?> getter) {
+        if (order == null || this.idOrder != null) return this;
+        if (this.idColumn.equals(column)) {
+            this.idOrder = order;
+        } else {
+            this.sortKeys.add(new SortKey<>(column, order, getter));
+        }
+        return this;
+    }
+
+    /**
+     * Makes {@link #selectPage} only select the sort columns, for callers which fetch the full rows by id.
+     */
+    public KeysetPagination<R> selectKeysOnly() {
+        this.selectKeysOnly = true;
+        return this;
+    }
+
+    public List<String> getColumns() {
+        return this.getKeys().stream().map(k -> k.column).collect(Collectors.toList());
+    }
+
+    public void applyOrder(QueryWrapper<?> queryWrapper) {
+        for(SortKey<R> key : this.getKeys()) {
+            if (key.order == SortOrder.DESC) {
+                queryWrapper.orderByDesc(key.column);
+            } else {
+                queryWrapper.orderByAsc(key.column);
+            }
+        }
+    }
+
+    /**
+     * Restricts the query to the rows which sort after the cursor.
+     */
+    public void applySeek(QueryWrapper<?> queryWrapper, String after) {
+        List<SortKey<R>> keys = this.getKeys();
+        List<Object> values = this.decode(after);
+
+        // (c1, c2, id) > (v1, v2, v3) 展开为 c1 > v1 or (c1 = v1 and c2 > v2) or (c1 = v1 and c2 = v2 and id > v3)
+        List<Object> params = new ArrayList<>();
+        List<String> disjuncts = new ArrayList<>();
+        StringBuilder equalities = new StringBuilder();
+        for(int i = 0; i < keys.size(); i++) {
+            SortKey<R> key = keys.get(i);
+            Object value = values.get(i);
+            if (value == null) {
+                // nulls sort last in descending order, so only the non-null values can follow them in ascending order
+                if (key.order != SortOrder.DESC) {
+                    disjuncts.add("(" + equalities + key.column + " is not null)");
+                }
+                equalities.append(key.column).append(" is null and ");
+            } else {
+                String param = "{" + params.size() + "}";
+                params.add(value);
+                if (key.order == SortOrder.DESC) {
+                    disjuncts.add("(" + equalities + "(" + key.column + " < " + param + " or " +
+                            key.column + " is null))");
+                } else {
+                    disjuncts.add("(" + equalities + key.column + " > " + param + ")");
+                }
+                equalities.append(key.column).append(" = ").append(param).append(" and ");
+            }
+        }
+
+        if (disjuncts.isEmpty()) {
+            queryWrapper.apply("1 = 0");
+        } else {
+            queryWrapper.apply("(" + String.join(" or ", disjuncts) + ")", params.toArray());
+        }
+    }
+
+    /**
+     * Returns whether the row sorts after the decoded cursor values. Strings are compared case-insensitively.
+     */
+    private boolean isAfter(R row, List<Object> values) {
+        List<SortKey<R>> keys = this.getKeys();
+        for(int i = 0; i < keys.size(); i++) {
+            SortKey<R> key = keys.get(i);
+            int result = compare(key.getter.apply(row), values.get(i));
+            if (result != 0) {
+                return key.order == SortOrder.DESC ? result < 0 : result > 0;
+            }
+        }
+        return false;
+    }
+
+    public String cursorOf(R row) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("k", this.getSignature());
+        ArrayNode values = node.putArray("v");
+        for(SortKey<R> key : this.getKeys()) {
+            values.add(encodeValue(key.getter.apply(row)));
+        }
+        return Base64Utils.encodeToUrlSafeString(node.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Selects the page following the cursor `pageInfo.after` if set, or else the `pageInfo.current` page. The
+     * query supplier must return a new query with the filter conditions on each call. The total count of rows is
+     * only queried if a counter is given, with the count strategy of the page info.
+     *
+     * The next cursor is exact when seeking or when the total is known. When paging by offset without an exact
+     * total, it is returned for any full page, in which case the following page may turn out to be empty.
+     */
+    public Result<R> selectPage(BaseMapper<R> mapper, Supplier<QueryWrapper<R>> query,
+                                PageInfo pageInfo, TotalItemsCounter counter) {
+        TotalItemsCounter.Count count = counter == null ? null :
+                counter.count(mapper, query.get(), this.idColumn, pageInfo.countStrategy); // 计数不受游标位置影响
+
+        QueryWrapper<R> queryWrapper = query.get();
+        List<R> records;
+        boolean hasMore;
+        if (pageInfo.after == null) {
+            this.applySelectAndOrder(queryWrapper);
+            records = mapper.selectPage(new Page<>(pageInfo.current, pageInfo.size, false), queryWrapper)
+                    .getRecords();
+            long end = (long) pageInfo.current * pageInfo.size;
+            if (count != null && (end < count.getTotalItems() || !count.isCapped())) {
+                hasMore = end < count.getTotalItems();
+            } else {
+                hasMore = records.size() >= pageInfo.size;
+            }
+        } else {
+            this.applySeek(queryWrapper, pageInfo.after);
+            this.applySelectAndOrder(queryWrapper);
+            // 多取一行以判断是否还有下一页
+            records = mapper.selectPage(new Page<>(1, pageInfo.size + 1, false), queryWrapper).getRecords();
+            hasMore = records.size() > pageInfo.size;
+            if (hasMore) {
+                records = records.subList(0, pageInfo.size);
+            }
+        }
+
+        String nextCursor = hasMore && !records.isEmpty() ? this.cursorOf(records.get(records.size() - 1)) : null;
+        return new Result<>(records, count, nextCursor);
+    }
+
+    /**
+     * Returns the page of rows paginated in memory, which must already be sorted in the order of this pagination.
+     * The page follows the row the cursor was created from if it is still present, or else the first row which
+     * sorts after the cursor.
+     */
+    public Result<R> page(List<R> sortedRows, PageInfo pageInfo) {
+        String after = pageInfo.after;
+        int start = -1;
+        if (after == null) {
+            start = Math.max(pageInfo.current - 1, 0) * pageInfo.size;
+        } else {
+            List<Object> values = this.decode(after);
+            for(int i = 0; i < sortedRows.size() && start < 0; i++) {
+                if (after.equals(this.cursorOf(sortedRows.get(i)))) start = i + 1;
+            }
+            for(int i = 0; i < sortedRows.size() && start < 0; i++) {
+                if (this.isAfter(sortedRows.get(i), values)) start = i;
+            }
+            if (start < 0) start = sortedRows.size();
+        }
+
+        int end = Math.min(start + Math.max(pageInfo.size, 0), sortedRows.size());
+        List<R> records = start < end ? sortedRows.subList(start, end) : new ArrayList<>();
+        String nextCursor = end < sortedRows.size() && !records.isEmpty() ?
+                this.cursorOf(records.get(records.size() - 1)) : null;
+        return new Result<>(records, new TotalItemsCounter.Count(sortedRows.size(), false), nextCursor);
+    }
+
+    private void applySelectAndOrder(QueryWrapper<R> queryWrapper) {
+        if (this.selectKeysOnly) {
+            queryWrapper.select(this.getColumns().toArray(new String[0]));
+        }
+        this.applyOrder(queryWrapper);
+    }
+
+    private List<SortKey<R>> getKeys() {
+        List<SortKey<R>> keys = new ArrayList<>(this.sortKeys);
+        keys.add(new SortKey<>(this.idColumn, this.idOrder == null ? SortOrder.ASC : this.idOrder, this.idGetter));
+        return keys;
+    }
+
+    private String getSignature() {
+        return this.getKeys().stream().map(k -> k.column + " " + k.order).collect(Collectors.joining(","));
+    }
+
+    private List<Object> decode(String cursor) {
+        try {
+            JsonNode node = objectMapper.readTree(Base64Utils.decodeFromUrlSafeString(cursor));
+            if (!this.getSignature().equals(node.path("k").asText())) {
+                throw new UserInputException("The cursor does not match the sort order of the query");
+            }
+            List<Object> values = new ArrayList<>();
+            for(JsonNode value : node.path("v")) {
+                values.add(decodeValue(value));
+            }
+            if (values.size() != this.sortKeys.size() + 1) {
+                throw new UserInputException("Invalid cursor");
+            }
+            return values;
+        } catch (UserInputException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new UserInputException("Invalid cursor");
+        }
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) return null;
+        if (value instanceof Date) return "d:" + ((Date) value).getTime();
+        if (value instanceof Float || value instanceof Double) return "f:" + value;
+        if (value instanceof Number) return "n:" + value;
+        if (value instanceof Boolean) return "b:" + value;
+        return "s:" + value;
+    }
+
+    private static Object decodeValue(JsonNode node) {
+        if (node.isNull()) return null;
+        String text = node.asText();
+        String value = text.substring(2);
+        switch (text.substring(0, 2)) {
+            case "d:":
+                return new Date(Long.parseLong(value));
+            case "f:":
+                return Double.parseDouble(value);
+            case "n:":
+                return Long.parseLong(value);
+            case "b:":
+                return Boolean.parseBoolean(value);
+            case "s:":
+                return value;
+            default:
+                throw new IllegalArgumentException("Unknown cursor value: " + text);
+        }
+    }
+
+    private static int compare(Object value, Object cursorValue) {
+        if (value == null || cursorValue == null) {
+            return value == null ? (cursorValue == null ? 0 : -1) : 1;
+        }
+        if (value instanceof Number && cursorValue instanceof Number) {
+            return Double.compare(((Number) value).doubleValue(), ((Number) cursorValue).doubleValue());
+        }
+        if (value instanceof Date && cursorValue instanceof Date) {
+            return ((Date) value).compareTo((Date) cursorValue);
+        }
+        return String.CASE_INSENSITIVE_ORDER.compare(value.toString(), cursorValue.toString());
+    }
+
+    @RequiredArgsConstructor
+    private static class SortKey<R> {
+        private final String column;
+        private final SortOrder order;
+        private final Function<R, ?> getter;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result<R> {
+        private final List<R> records;
+        /**
+         * null if the total was not counted
+         */
+        private final TotalItemsCounter.Count count;
+        /**
+         * null if there is no next page
+         */
+        private final String nextCursor;
+
+        public Integer getTotalItems() {
+            return this.count == null ? null : this.count.getTotalItems();
+        }
+
+        public Boolean getTotalItemsCapped() {
+            return this.count == null ? null : this.count.isCapped();
+        }
+    }
+}
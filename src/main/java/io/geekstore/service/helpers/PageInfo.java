@@ -5,6 +5,7 @@
 
 package io.geekstore.service.helpers;
 
+import io.geekstore.types.common.CountStrategy;
 import lombok.Builder;
 
 /**
@@ -14,4 +15,6 @@ import lombok.Builder;
 public class PageInfo {
     public Integer current;
     public Integer size;
+    public String after;
+    public CountStrategy countStrategy;
 }
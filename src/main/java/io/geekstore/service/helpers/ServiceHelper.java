@@ -16,6 +16,7 @@ import io.geekstore.service.args.CreateCustomerHistoryEntryArgs;
 import io.geekstore.service.args.CreateOrderHistoryEntryArgs;
 import io.geekstore.service.args.UpdateCustomerHistoryEntryArgs;
 import io.geekstore.service.args.UpdateOrderHistoryEntryArgs;
+import io.geekstore.types.common.KeysetListOptions;
 import io.geekstore.types.common.ListOptions;
 import io.geekstore.types.history.HistoryEntryType;
 import io.geekstore.types.order.Order;
@@ -65,7 +66,12 @@ public abstract class ServiceHelper {
         if (options != null && options.getPageSize() != null) {
             pageSize = options.getPageSize();
         }
-        return PageInfo.builder().current(currentPage).size(pageSize).build();
+        PageInfo.PageInfoBuilder builder = PageInfo.builder().current(currentPage).size(pageSize);
+        if (options instanceof KeysetListOptions) {
+            builder.after(((KeysetListOptions) options).getAfter())
+                    .countStrategy(((KeysetListOptions) options).getCountStrategy());
+        }
+        return builder.build();
     }
 
     public static CreateCustomerHistoryEntryArgs buildCreateCustomerHistoryEntryArgs(
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.config.session_cache.CachedSession;
+import io.geekstore.service.ConfigService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A reverse index of the cached sessions, from the id of the User and of each of its Roles to the session tokens,
+ * so that a change to a User's Roles, or to a Role's permissions, only evicts the sessions it affects.
+ *
+ * A token is indexed when its session is put into the session cache, and dropped when it is deleted from the
+ * cache or after the `sessionCacheTTL`, past which the cached session is stale anyway. The index is local to
+ * the server, so it only finds the sessions cached by this server; with a shared session cache, the
+ * {@link io.geekstore.service.SessionService} also evicts the sessions cached by the other servers.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+public class SessionCacheIndex {
+    private final Cache<String, IndexedSession> sessions;
+    private final Map<Long, Set<String>> tokensByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokensByRoleId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SessionCacheIndex(ConfigService configService) {
+        this(configService.getAuthOptions().getSessionCacheTTL());
+    }
+
+    SessionCacheIndex(int ttlInSeconds) {
+        this.sessions = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlInSeconds, TimeUnit.SECONDS)
+                .<String, IndexedSession>removalListener(notification -> {
+                    // 替换的情况已在add中处理
+                    if (notification.getCause() != RemovalCause.REPLACED) {
+                        this.unindex(notification.getKey(), notification.getValue());
+                    }
+                })
+                .build();
+    }
+
+    public void add(CachedSession session) {
+        if (session.getUser() == null) {
+            this.remove(session.getToken()); // anonymous sessions are not affected by Role changes
+            return;
+        }
+        IndexedSession indexedSession =
+                new IndexedSession(session.getUser().getId(), new ArrayList<>(session.getUser().getRoleIds()));
+        synchronized (this) {
+            IndexedSession previous = this.sessions.getIfPresent(session.getToken());
+            if (previous != null && !previous.equals(indexedSession)) {
+                this.unindex(session.getToken(), previous);
+            }
+            this.sessions.put(session.getToken(), indexedSession);
+            index(this.tokensByUserId, indexedSession.userId, session.getToken());
+            indexedSession.roleIds.forEach(roleId -> index(this.tokensByRoleId, roleId, session.getToken()));
+        }
+    }
+
+    public void remove(String token) {
+        this.sessions.invalidate(token);
+    }
+
+    public Set<String> getTokensByUserId(Long userId) {
+        this.sessions.cleanUp();
+        return copy(this.tokensByUserId.get(userId));
+    }
+
+    public Set<String> getTokensByRoleId(Long roleId) {
+        this.sessions.cleanUp();
+        return copy(this.tokensByRoleId.get(roleId));
+    }
+
+    private synchronized void unindex(String token, IndexedSession indexedSession) {
+        unindex(this.tokensByUserId, indexedSession.userId, token);
+        indexedSession.roleIds.forEach(roleId -> unindex(this.tokensByRoleId, roleId, token));
+    }
+
+    private static void index(Map<Long, Set<String>> tokensById, Long id, String token) {
+        tokensById.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(token);
+    }
+
+    private static void unindex(Map<Long, Set<String>> tokensById, Long id, String token) {
+        tokensById.computeIfPresent(id, (k, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    private static Set<String> copy(Set<String> tokens) {
+        return tokens == null ? new HashSet<>() : new HashSet<>(tokens);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class IndexedSession {
+        private final Long userId;
+        private final List<Long> roleIds;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.entity.SessionEntity;
+import io.geekstore.mapper.SessionEntityMapper;
+import io.geekstore.service.ConfigService;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+
+/**
+ * Collects the session expiry extensions made on the request path, and writes them to the database as one
+ * batched update once the configured `authOptions.sessionExpiryFlushInterval` has passed since the first pending
+ * extension. Only the latest expiry of each session is written.
+ *
+ * Until it is flushed, a pending extension is taken into account by {@link #getExpires(SessionEntity)}, so an
+ * active session is never considered expired because its extension has not been written yet. Pending extensions
+ * are flushed when the application shuts down. The flush is scheduled with a {@link DebouncedFlush}, so no
+ * thread is held while the extensions are being collected.
+ *
+ * The following metrics are exposed through the actuator:
+ * * `geekstore.session.expiry.pending`: the number of sessions with a pending extension.
+ * * `geekstore.session.expiry.flushed`: the number of extensions written to the database.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@Slf4j
+public class SessionExpiryBuffer {
+    /**
+     * The maximum number of sessions updated by a single statement.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private final SessionEntityMapper sessionEntityMapper;
+    private final ConfigService configService;
+    private final DebouncedFlush debouncedFlush;
+    private final Counter flushedCounter;
+
+    private final Object lock = new Object();
+    private Map<Long, Date> pendingExpiries = new HashMap<>();
+
+    public SessionExpiryBuffer(SessionEntityMapper sessionEntityMapper,
+                               ConfigService configService,
+                               MeterRegistry meterRegistry) {
+        this.sessionEntityMapper = sessionEntityMapper;
+        this.configService = configService;
+        this.debouncedFlush = new DebouncedFlush("SessionExpiryFlush-",
+                () -> this.configService.getAuthOptions().getSessionExpiryFlushInterval(), this::flush);
+
+        Gauge.builder("geekstore.session.expiry.pending", this, SessionExpiryBuffer::size)
+                .description("Sessions whose expiry extension has not been written to the database yet")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("geekstore.session.expiry.flushed")
+                .description("Session expiry extensions written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the new expiry of the session, to be written with the next flush.
+     */
+    public void extend(Long sessionId, Date expires) {
+        if (this.configService.getAuthOptions().getSessionExpiryFlushInterval() <= 0) {
+            this.write(Collections.singletonMap(sessionId, expires));
+            return;
+        }
+        synchronized (this.lock) {
+            this.pendingExpiries.merge(sessionId, expires, (a, b) -> a.after(b) ? a : b);
+        }
+        this.debouncedFlush.request();
+    }
+
+    /**
+     * Returns the expiry of the session, taking a pending extension into account.
+     */
+    public Date getExpires(SessionEntity session) {
+        Date pending;
+        synchronized (this.lock) {
+            pending = this.pendingExpiries.get(session.getId());
+        }
+        return pending != null && pending.after(session.getExpires()) ? pending : session.getExpires();
+    }
+
+    /**
+     * Drops the pending extensions of the sessions, e.g. because they were deleted.
+     */
+    public void discard(Collection<Long> sessionIds) {
+        synchronized (this.lock) {
+            sessionIds.forEach(this.pendingExpiries::remove);
+        }
+    }
+
+    public int size() {
+        synchronized (this.lock) {
+            return this.pendingExpiries.size();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.debouncedFlush.shutdown();
+        this.flush();
+    }
+
+    /**
+     * Writes all pending extensions right away.
+     */
+    public void flush() {
+        Map<Long, Date> expiries;
+        synchronized (this.lock) {
+            expiries = this.pendingExpiries;
+            this.pendingExpiries = new HashMap<>();
+        }
+        if (expiries.isEmpty()) return;
+
+        try {
+            this.write(expiries);
+        } catch (Exception e) {
+            log.error("Failed to extend the expiry of " + expiries.size() + " sessions", e);
+            // 放回缓冲区，由下次刷新重试，期间的新延期优先
+            synchronized (this.lock) {
+                expiries.forEach((id, expires) -> this.pendingExpiries.putIfAbsent(id, expires));
+            }
+            this.debouncedFlush.request();
+        }
+    }
+
+    private void write(Map<Long, Date> expiries) {
+        List<SessionEntity> sessions = new ArrayList<>();
+        expiries.forEach((id, expires) -> {
+            SessionEntity session = new SessionEntity();
+            session.setId(id);
+            session.setExpires(expires);
+            sessions.add(session);
+        });
+        for(List<SessionEntity> batch : Lists.partition(sessions, BATCH_SIZE)) {
+            this.sessionEntityMapper.updateExpiries(batch);
+            this.flushedCounter.increment(batch.size());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.options.ListQueryOptions;
+import io.geekstore.service.ConfigService;
+import io.geekstore.types.common.CountStrategy;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the `totalItems` of paginated list queries according to a {@link CountStrategy}:
+ *
+ * * EXACT: a `select count(*)` of all matching rows.
+ * * CAPPED: selects the ids of at most `countCap + 1` matching rows, so that the cost of the count is bounded
+ *   however many rows match. If more than `countCap` rows match, the count is `countCap` and flagged as capped.
+ * * CACHED: an exact count, which is reused for identical queries within `countCacheTtl` seconds.
+ *
+ * Cache hits & misses are exposed through the actuator as the `list.counts` cache metrics.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+public class TotalItemsCounter {
+    private final ListQueryOptions options;
+    private final Cache<String, Integer> cache;
+
+    public TotalItemsCounter(ConfigService configService, MeterRegistry meterRegistry) {
+        this.options = configService.getListQueryOptions();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.options.getCountCacheSize())
+                .expireAfterWrite(this.options.getCountCacheTtl(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, this.cache, "list.counts");
+    }
+
+    /**
+     * Returns the given strategy, or the configured default if null.
+     */
+    public CountStrategy resolve(CountStrategy strategy) {
+        return strategy == null ? this.options.getDefaultCountStrategy() : strategy;
+    }
+
+    public int getCountCap() {
+        return this.options.getCountCap();
+    }
+
+    /**
+     * Counts the rows matched by the query, which must only carry conditions. The select columns of the query are
+     * replaced when counting with the CAPPED strategy.
+     */
+    public <T> Count count(BaseMapper<T> mapper, QueryWrapper<T> queryWrapper,
+                           String idColumn, CountStrategy strategy) {
+        switch (this.resolve(strategy)) {
+            case CAPPED:
+                int cap = this.getCountCap();
+                queryWrapper.select(idColumn);
+                int matched = mapper.selectMapsPage(new Page<>(1, cap + 1, false), queryWrapper).getRecords().size();
+                return matched > cap ? new Count(cap, true) : new Count(matched, false);
+            case CACHED:
+                // 每个Mapper接口对应一个代理类，再加上查询条件及其参数作为缓存键
+                String key = mapper.getClass().getName() + "|" + queryWrapper.getSqlSegment() + "|" +
+                        new TreeMap<>(queryWrapper.getParamNameValuePairs());
+                try {
+                    return new Count(this.cache.get(key, () -> mapper.selectCount(queryWrapper)), false);
+                } catch (ExecutionException ex) {
+                    throw new RuntimeException(ex.getCause());
+                }
+            default:
+                return new Count(mapper.selectCount(queryWrapper), false);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Count {
+        private final int totalItems;
+        /**
+         * Whether counting stopped at the count cap, in which case `totalItems` is a lower bound.
+         */
+        private final boolean capped;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.common.utils.BeanMapper;
+import io.geekstore.entity.AuthenticationMethodEntity;
+import io.geekstore.options.AuthOptions;
+import io.geekstore.service.ConfigService;
+import io.geekstore.types.role.Role;
+import io.geekstore.types.user.User;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A read-through cache of the Users with their Roles, of the ids of Users by identifier and of the native
+ * authentication methods by User id, so that logins & session cache misses do not query the user, role & auth
+ * method tables every time.
+ *
+ * The entries must be evicted whenever the data they were loaded from changes. Evictions made within a
+ * transaction are repeated after its commit, so that a value loaded concurrently from the not yet committed
+ * data does not linger, and a value loaded while an eviction is going on is not cached.
+ *
+ * Callers get copies of the cached values, which they may modify. Cache hits & misses are exposed through the
+ * actuator as the `users`, `user.identifiers` & `user.auth.methods` cache metrics.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+public class UserCache {
+    private final Cache<Long, User> users;
+    private final Cache<String, Long> userIds;
+    private final Cache<Long, AuthenticationMethodEntity> nativeAuthMethods;
+    private long generation; // guarded by this
+
+    public UserCache(ConfigService configService, MeterRegistry meterRegistry) {
+        AuthOptions options = configService.getAuthOptions();
+        this.users = buildCache(options);
+        this.userIds = buildCache(options);
+        this.nativeAuthMethods = buildCache(options);
+        GuavaCacheMetrics.monitor(meterRegistry, this.users, "users");
+        GuavaCacheMetrics.monitor(meterRegistry, this.userIds, "user.identifiers");
+        GuavaCacheMetrics.monitor(meterRegistry, this.nativeAuthMethods, "user.auth.methods");
+    }
+
+    private static <K, V> Cache<K, V> buildCache(AuthOptions options) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(options.getUserCacheSize())
+                .expireAfterWrite(options.getUserCacheTtl(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the User with its Roles, loading it if it is not cached. Null results are not cached.
+     */
+    public User getUser(Long userId, Supplier<User> loader) {
+        User user = this.users.getIfPresent(userId);
+        if (user == null) {
+            long loadedGeneration = this.getGeneration();
+            user = loader.get();
+            if (user == null) return null;
+            this.putIfUnchanged(this.users, userId, user, loadedGeneration);
+        }
+        return copy(user);
+    }
+
+    /**
+     * Caches a User loaded by the caller, unless an eviction happened since the generation was taken.
+     */
+    public void putUser(Long userId, User user, long loadedGeneration) {
+        this.putIfUnchanged(this.users, userId, copy(user), loadedGeneration);
+    }
+
+    /**
+     * Returns the id of the User with the identifier, or null if unknown.
+     */
+    public Long getUserId(String identifier) {
+        return this.userIds.getIfPresent(identifier);
+    }
+
+    public void putUserId(String identifier, Long userId, long loadedGeneration) {
+        this.putIfUnchanged(this.userIds, identifier, userId, loadedGeneration);
+    }
+
+    /**
+     * Returns the native authentication method of the User, loading it if it is not cached.
+     */
+    public AuthenticationMethodEntity getNativeAuthMethod(
+            Long userId, Supplier<AuthenticationMethodEntity> loader) {
+        AuthenticationMethodEntity authMethod = this.nativeAuthMethods.getIfPresent(userId);
+        if (authMethod == null) {
+            long loadedGeneration = this.getGeneration();
+            authMethod = loader.get();
+            this.putIfUnchanged(this.nativeAuthMethods, userId, authMethod, loadedGeneration);
+        }
+        return BeanMapper.map(authMethod, AuthenticationMethodEntity.class);
+    }
+
+    /**
+     * The generation to pass when caching a value loaded by the caller, taken before loading it.
+     */
+    public synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Evicts everything cached about the User.
+     */
+    public void evictUser(Long userId) {
+        this.afterCommit(() -> {
+            synchronized (this) {
+                this.generation++;
+                this.users.invalidate(userId);
+                this.nativeAuthMethods.invalidate(userId);
+                this.userIds.asMap().values().removeIf(id -> Objects.equals(id, userId));
+            }
+        });
+    }
+
+    /**
+     * Evicts the Users which have the Role, e.g. because its permissions changed.
+     */
+    public void evictUsersByRoleId(Long roleId) {
+        this.afterCommit(() -> {
+            synchronized (this) {
+                this.generation++;
+                this.users.asMap().values().removeIf(user ->
+                        user.getRoles().stream().anyMatch(role -> Objects.equals(role.getId(), roleId)));
+            }
+        });
+    }
+
+    private synchronized <K, V> void putIfUnchanged(Cache<K, V> cache, K key, V value, long loadedGeneration) {
+        // 加载期间发生过失效，加载的值可能已过期
+        if (this.generation == loadedGeneration) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Runs the eviction now, and again after the commit of the current transaction if there is one.
+     */
+    private void afterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static User copy(User user) {
+        User copy = BeanMapper.map(user, User.class);
+        copy.setRoles(new ArrayList<>());
+        for(Role role : user.getRoles()) {
+            Role roleCopy = BeanMapper.map(role, Role.class);
+            roleCopy.setPermissions(new ArrayList<>(role.getPermissions()));
+            copy.getRoles().add(roleCopy);
+        }
+        copy.setAuthenticationMethods(new ArrayList<>(user.getAuthenticationMethods()));
+        return copy;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_index;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * A shadow copy of the search index table, into which a full reindex is written while the search keeps
+ * being served from the live table. Once the shadow table is complete it is swapped with the live table.
+ *
+ * The rows are written with JDBC batch inserts. On MySQL the swap is a single `RENAME TABLE` statement, which
+ * is atomic. H2 can not rename several tables at once, so there the live table is replaced by the content of
+ * the shadow table within one transaction, which concurrent readers only observe once it is committed.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexShadowTable {
+    private static final String LIVE_TABLE = "tb_search_index_item";
+    private static final String SHADOW_TABLE = "tb_search_index_item_shadow";
+    private static final String SWAP_TABLE = "tb_search_index_item_swap";
+
+    private static final String INSERT_SQL = "insert into " + SHADOW_TABLE + " (" +
+            "product_variant_id, product_id, enabled, product_name, product_variant_name, description, slug, " +
+            "sku, price, facet_ids, facet_value_ids, collection_ids, collection_slugs, product_preview, " +
+            "product_preview_focal_point, product_variant_preview, product_variant_preview_focal_point, " +
+            "product_asset_id, product_variant_asset_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${database}")
+    private String database;
+
+    /**
+     * Creates the shadow table if needed and removes any rows left over from a previous reindex.
+     */
+    public void clear() {
+        if (this.isMySql()) {
+            this.jdbcTemplate.execute(
+                    "create table if not exists " + SHADOW_TABLE + " like " + LIVE_TABLE);
+        }
+        this.jdbcTemplate.execute("truncate table " + SHADOW_TABLE);
+    }
+
+    public void insert(List<SearchIndexItemEntity> items) {
+        if (items.isEmpty()) return;
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setObject(1, item.getProductVariantId());
+            ps.setObject(2, item.getProductId());
+            ps.setBoolean(3, item.isEnabled());
+            ps.setString(4, item.getProductName());
+            ps.setString(5, item.getProductVariantName());
+            ps.setString(6, item.getDescription());
+            ps.setString(7, item.getSlug());
+            ps.setString(8, item.getSku());
+            ps.setObject(9, item.getPrice());
+            ps.setString(10, toJson(item.getFacetIds()));
+            ps.setString(11, toJson(item.getFacetValueIds()));
+            ps.setString(12, toJson(item.getCollectionIds()));
+            ps.setString(13, toJson(item.getCollectionSlugs()));
+            ps.setString(14, item.getProductPreview());
+            ps.setString(15, toJson(item.getProductPreviewFocalPoint()));
+            ps.setString(16, item.getProductVariantPreview());
+            ps.setString(17, toJson(item.getProductVariantPreviewFocalPoint()));
+            ps.setObject(18, item.getProductAssetId());
+            ps.setObject(19, item.getProductVariantAssetId());
+        });
+    }
+
+    /**
+     * Makes the content of the shadow table the live search index.
+     */
+    @Transactional
+    public void swap() {
+        if (this.isMySql()) {
+            this.jdbcTemplate.execute("rename table " +
+                    LIVE_TABLE + " to " + SWAP_TABLE + ", " +
+                    SHADOW_TABLE + " to " + LIVE_TABLE + ", " +
+                    SWAP_TABLE + " to " + SHADOW_TABLE);
+        } else {
+            this.jdbcTemplate.execute("delete from " + LIVE_TABLE);
+            this.jdbcTemplate.execute("insert into " + LIVE_TABLE + " select * from " + SHADOW_TABLE);
+        }
+    }
+
+    private boolean isMySql() {
+        return "mysql".equalsIgnoreCase(this.database);
+    }
+
+    /**
+     * Serializes the value the same way as the type handlers of {@link SearchIndexItemEntity} do.
+     */
+    private static String toJson(Object value) {
+        if (value == null) return null;
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_index;
+
+import io.geekstore.service.ConfigService;
+import io.geekstore.service.SearchIndexService;
+import io.geekstore.service.helpers.DebouncedFlush;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the ids of the Products & ProductVariants whose search index items need to be updated, and applies
+ * them to the {@link SearchIndexService} as one de-duplicated batch once the configured
+ * `search-options.indexUpdateDelay` has passed since the first pending change. A bulk edit which emits many
+ * events for the same variants therefore updates each of them only once. Deletions are applied right away by
+ * the subscriber, which drops the pending changes of the deleted Products & ProductVariants.
+ *
+ * The delay is waited on a scheduler thread of its own, see {@link DebouncedFlush}, rather than on the async
+ * executor which dispatches the events, so the event subscribers are never held up by a pending flush.
+ *
+ * The following metrics are exposed through the actuator:
+ * * `geekstore.search.index.queue.size`: the number of distinct pending Product & ProductVariant ids.
+ * * `geekstore.search.index.queue.lag`: the age in milliseconds of the oldest pending change.
+ * * `geekstore.search.index.update`: the time taken to apply each batch.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@Slf4j
+public class SearchIndexUpdateQueue {
+    private final SearchIndexService searchIndexService;
+    private final ConfigService configService;
+    private final DebouncedFlush debouncedFlush;
+    private final Timer updateTimer;
+
+    private final Object lock = new Object();
+    private Set<Long> pendingProductIds = new HashSet<>();
+    private Set<Long> pendingVariantIds = new HashSet<>();
+    private long pendingSince;
+
+    public SearchIndexUpdateQueue(SearchIndexService searchIndexService,
+                                  ConfigService configService,
+                                  MeterRegistry meterRegistry) {
+        this.searchIndexService = searchIndexService;
+        this.configService = configService;
+        this.debouncedFlush = new DebouncedFlush("SearchIndexFlush-",
+                () -> this.configService.getSearchOptions().getIndexUpdateDelay(), this::flush);
+
+        Gauge.builder("geekstore.search.index.queue.size", this, SearchIndexUpdateQueue::size)
+                .description("Distinct Product & ProductVariant ids waiting to be applied to the search index")
+                .register(meterRegistry);
+        Gauge.builder("geekstore.search.index.queue.lag", this, SearchIndexUpdateQueue::lag)
+                .description("Age of the oldest change waiting to be applied to the search index")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.updateTimer = Timer.builder("geekstore.search.index.update")
+                .description("Time taken to apply a batch of changes to the search index")
+                .register(meterRegistry);
+    }
+
+    public void addProducts(Collection<Long> productIds) {
+        this.enqueue(productIds, null);
+    }
+
+    public void addVariants(Collection<Long> variantIds) {
+        this.enqueue(null, variantIds);
+    }
+
+    /**
+     * Drops the pending changes of the given Products, e.g. because they were deleted, so that a flush which
+     * runs before the deletion is committed does not index them again.
+     */
+    public void removeProducts(Collection<Long> productIds) {
+        synchronized (this.lock) {
+            this.pendingProductIds.removeAll(productIds);
+        }
+    }
+
+    /**
+     * Drops the pending changes of the given ProductVariants, see {@link #removeProducts(Collection)}.
+     */
+    public void removeVariants(Collection<Long> variantIds) {
+        synchronized (this.lock) {
+            this.pendingVariantIds.removeAll(variantIds);
+        }
+    }
+
+    public int size() {
+        synchronized (this.lock) {
+            return this.pendingProductIds.size() + this.pendingVariantIds.size();
+        }
+    }
+
+    /**
+     * Returns true while a batch is waiting for the delay to pass or being applied.
+     */
+    public boolean isFlushPending() {
+        return this.debouncedFlush.isPending();
+    }
+
+    /**
+     * Returns the age in milliseconds of the oldest pending change, or 0 if nothing is pending.
+     */
+    public long lag() {
+        synchronized (this.lock) {
+            if (this.pendingSince == 0) return 0;
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.pendingSince);
+        }
+    }
+
+    private void enqueue(Collection<Long> productIds, Collection<Long> variantIds) {
+        synchronized (this.lock) {
+            if (productIds != null) this.pendingProductIds.addAll(productIds);
+            if (variantIds != null) this.pendingVariantIds.addAll(variantIds);
+            if (this.pendingSince == 0) {
+                this.pendingSince = System.nanoTime();
+            }
+        }
+        this.debouncedFlush.request();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.debouncedFlush.shutdown();
+        this.flush();
+    }
+
+    /**
+     * Applies all pending changes right away.
+     */
+    public void flush() {
+        Set<Long> productIds;
+        Set<Long> variantIds;
+        synchronized (this.lock) {
+            productIds = this.pendingProductIds;
+            variantIds = this.pendingVariantIds;
+            this.pendingProductIds = new HashSet<>();
+            this.pendingVariantIds = new HashSet<>();
+            this.pendingSince = 0;
+        }
+        if (productIds.isEmpty() && variantIds.isEmpty()) return;
+
+        try {
+            this.updateTimer.record(
+                    () -> this.searchIndexService.updateProductsAndVariants(productIds, variantIds));
+        } catch (Exception e) {
+            log.error("Failed to update the search index of " + productIds.size() + " products and " +
+                    variantIds.size() + " variants", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_index;
+
+import io.geekstore.types.search.SearchReindexProgress;
+import io.geekstore.types.search.SearchReindexState;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the progress of a rebuild of the whole search index. The counters are updated by the reindex workers
+ * and may be read at any time.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SearchReindexJob {
+    private final Date startedAt = new Date();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong processed = new AtomicLong();
+    private volatile long total;
+    private volatile SearchReindexState state = SearchReindexState.RUNNING;
+    private volatile long completedNanos;
+    private volatile Date completedAt;
+    private volatile String error;
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public void addProcessed(int count) {
+        this.processed.addAndGet(count);
+    }
+
+    public void complete() {
+        this.finish(SearchReindexState.COMPLETED, null);
+    }
+
+    public void fail(Throwable cause) {
+        this.finish(SearchReindexState.FAILED, cause.getMessage());
+    }
+
+    private void finish(SearchReindexState state, String error) {
+        this.completedNanos = System.nanoTime();
+        this.completedAt = new Date();
+        this.error = error;
+        this.state = state;
+    }
+
+    public SearchReindexProgress toProgress() {
+        long processedCount = this.processed.get();
+        long endNanos = this.completedAt == null ? System.nanoTime() : this.completedNanos;
+        double elapsedSeconds = (endNanos - this.startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        double rate = elapsedSeconds > 0 ? processedCount / elapsedSeconds : 0;
+
+        SearchReindexProgress progress = new SearchReindexProgress();
+        progress.setState(this.state);
+        progress.setTotal((int) this.total);
+        progress.setProcessed((int) processedCount);
+        progress.setRate(rate);
+        if (this.state == SearchReindexState.COMPLETED) {
+            progress.setEta(0);
+        } else if (this.state == SearchReindexState.RUNNING && rate > 0) {
+            progress.setEta((int) Math.ceil(Math.max(this.total - processedCount, 0) / rate));
+        }
+        progress.setStartedAt(this.startedAt);
+        progress.setCompletedAt(this.completedAt);
+        progress.setError(this.error);
+        return progress;
+    }
+}
@@ -7,6 +7,11 @@ package io.geekstore.service.helpers.search_strategy;
 
 import io.geekstore.entity.SearchIndexItemEntity;
 import io.geekstore.mapper.SearchIndexItemEntityMapper;
+import io.geekstore.service.ConfigService;
+import io.geekstore.service.helpers.KeysetPagination;
+import io.geekstore.service.helpers.PageInfo;
+import io.geekstore.service.helpers.TotalItemsCounter;
+import io.geekstore.types.common.CountStrategy;
 import io.geekstore.types.common.LogicalOperator;
 import io.geekstore.types.common.SearchInput;
 import io.geekstore.types.common.SearchResultSortParameter;
@@ -15,17 +20,27 @@ import io.geekstore.types.search.SearchResult;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * A rather native search for H2/MySQL Database. Rather than proper full-text searching,
  * it uses a weighted `LIKE '%term%'` operator instead.
  *
+ * Facet & collection filters are resolved against the {@link SearchFilterIndex} bitmaps, and the
+ * search itself only selects the ids of the requested page, whose rows are then fetched by primary key.
+ * Given a cursor, a search without a term seeks to the page in SQL, see {@link KeysetPagination}.
+ * A search with a term selects all of its matches at once, or only the first `countCap` of them with the
+ * `CAPPED` count strategy, in which case the total & the facet value counts only cover those.
+ * Filters matching more than `search-options.filterIdListLimit` variants are applied in SQL rather than as a
+ * list of ids.
+ *
  * Created on Jan, 2021 by @author bobo
  */
 public class DbSearchStrategy implements SearchStrategy {
@@ -33,119 +48,220 @@ public class DbSearchStrategy implements SearchStrategy {
     private SearchIndexItemEntityMapper searchIndexItemEntityMapper;
     @Autowired
     private SearchStrategyUtils searchStrategyUtils;
+    @Autowired
+    private SearchFilterIndex searchFilterIndex;
+    @Autowired
+    private TotalItemsCounter totalItemsCounter;
+    @Autowired
+    private ConfigService configService;
     private final Integer minTermLength = 2;
 
     @Override
     public List<SearchResult> getSearchResults(SearchInput input, boolean enabledOnly) {
-        Integer pageSize = input.getPageSize() == null ? 25 : input.getPageSize();
-        Integer currentPage = input.getCurrentPage() == null ? 1 : input.getCurrentPage();
-
-        SearchResultSortParameter sort = input.getSort();
+        if (input.getAfter() != null && this.hasTerm(input)) {
+            return this.search(input, enabledOnly).getItems(); // 按分数的游标分页在内存中进行
+        }
+        RoaringBitmap filterMatches = this.searchFilterIndex.match(input, enabledOnly);
+        return this.getPage(input, enabledOnly, filterMatches, new SearchStrategyResult());
+    }
 
-        List<String> selectColumns = new ArrayList<>();
-        selectColumns.addAll(Arrays.asList(
-                "price",
-                "product_asset_id",
-                "product_preview",
-                "product_preview_focal_point",
-                "product_variant_asset_id",
-                "product_variant_preview",
-                "product_variant_preview_focal_point",
-                "sku",
-                "slug",
-                "enabled",
-                "product_variant_id",
-                "product_id",
-                "product_name",
-                "product_variant_name",
-                "description",
-                "facet_ids",
-                "facet_value_ids",
-                "collection_ids"
-        ));
+    @Override
+    public Integer getTotalCount(SearchInput input, boolean enabledOnly) {
+        RoaringBitmap filterMatches = this.searchFilterIndex.match(input, enabledOnly);
+        if (!this.hasTerm(input)) {
+            return filterMatches.getCardinality();
+        }
 
         QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
-        List<String> newColumns = applyTermAndFilters(queryWrapper, input);
-        selectColumns.addAll(newColumns);
+        if (applyTermAndFilters(queryWrapper, input, enabledOnly, filterMatches) == null) return 0;
 
-        if (!StringUtils.isEmpty(input.getTerm()) && input.getTerm().length() > this.minTermLength) {
-            queryWrapper.orderByDesc("score");
-        }
+        return this.totalItemsCounter.count(this.searchIndexItemEntityMapper, queryWrapper,
+                "product_variant_id", input.getCountStrategy()).getTotalItems();
+    }
 
-        if (sort != null) {
-            if (sort.getName() != null) {
-                if (SortOrder.ASC == sort.getName()) {
-                    queryWrapper.lambda().orderByAsc(SearchIndexItemEntity::getProductName);
-                } else {
-                    queryWrapper.lambda().orderByDesc(SearchIndexItemEntity::getProductName);
-                }
-            }
-            if (sort.getPrice() != null) {
-                if (SortOrder.ASC == sort.getPrice()) {
-                    queryWrapper.lambda().orderByAsc(SearchIndexItemEntity::getPrice);
-                } else {
-                    queryWrapper.lambda().orderByDesc(SearchIndexItemEntity::getPrice);
-                }
-            }
-        } else {
-            queryWrapper.lambda().orderByAsc(SearchIndexItemEntity::getProductVariantId);
+    @Override
+    public Map<Long, Integer> getFacetValueIds(SearchInput input, boolean enabledOnly) {
+        RoaringBitmap matches = this.searchFilterIndex.match(input, enabledOnly);
+        if (this.hasTerm(input) && !matches.isEmpty()) {
+            QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
+            applyTermAndFilters(queryWrapper, input, enabledOnly, matches);
+            queryWrapper.lambda().select(SearchIndexItemEntity::getProductVariantId);
+
+            List<Long> termMatchIds = this.searchIndexItemEntityMapper.selectList(queryWrapper)
+                    .stream().map(SearchIndexItemEntity::getProductVariantId).collect(Collectors.toList());
+            matches = this.searchFilterIndex.toOrdinals(termMatchIds);
         }
 
-        if (enabledOnly) {
-            queryWrapper.lambda().eq(SearchIndexItemEntity::isEnabled, true);
+        return this.searchFilterIndex.countFacetValues(matches);
+    }
+
+    /**
+     * Without a term, the total & the facet value counts come straight from the filter bitmaps and only the
+     * page is queried. With a term, a single query selects the ordered ids & scores of all matches, from which
+     * the total, the facet value counts and the page are all derived.
+     */
+    @Override
+    public SearchStrategyResult search(SearchInput input, boolean enabledOnly) {
+        SearchStrategyResult result = new SearchStrategyResult();
+        RoaringBitmap filterMatches = this.searchFilterIndex.match(input, enabledOnly);
+
+        if (!this.hasTerm(input)) {
+            result.setTotalItems(filterMatches.getCardinality());
+            result.setFacetValueCounts(this.searchFilterIndex.countFacetValues(filterMatches));
+            result.setItems(this.getPage(input, enabledOnly, filterMatches, result));
+            return result;
         }
 
+        KeysetPagination<Map<String, Object>> pagination = this.getPagination(input);
+        QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
+        List<String> selectColumns = applyTermAndFilters(queryWrapper, input, enabledOnly, filterMatches);
+        if (selectColumns == null) return result;
+        selectColumns.addAll(0, this.getSelectColumns(pagination));
+        pagination.applyOrder(queryWrapper);
         queryWrapper.select(selectColumns.toArray(new String[0]));
 
-        IPage<Map<String, Object>> page = new Page<>(currentPage, pageSize);
-        IPage<Map<String, Object>> mapsPage =
-                this.searchIndexItemEntityMapper.selectMapsPage(page, queryWrapper);
-
-        return mapsPage.getRecords().stream()
-                .map(r -> searchStrategyUtils.mapToSearchResult(r))
+        List<Map<String, Object>> rows;
+        if (this.totalItemsCounter.resolve(input.getCountStrategy()) == CountStrategy.CAPPED) {
+            // 只取前cap个匹配行，总数及facet计数均为近似值
+            int cap = this.totalItemsCounter.getCountCap();
+            rows = this.searchIndexItemEntityMapper.selectMapsPage(
+                    new Page<>(1, cap + 1, false), queryWrapper).getRecords();
+            if (rows.size() > cap) {
+                rows = rows.subList(0, cap);
+                result.setTotalItemsCapped(true);
+            }
+        } else {
+            rows = this.searchIndexItemEntityMapper.selectMaps(queryWrapper);
+        }
+        List<Long> matchIds = rows.stream()
+                .map(r -> ((Number) getIgnoreCase(r, "product_variant_id")).longValue())
                 .collect(Collectors.toList());
+        result.setTotalItems(rows.size());
+        result.setFacetValueCounts(
+                this.searchFilterIndex.countFacetValues(this.searchFilterIndex.toOrdinals(matchIds)));
+
+        // 所有匹配行已按序取回，直接在内存中分页
+        KeysetPagination.Result<Map<String, Object>> page =
+                pagination.page(rows, this.getPageInfo(input));
+        result.setItems(this.fetchRows(page.getRecords()));
+        result.setNextCursor(page.getNextCursor());
+        return result;
     }
 
-    @Override
-    public Integer getTotalCount(SearchInput input, boolean enabledOnly) {
+    /**
+     * Selects the page by offset, or by seeking past the cursor if set, and sets the next cursor on the result.
+     * The filter bitmaps give the total count, so the next cursor is exact in either case.
+     */
+    private List<SearchResult> getPage(SearchInput input, boolean enabledOnly, RoaringBitmap filterMatches,
+                                       SearchStrategyResult result) {
+        KeysetPagination<Map<String, Object>> pagination = this.getPagination(input);
+        List<String> selectColumns = this.getSelectColumns(pagination);
+
         QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
-        applyTermAndFilters(queryWrapper, input);
+        List<String> newColumns = applyTermAndFilters(queryWrapper, input, enabledOnly, filterMatches);
+        if (newColumns == null) return new ArrayList<>();
+        selectColumns.addAll(newColumns);
 
-        if (enabledOnly) {
-            queryWrapper.lambda().eq(SearchIndexItemEntity::isEnabled, true);
+        PageInfo pageInfo = this.getPageInfo(input);
+        IPage<Map<String, Object>> page;
+        if (input.getAfter() != null) {
+            pagination.applySeek(queryWrapper, input.getAfter());
+            // 多取一行以判断是否还有下一页
+            page = new Page<>(1, pageInfo.size + 1, false);
+        } else {
+            page = new Page<>(pageInfo.current, pageInfo.size, false);
         }
+        pagination.applyOrder(queryWrapper);
+        queryWrapper.select(selectColumns.toArray(new String[0]));
 
-        return this.searchIndexItemEntityMapper.selectCount(queryWrapper);
+        List<Map<String, Object>> rows = this.searchIndexItemEntityMapper.selectMapsPage(page, queryWrapper)
+                .getRecords();
+        boolean hasMore;
+        if (input.getAfter() != null) {
+            hasMore = rows.size() > pageInfo.size;
+            if (hasMore) rows = rows.subList(0, pageInfo.size);
+        } else {
+            hasMore = (long) pageInfo.current * pageInfo.size < filterMatches.getCardinality();
+        }
+        if (hasMore && !rows.isEmpty()) {
+            result.setNextCursor(pagination.cursorOf(rows.get(rows.size() - 1)));
+        }
+        return this.fetchRows(rows);
     }
 
-    @Override
-    public Map<Long, Integer> getFacetValueIds(SearchInput input, boolean enabledOnly) {
-        QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
-        applyTermAndFilters(queryWrapper, input);
-        queryWrapper.lambda()
-                .select(SearchIndexItemEntity::getProductVariantId)
-                .select(SearchIndexItemEntity::getFacetValueIds);
+    /**
+     * 按主键获取当前页的完整记录
+     */
+    private List<SearchResult> fetchRows(List<Map<String, Object>> pageRows) {
+        if (CollectionUtils.isEmpty(pageRows)) return new ArrayList<>();
 
-        if (enabledOnly) {
-            queryWrapper.lambda().eq(SearchIndexItemEntity::isEnabled, true);
-        }
+        List<Long> pageIds = pageRows.stream()
+                .map(r -> ((Number) getIgnoreCase(r, "product_variant_id")).longValue())
+                .collect(Collectors.toList());
+        Map<Long, SearchIndexItemEntity> itemMap = this.searchIndexItemEntityMapper.selectBatchIds(pageIds)
+                .stream().collect(Collectors.toMap(SearchIndexItemEntity::getProductVariantId, Function.identity()));
 
-        List<SearchIndexItemEntity> indexItems = this.searchIndexItemEntityMapper.selectList(queryWrapper);
+        List<SearchResult> results = new ArrayList<>();
+        for(Map<String, Object> row : pageRows) {
+            SearchIndexItemEntity item = itemMap.get(((Number) getIgnoreCase(row, "product_variant_id")).longValue());
+            if (item == null) continue; // 已被并发删除
+            Number score = (Number) getIgnoreCase(row, "score");
+            results.add(searchStrategyUtils.mapToSearchResult(item, score == null ? null : score.intValue()));
+        }
+        return results;
+    }
 
-        // 参考：
-        // https://stackoverflow.com/questions/81346/most-efficient-way-to-increment-a-map-value-in-java
-        Map<Long, Integer> result = new HashMap<>();
-        for(SearchIndexItemEntity item : indexItems) {
-            for (Long facetValueId : item.getFacetValueIds()) {
-                result.merge(facetValueId, 1, Integer::sum);
-            }
+    /**
+     * Matches are sorted by descending score if there is a term, then by the sort parameter and by id.
+     */
+    private KeysetPagination<Map<String, Object>> getPagination(SearchInput input) {
+        KeysetPagination<Map<String, Object>> pagination = new KeysetPagination<>(
+                "product_variant_id", r -> getIgnoreCase(r, "product_variant_id"));
+        if (this.hasTerm(input)) {
+            pagination.sortBy(SortOrder.DESC, "score", r -> getIgnoreCase(r, "score"));
         }
+        SearchResultSortParameter sort = input.getSort();
+        if (sort != null) {
+            pagination.sortBy(sort.getName(), "product_name", r -> getIgnoreCase(r, "product_name"))
+                    .sortBy(sort.getPrice(), "price", r -> getIgnoreCase(r, "price"));
+        }
+        return pagination;
+    }
 
-        return result;
+    /**
+     * The sort columns needed to build a cursor from a row, except for the computed score.
+     */
+    private List<String> getSelectColumns(KeysetPagination<Map<String, Object>> pagination) {
+        List<String> columns = pagination.getColumns();
+        columns.remove("score");
+        return columns;
+    }
+
+    private PageInfo getPageInfo(SearchInput input) {
+        return PageInfo.builder().current(this.getCurrentPage(input)).size(this.getPageSize(input))
+                .after(input.getAfter()).build();
     }
 
+    private int getPageSize(SearchInput input) {
+        return input.getPageSize() == null ? 25 : input.getPageSize();
+    }
+
+    private int getCurrentPage(SearchInput input) {
+        return input.getCurrentPage() == null ? 1 : Math.max(input.getCurrentPage(), 1);
+    }
+
+    private boolean hasTerm(SearchInput input) {
+        String term = input.getTerm() == null ? null : input.getTerm().trim();
+        return !StringUtils.isEmpty(term) && term.length() > this.minTermLength;
+    }
+
+    /**
+     * Applies the term & filter conditions to the query. Returns the additional columns to select, or null if
+     * the facet & collection filters can not match anything, in which case the query needs not be run at all.
+     */
     private List<String> applyTermAndFilters(
-            QueryWrapper<SearchIndexItemEntity> queryWrapper, SearchInput input) {
+            QueryWrapper<SearchIndexItemEntity> queryWrapper, SearchInput input,
+            boolean enabledOnly, RoaringBitmap filterMatches) {
         queryWrapper.apply("1 = 1");
 
         String term = input.getTerm() == null ? null : input.getTerm().trim();
@@ -161,12 +277,31 @@ public class DbSearchStrategy implements SearchStrategy {
                             "end as score";
             selectColumns.add(scoreColumn);
 
-            queryWrapper.lambda().like(SearchIndexItemEntity::getSku, term)
+            queryWrapper.and(w -> w.lambda().like(SearchIndexItemEntity::getSku, term)
                     .or().like(SearchIndexItemEntity::getProductName, term)
                     .or().like(SearchIndexItemEntity::getProductVariantName, term)
-                    .or().like(SearchIndexItemEntity::getDescription, term);
+                    .or().like(SearchIndexItemEntity::getDescription, term));
         }
 
+        if (SearchFilterIndex.hasFilters(input)) {
+            if (filterMatches.isEmpty()) return null;
+            if (filterMatches.getCardinality() <= this.configService.getSearchOptions().getFilterIdListLimit()) {
+                queryWrapper.lambda().in(SearchIndexItemEntity::getProductVariantId,
+                        this.searchFilterIndex.toProductVariantIds(filterMatches));
+            } else {
+                // 匹配的变体过多时不生成超长的IN列表，改为在SQL中过滤
+                applySqlFilters(queryWrapper, input);
+            }
+        }
+
+        if (enabledOnly) {
+            queryWrapper.lambda().eq(SearchIndexItemEntity::isEnabled, true);
+        }
+
+        return selectColumns;
+    }
+
+    private static void applySqlFilters(QueryWrapper<SearchIndexItemEntity> queryWrapper, SearchInput input) {
         if (!CollectionUtils.isEmpty(input.getFacetValueIds())) {
             String likeColumn = "regexp_replace(facet_value_ids, '[\\[|\\]]', ',')";
             queryWrapper.and(w -> {
@@ -179,17 +314,19 @@ public class DbSearchStrategy implements SearchStrategy {
                     }
                 }
             });
-
         }
-
         if (input.getCollectionId() != null) {
-            queryWrapper.like("regexp_replace(collection_ids, '[\\[|\\]]', ',')", "," + input.getCollectionId() + ",");
+            queryWrapper.like("regexp_replace(collection_ids, '[\\[|\\]]', ',')",
+                    "," + input.getCollectionId() + ",");
         }
         if (!StringUtils.isEmpty(input.getCollectionSlug())) {
             queryWrapper.like("collection_slugs",
                     "\"" + input.getCollectionSlug().trim() + "\"");
         }
+    }
 
-        return selectColumns;
+    private static Object getIgnoreCase(Map<String, Object> row, String column) {
+        Object value = row.get(column.toUpperCase());
+        return value != null ? value : row.get(column);
     }
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * An inverted index over the search index items, held in memory.
+ *
+ * Each searchable field keeps its own postings, mapping a normalized token to the ids of the
+ * ProductVariants whose field contains that token. A search term matches a field when every token
+ * of the term is a prefix of some token of the field, and the score of a match is the weight of the
+ * highest weighted matching field - the same weights which {@link DbSearchStrategy} uses.
+ *
+ * All reads and writes are guarded by a read/write lock, so the index may be updated by the
+ * background index tasks while searches are being served.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class InMemorySearchIndex {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum SearchField {
+        SKU(10, SearchIndexItemEntity::getSku),
+        PRODUCT_NAME(3, SearchIndexItemEntity::getProductName),
+        PRODUCT_VARIANT_NAME(2, SearchIndexItemEntity::getProductVariantName),
+        DESCRIPTION(1, SearchIndexItemEntity::getDescription);
+
+        private final int weight;
+        private final Function<SearchIndexItemEntity, String> extractor;
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, SearchIndexItemEntity> items = new HashMap<>();
+    private final Map<SearchField, NavigableMap<String, Set<Long>>> postings = new EnumMap<>(SearchField.class);
+
+    public InMemorySearchIndex() {
+        for(SearchField field : SearchField.values()) {
+            postings.put(field, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Adds the given items to the index, replacing any existing entries for the same ProductVariants.
+     */
+    public void put(Collection<SearchIndexItemEntity> itemsToPut) {
+        lock.writeLock().lock();
+        try {
+            for(SearchIndexItemEntity item : itemsToPut) {
+                this.removeItem(item.getProductVariantId());
+                this.addItem(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Long> productVariantIds) {
+        lock.writeLock().lock();
+        try {
+            productVariantIds.forEach(this::removeItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces the whole content of the index.
+     */
+    public void replaceAll(Collection<SearchIndexItemEntity> newItems) {
+        lock.writeLock().lock();
+        try {
+            this.items.clear();
+            this.postings.values().forEach(Map::clear);
+            newItems.forEach(this::addItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return this.items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every candidate item which matches the term (if a term is given), together with its score.
+     * The score is null when no term is given.
+     */
+    public List<ScoredItem> query(String term, Collection<Long> candidateIds) {
+        List<String> queryTokens = tokenize(term);
+        List<ScoredItem> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (queryTokens.isEmpty()) {
+                for(Long productVariantId : candidateIds) {
+                    SearchIndexItemEntity item = this.items.get(productVariantId);
+                    if (item != null) {
+                        result.add(new ScoredItem(item, null));
+                    }
+                }
+                return result;
+            }
+
+            Set<Long> candidates = candidateIds instanceof Set ?
+                    (Set<Long>) candidateIds : new HashSet<>(candidateIds);
+
+            Map<Long, Integer> scores = new HashMap<>();
+            for(SearchField field : SearchField.values()) {
+                for(Long productVariantId : this.matchField(field, queryTokens)) {
+                    scores.merge(productVariantId, field.getWeight(), Math::max);
+                }
+            }
+            for(Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                SearchIndexItemEntity item = this.items.get(entry.getKey());
+                if (item != null && candidates.contains(entry.getKey())) {
+                    result.add(new ScoredItem(item, entry.getValue()));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases the text, strips diacritics and splits it on anything which is not a letter or a digit.
+     */
+    public static List<String> tokenize(String text) {
+        if (StringUtils.isEmpty(text)) return new ArrayList<>();
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for(String token : normalized.split("[^\\p{L}\\p{Nd}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Set<Long> matchField(SearchField field, List<String> queryTokens) {
+        NavigableMap<String, Set<Long>> fieldPostings = this.postings.get(field);
+        Set<Long> matches = null;
+        for(String queryToken : queryTokens) {
+            Set<Long> tokenMatches = new HashSet<>();
+            // every indexed token which starts with the query token
+            fieldPostings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                    .values().forEach(tokenMatches::addAll);
+            if (matches == null) {
+                matches = tokenMatches;
+            } else {
+                matches.retainAll(tokenMatches);
+            }
+            if (matches.isEmpty()) break;
+        }
+        return matches == null ? Collections.emptySet() : matches;
+    }
+
+    private void addItem(SearchIndexItemEntity item) {
+        Long productVariantId = item.getProductVariantId();
+        this.items.put(productVariantId, item);
+        for(SearchField field : SearchField.values()) {
+            NavigableMap<String, Set<Long>> fieldPostings = this.postings.get(field);
+            for(String token : tokenize(field.getExtractor().apply(item))) {
+                fieldPostings.computeIfAbsent(token, k -> new HashSet<>()).add(productVariantId);
+            }
+        }
+    }
+
+    private void removeItem(Long productVariantId) {
+        SearchIndexItemEntity existing = this.items.remove(productVariantId);
+        if (existing == null) return;
+        for(SearchField field : SearchField.values()) {
+            NavigableMap<String, Set<Long>> fieldPostings = this.postings.get(field);
+            for(String token : tokenize(field.getExtractor().apply(existing))) {
+                Set<Long> ids = fieldPostings.get(token);
+                if (ids != null) {
+                    ids.remove(productVariantId);
+                    if (ids.isEmpty()) {
+                        fieldPostings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class ScoredItem {
+        private final SearchIndexItemEntity item;
+        private final Integer score;
+    }
+}
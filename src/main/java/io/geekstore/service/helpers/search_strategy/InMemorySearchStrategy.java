@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.mapper.SearchIndexItemEntityMapper;
+import io.geekstore.service.helpers.KeysetPagination;
+import io.geekstore.service.helpers.PageInfo;
+import io.geekstore.types.common.SearchInput;
+import io.geekstore.types.common.SearchResultSortParameter;
+import io.geekstore.types.common.SortOrder;
+import io.geekstore.types.search.SearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A search strategy backed by an {@link InMemorySearchIndex}. The index is loaded from the search index table
+ * on startup, and afterwards kept in sync by the {@link io.geekstore.service.SearchIndexService}, so searches
+ * are answered without issuing any SQL query. Facet & collection filters are resolved by the
+ * {@link SearchFilterIndex}.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Slf4j
+public class InMemorySearchStrategy implements SearchStrategy {
+    @Autowired
+    private SearchIndexItemEntityMapper searchIndexItemEntityMapper;
+    @Autowired
+    private SearchStrategyUtils searchStrategyUtils;
+    @Autowired
+    private SearchFilterIndex searchFilterIndex;
+    private final InMemorySearchIndex index = new InMemorySearchIndex();
+    private final Integer minTermLength = 2;
+
+    @PostConstruct
+    void init() {
+        this.index.replaceAll(this.searchIndexItemEntityMapper.selectList(null));
+        log.info("Loaded " + this.index.size() + " items into the in-memory search index");
+    }
+
+    @Override
+    public List<SearchResult> getSearchResults(SearchInput input, boolean enabledOnly) {
+        return this.getPage(input, this.query(input, enabledOnly));
+    }
+
+    @Override
+    public Integer getTotalCount(SearchInput input, boolean enabledOnly) {
+        if (this.getTerm(input) == null) {
+            return this.searchFilterIndex.match(input, enabledOnly).getCardinality();
+        }
+        return this.query(input, enabledOnly).size();
+    }
+
+    @Override
+    public Map<Long, Integer> getFacetValueIds(SearchInput input, boolean enabledOnly) {
+        RoaringBitmap matches = this.searchFilterIndex.match(input, enabledOnly);
+        if (this.getTerm(input) != null) {
+            List<Long> termMatchIds = this.query(input, enabledOnly).stream()
+                    .map(m -> m.getItem().getProductVariantId()).collect(Collectors.toList());
+            matches = this.searchFilterIndex.toOrdinals(termMatchIds);
+        }
+        return this.searchFilterIndex.countFacetValues(matches);
+    }
+
+    @Override
+    public SearchStrategyResult search(SearchInput input, boolean enabledOnly) {
+        List<InMemorySearchIndex.ScoredItem> matches = this.query(input, enabledOnly);
+        List<Long> matchIds = matches.stream()
+                .map(m -> m.getItem().getProductVariantId()).collect(Collectors.toList());
+
+        SearchStrategyResult result = new SearchStrategyResult();
+        result.setTotalItems(matches.size());
+        result.setFacetValueCounts(
+                this.searchFilterIndex.countFacetValues(this.searchFilterIndex.toOrdinals(matchIds)));
+        result.setItems(this.getPage(input, matches, result));
+        return result;
+    }
+
+    @Override
+    public void onIndexItemsSaved(List<SearchIndexItemEntity> items) {
+        this.index.put(items);
+    }
+
+    @Override
+    public void onIndexItemsRemoved(List<Long> productVariantIds) {
+        this.index.remove(productVariantIds);
+    }
+
+    @Override
+    public void onIndexReplaced() {
+        this.init();
+    }
+
+    private List<InMemorySearchIndex.ScoredItem> query(SearchInput input, boolean enabledOnly) {
+        RoaringBitmap matches = this.searchFilterIndex.match(input, enabledOnly);
+        return this.index.query(this.getTerm(input), this.searchFilterIndex.toProductVariantIds(matches));
+    }
+
+    private List<SearchResult> getPage(SearchInput input, List<InMemorySearchIndex.ScoredItem> matches) {
+        return this.getPage(input, matches, new SearchStrategyResult());
+    }
+
+    /**
+     * Sorts the matches and returns the requested page, also setting the next cursor on the result.
+     */
+    private List<SearchResult> getPage(SearchInput input, List<InMemorySearchIndex.ScoredItem> matches,
+                                       SearchStrategyResult result) {
+        Integer pageSize = input.getPageSize() == null ? 25 : input.getPageSize();
+        Integer currentPage = input.getCurrentPage() == null ? 1 : input.getCurrentPage();
+
+        KeysetPagination<InMemorySearchIndex.ScoredItem> pagination = this.getPagination(input);
+        matches.sort(this.getComparator(input));
+        KeysetPagination.Result<InMemorySearchIndex.ScoredItem> page = pagination.page(
+                matches, PageInfo.builder().current(currentPage).size(pageSize).after(input.getAfter()).build());
+        result.setNextCursor(page.getNextCursor());
+
+        return page.getRecords().stream()
+                .map(m -> searchStrategyUtils.mapToSearchResult(m.getItem(), m.getScore()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The sort columns are named after those of the {@link DbSearchStrategy}, so that the cursors of both
+     * strategies are alike.
+     */
+    private KeysetPagination<InMemorySearchIndex.ScoredItem> getPagination(SearchInput input) {
+        KeysetPagination<InMemorySearchIndex.ScoredItem> pagination =
+                new KeysetPagination<>("product_variant_id", m -> m.getItem().getProductVariantId());
+        if (this.getTerm(input) != null) {
+            pagination.sortBy(SortOrder.DESC, "score", InMemorySearchIndex.ScoredItem::getScore);
+        }
+        SearchResultSortParameter sort = input.getSort();
+        if (sort != null) {
+            pagination.sortBy(sort.getName(), "product_name", m -> m.getItem().getProductName())
+                    .sortBy(sort.getPrice(), "price", m -> m.getItem().getPrice());
+        }
+        return pagination;
+    }
+
+    private String getTerm(SearchInput input) {
+        String term = input.getTerm() == null ? null : input.getTerm().trim();
+        if (StringUtils.isEmpty(term) || term.length() <= this.minTermLength) return null;
+        return term;
+    }
+
+    private Comparator<InMemorySearchIndex.ScoredItem> getComparator(SearchInput input) {
+        List<Comparator<InMemorySearchIndex.ScoredItem>> comparators = new ArrayList<>();
+        if (this.getTerm(input) != null) {
+            comparators.add(Comparator.comparing(InMemorySearchIndex.ScoredItem::getScore).reversed());
+        }
+        SearchResultSortParameter sort = input.getSort();
+        if (sort != null) {
+            if (sort.getName() != null) {
+                Comparator<InMemorySearchIndex.ScoredItem> byName = Comparator.comparing(
+                        m -> m.getItem().getProductName(),
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                comparators.add(SortOrder.ASC == sort.getName() ? byName : byName.reversed());
+            }
+            if (sort.getPrice() != null) {
+                Comparator<InMemorySearchIndex.ScoredItem> byPrice = Comparator.comparing(
+                        m -> m.getItem().getPrice(), Comparator.nullsFirst(Comparator.<Integer>naturalOrder()));
+                comparators.add(SortOrder.ASC == sort.getPrice() ? byPrice : byPrice.reversed());
+            }
+        }
+        // 保证分页结果稳定
+        comparators.add(Comparator.comparing(m -> m.getItem().getProductVariantId()));
+
+        return comparators.stream().reduce(Comparator::thenComparing).get();
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.mapper.SearchIndexItemEntityMapper;
+import io.geekstore.types.common.LogicalOperator;
+import io.geekstore.types.common.SearchInput;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maps every FacetValue id, Collection id and Collection slug found in the search index to a compressed
+ * bitmap of the ordinals of the ProductVariants which carry it, so that the facet & collection filters of a
+ * {@link SearchInput} can be evaluated as bitmap intersections and unions rather than as per-row text matches.
+ *
+ * Each ProductVariant id is assigned an ordinal the first time it is indexed. Ordinals are never reassigned,
+ * so a bitmap computed by a search stays valid while the index is being updated.
+ *
+ * The index lives in the memory of each server and only follows the index updates made by that server. When
+ * several servers share the database, each one reloads it every `search-options.localIndexRefreshInterval`,
+ * see {@link io.geekstore.service.SearchIndexService#refreshLocalIndexes()}.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SearchFilterIndex {
+    private final SearchIndexItemEntityMapper searchIndexItemEntityMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> productVariantIds = new ArrayList<>();
+    private final Map<Integer, IndexedItem> indexedItems = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap enabled = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> facetValues = new HashMap<>();
+    private final Map<Long, RoaringBitmap> collections = new HashMap<>();
+    private final Map<String, RoaringBitmap> collectionSlugs = new HashMap<>();
+
+    /**
+     * Loads the filterable columns of all items from the search index table, replacing the current content.
+     */
+    @PostConstruct
+    public void reload() {
+        QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().select(
+                SearchIndexItemEntity::getProductVariantId,
+                SearchIndexItemEntity::isEnabled,
+                SearchIndexItemEntity::getFacetValueIds,
+                SearchIndexItemEntity::getCollectionIds,
+                SearchIndexItemEntity::getCollectionSlugs);
+        this.replaceAll(this.searchIndexItemEntityMapper.selectList(queryWrapper));
+        log.info("Loaded " + this.all.getCardinality() + " items into the search filter index");
+    }
+
+    /**
+     * Returns true if the input contains any facet or collection filter.
+     */
+    public static boolean hasFilters(SearchInput input) {
+        return !CollectionUtils.isEmpty(input.getFacetValueIds()) ||
+                input.getCollectionId() != null ||
+                !StringUtils.isEmpty(input.getCollectionSlug());
+    }
+
+    /**
+     * Returns the ordinals of all indexed ProductVariants which satisfy the facet, collection & enabled filters
+     * of the input. The returned bitmap is owned by the caller.
+     */
+    public RoaringBitmap match(SearchInput input, boolean enabledOnly) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = enabledOnly ? this.enabled.clone() : this.all.clone();
+
+            if (!CollectionUtils.isEmpty(input.getFacetValueIds())) {
+                List<RoaringBitmap> facetValueBitmaps = new ArrayList<>();
+                for(Long facetValueId : input.getFacetValueIds()) {
+                    facetValueBitmaps.add(this.facetValues.getOrDefault(facetValueId, new RoaringBitmap()));
+                }
+                if (Objects.equals(input.getFacetValueOperator(), LogicalOperator.AND)) {
+                    facetValueBitmaps.forEach(result::and);
+                } else {
+                    result.and(RoaringBitmap.or(facetValueBitmaps.iterator()));
+                }
+            }
+            if (input.getCollectionId() != null) {
+                result.and(this.collections.getOrDefault(input.getCollectionId(), new RoaringBitmap()));
+            }
+            if (!StringUtils.isEmpty(input.getCollectionSlug())) {
+                result.and(this.collectionSlugs.getOrDefault(
+                        input.getCollectionSlug().trim(), new RoaringBitmap()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Converts ProductVariant ids into ordinals. Ids which have never been indexed are skipped.
+     */
+    public RoaringBitmap toOrdinals(Collection<Long> ids) {
+        RoaringBitmap result = new RoaringBitmap();
+        lock.readLock().lock();
+        try {
+            for(Long id : ids) {
+                Integer ordinal = this.ordinals.get(id);
+                if (ordinal != null) {
+                    result.add(ordinal);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Converts ordinals back into ProductVariant ids, in ascending ordinal order.
+     */
+    public List<Long> toProductVariantIds(RoaringBitmap bitmap) {
+        List<Long> result = new ArrayList<>(bitmap.getCardinality());
+        lock.readLock().lock();
+        try {
+            bitmap.forEach((int ordinal) -> result.add(this.productVariantIds.get(ordinal)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Returns a map of `facetValueId` => `count`, counting how many of the given ordinals carry each FacetValue.
+     */
+    public Map<Long, Integer> countFacetValues(RoaringBitmap bitmap) {
+        Map<Long, Integer> result = new HashMap<>();
+        if (bitmap.isEmpty()) return result;
+        lock.readLock().lock();
+        try {
+            for(Map.Entry<Long, RoaringBitmap> entry : this.facetValues.entrySet()) {
+                int count = RoaringBitmap.andCardinality(entry.getValue(), bitmap);
+                if (count > 0) {
+                    result.put(entry.getKey(), count);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public void put(Collection<SearchIndexItemEntity> items) {
+        lock.writeLock().lock();
+        try {
+            for(SearchIndexItemEntity item : items) {
+                int ordinal = this.getOrCreateOrdinal(item.getProductVariantId());
+                this.removeItem(ordinal);
+                this.addItem(ordinal, item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for(Long id : ids) {
+                Integer ordinal = this.ordinals.get(id);
+                if (ordinal != null) {
+                    this.removeItem(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces the whole content of the index.
+     */
+    public void replaceAll(Collection<SearchIndexItemEntity> items) {
+        lock.writeLock().lock();
+        try {
+            this.indexedItems.clear();
+            this.all.clear();
+            this.enabled.clear();
+            this.facetValues.clear();
+            this.collections.clear();
+            this.collectionSlugs.clear();
+            for(SearchIndexItemEntity item : items) {
+                this.addItem(this.getOrCreateOrdinal(item.getProductVariantId()), item);
+            }
+            this.facetValues.values().forEach(RoaringBitmap::runOptimize);
+            this.collections.values().forEach(RoaringBitmap::runOptimize);
+            this.collectionSlugs.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int getOrCreateOrdinal(Long id) {
+        Integer ordinal = this.ordinals.get(id);
+        if (ordinal == null) {
+            ordinal = this.productVariantIds.size();
+            this.productVariantIds.add(id);
+            this.ordinals.put(id, ordinal);
+        }
+        return ordinal;
+    }
+
+    private void addItem(int ordinal, SearchIndexItemEntity item) {
+        IndexedItem indexedItem = new IndexedItem(
+                new ArrayList<>(item.getFacetValueIds()),
+                new ArrayList<>(item.getCollectionIds()),
+                new ArrayList<>(item.getCollectionSlugs()));
+        this.indexedItems.put(ordinal, indexedItem);
+        this.all.add(ordinal);
+        if (item.isEnabled()) {
+            this.enabled.add(ordinal);
+        }
+        indexedItem.facetValueIds.forEach(
+                id -> this.facetValues.computeIfAbsent(id, k -> new RoaringBitmap()).add(ordinal));
+        indexedItem.collectionIds.forEach(
+                id -> this.collections.computeIfAbsent(id, k -> new RoaringBitmap()).add(ordinal));
+        indexedItem.collectionSlugs.forEach(
+                slug -> this.collectionSlugs.computeIfAbsent(slug, k -> new RoaringBitmap()).add(ordinal));
+    }
+
+    private void removeItem(int ordinal) {
+        IndexedItem indexedItem = this.indexedItems.remove(ordinal);
+        if (indexedItem == null) return;
+        this.all.remove(ordinal);
+        this.enabled.remove(ordinal);
+        indexedItem.facetValueIds.forEach(id -> removeFrom(this.facetValues, id, ordinal));
+        indexedItem.collectionIds.forEach(id -> removeFrom(this.collections, id, ordinal));
+        indexedItem.collectionSlugs.forEach(slug -> removeFrom(this.collectionSlugs, slug, ordinal));
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int ordinal) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap == null) return;
+        bitmap.remove(ordinal);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    /**
+     * The filterable values of an indexed item, kept so that its bits can be cleared when it changes.
+     */
+    @RequiredArgsConstructor
+    private static class IndexedItem {
+        private final List<Long> facetValueIds;
+        private final List<Long> collectionIds;
+        private final List<String> collectionSlugs;
+    }
+}
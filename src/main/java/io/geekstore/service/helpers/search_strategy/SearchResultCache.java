@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.service.ConfigService;
+import io.geekstore.types.common.CountStrategy;
+import io.geekstore.types.common.LogicalOperator;
+import io.geekstore.types.common.SearchInput;
+import io.geekstore.types.common.SortOrder;
+import com.google.common.cache.Cache;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of {@link SearchStrategyResult}s, keyed by the normalized {@link SearchInput} & the
+ * `enabledOnly` flag.
+ *
+ * Each entry remembers the ProductVariants which passed its facet & collection filters when it was cached.
+ * When the {@link io.geekstore.service.SearchIndexService} updates or removes index items, only the entries which
+ * the changed variants passed before the change, or whose filters they pass after the change, are evicted.
+ * Entries without any filter depend on every variant, so they are evicted by any change. The index updates made
+ * through other servers are not seen, so the entries also expire after `search-options.resultCacheTtl`.
+ *
+ * A result is only cached if no eviction happened while it was being computed, so a search which raced with an
+ * index update can never leave a stale entry behind.
+ *
+ * Hits, misses & evictions are exposed through the actuator as the `search.results` cache metrics.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+public class SearchResultCache {
+    private final SearchFilterIndex searchFilterIndex;
+    private final Cache<Key, Entry> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    public SearchResultCache(SearchFilterIndex searchFilterIndex,
+                             ConfigService configService,
+                             MeterRegistry meterRegistry) {
+        this(searchFilterIndex, configService, meterRegistry, Ticker.systemTicker());
+    }
+
+    SearchResultCache(SearchFilterIndex searchFilterIndex,
+                      ConfigService configService,
+                      MeterRegistry meterRegistry,
+                      Ticker ticker) {
+        this.searchFilterIndex = searchFilterIndex;
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .maximumSize(configService.getSearchOptions().getResultCacheSize())
+                .ticker(ticker)
+                .recordStats();
+        int ttl = configService.getSearchOptions().getResultCacheTtl();
+        if (ttl > 0) {
+            // 其他服务器的索引更新不会驱逐本地条目
+            builder.expireAfterWrite(ttl, TimeUnit.SECONDS);
+        }
+        this.cache = builder.build();
+        GuavaCacheMetrics.monitor(meterRegistry, this.cache, "search.results");
+    }
+
+    /**
+     * Returns the cached result for the input, computing and caching it with the given search if absent.
+     */
+    public SearchStrategyResult get(SearchInput input, boolean enabledOnly, Supplier<SearchStrategyResult> search) {
+        Key key = new Key(input, enabledOnly);
+        Entry entry = this.cache.getIfPresent(key);
+        if (entry != null) return entry.result;
+
+        long versionBefore = this.version.get();
+        RoaringBitmap candidates = SearchFilterIndex.hasFilters(input) ?
+                this.searchFilterIndex.match(input, false) : null;
+        SearchStrategyResult result = search.get();
+        synchronized (this) {
+            if (this.version.get() == versionBefore) {
+                this.cache.put(key, new Entry(key, candidates, result));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evicts the entries affected by the given index items having been saved. Must be called once the new items
+     * are visible to the search strategy.
+     */
+    public void onIndexItemsSaved(List<SearchIndexItemEntity> items) {
+        Map<Long, SearchIndexItemEntity> itemMap = new HashMap<>();
+        items.forEach(item -> itemMap.put(item.getProductVariantId(), item));
+        RoaringBitmap ordinals = this.searchFilterIndex.toOrdinals(itemMap.keySet());
+        this.evictIf(entry -> entry.candidates == null ||
+                RoaringBitmap.intersects(entry.candidates, ordinals) ||
+                itemMap.values().stream().anyMatch(item -> passesFilters(entry.key, item)));
+    }
+
+    /**
+     * Evicts the entries affected by the index items of the given ProductVariants having been removed. Must be
+     * called once the removal is visible to the search strategy.
+     */
+    public void onIndexItemsRemoved(List<Long> productVariantIds) {
+        RoaringBitmap ordinals = this.searchFilterIndex.toOrdinals(productVariantIds);
+        this.evictIf(entry -> entry.candidates == null || RoaringBitmap.intersects(entry.candidates, ordinals));
+    }
+
+    public void onIndexReplaced() {
+        synchronized (this) {
+            this.version.incrementAndGet();
+            this.cache.invalidateAll();
+        }
+    }
+
+    private void evictIf(Predicate<Entry> predicate) {
+        synchronized (this) {
+            this.version.incrementAndGet();
+            this.cache.asMap().values().removeIf(predicate);
+        }
+    }
+
+    private static boolean passesFilters(Key key, SearchIndexItemEntity item) {
+        if (!key.facetValueIds.isEmpty()) {
+            boolean passes = key.facetValueOperator == LogicalOperator.AND ?
+                    item.getFacetValueIds().containsAll(key.facetValueIds) :
+                    key.facetValueIds.stream().anyMatch(item.getFacetValueIds()::contains);
+            if (!passes) return false;
+        }
+        if (key.collectionId != null && !item.getCollectionIds().contains(key.collectionId)) {
+            return false;
+        }
+        if (key.collectionSlug != null && !item.getCollectionSlugs().contains(key.collectionSlug)) {
+            return false;
+        }
+        return true;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final Key key;
+        private final RoaringBitmap candidates;
+        private final SearchStrategyResult result;
+    }
+
+    /**
+     * The normalized form of a SearchInput: inputs which the search strategies treat the same map to equal keys.
+     */
+    @EqualsAndHashCode
+    private static class Key {
+        private final String term;
+        private final SortedSet<Long> facetValueIds;
+        private final LogicalOperator facetValueOperator;
+        private final Long collectionId;
+        private final String collectionSlug;
+        private final int currentPage;
+        private final int pageSize;
+        private final String after;
+        private final CountStrategy countStrategy;
+        private final SortOrder sortByName;
+        private final SortOrder sortByPrice;
+        private final boolean enabledOnly;
+
+        Key(SearchInput input, boolean enabledOnly) {
+            String trimmedTerm = input.getTerm() == null ? "" : input.getTerm().trim();
+            this.term = trimmedTerm.isEmpty() ? null : trimmedTerm.toLowerCase(Locale.ROOT);
+            this.facetValueIds = input.getFacetValueIds() == null ?
+                    new TreeSet<>() : new TreeSet<>(input.getFacetValueIds());
+            this.facetValueOperator = this.facetValueIds.isEmpty() ? null :
+                    Objects.equals(input.getFacetValueOperator(), LogicalOperator.AND) ?
+                            LogicalOperator.AND : LogicalOperator.OR;
+            this.collectionId = input.getCollectionId();
+            String trimmedSlug = input.getCollectionSlug() == null ? "" : input.getCollectionSlug().trim();
+            this.collectionSlug = trimmedSlug.isEmpty() ? null : trimmedSlug;
+            this.currentPage = input.getCurrentPage() == null ? 1 : Math.max(input.getCurrentPage(), 1);
+            this.pageSize = input.getPageSize() == null ? 25 : input.getPageSize();
+            this.after = input.getAfter();
+            this.countStrategy = input.getCountStrategy();
+            this.sortByName = input.getSort() == null ? null : input.getSort().getName();
+            this.sortByPrice = input.getSort() == null ? null : input.getSort().getPrice();
+            this.enabledOnly = enabledOnly;
+        }
+    }
+}
@@ -5,6 +5,7 @@
 
 package io.geekstore.service.helpers.search_strategy;
 
+import io.geekstore.entity.SearchIndexItemEntity;
 import io.geekstore.types.common.SearchInput;
 import io.geekstore.types.search.SearchResult;
 
@@ -24,4 +25,34 @@ public interface SearchStrategy {
      * facetValue occurs in the result set.
      */
     Map<Long, Integer> getFacetValueIds(SearchInput input, boolean enabledOnly);
+
+    /**
+     * Returns the requested page of results, the total count and the facet value counts together.
+     * Implementations should evaluate the term & filters only once for all three. The default
+     * implementation simply calls each of the methods above.
+     */
+    default SearchStrategyResult search(SearchInput input, boolean enabledOnly) {
+        SearchStrategyResult result = new SearchStrategyResult();
+        result.setItems(this.getSearchResults(input, enabledOnly));
+        result.setTotalItems(this.getTotalCount(input, enabledOnly));
+        result.setFacetValueCounts(this.getFacetValueIds(input, enabledOnly));
+        return result;
+    }
+
+    /**
+     * Called by the SearchIndexService after the given index items have been written to the search index table.
+     * Strategies which maintain their own index structures should use this to keep them in sync.
+     */
+    default void onIndexItemsSaved(List<SearchIndexItemEntity> items) {}
+
+    /**
+     * Called by the SearchIndexService after the index items of the given ProductVariants have been removed.
+     */
+    default void onIndexItemsRemoved(List<Long> productVariantIds) {}
+
+    /**
+     * Called by the SearchIndexService after a reindex has replaced the whole content of the search index table.
+     * Strategies which maintain their own index structures should reload them from the table.
+     */
+    default void onIndexReplaced() {}
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.types.search.SearchResult;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a single evaluation of a search: the requested page of results, the total
+ * number of matches and the facet value counts over all matches.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class SearchStrategyResult {
+    private List<SearchResult> items = new ArrayList<>();
+    private Integer totalItems = 0;
+    /**
+     * Whether counting stopped at the count cap, see {@link io.geekstore.types.common.CountStrategy#CAPPED}
+     */
+    private boolean totalItemsCapped;
+    /**
+     * The cursor of the last item, null if there is no next page
+     */
+    private String nextCursor;
+    /**
+     * `facetValueId` => `count`, see {@link SearchStrategy#getFacetValueIds}
+     */
+    private Map<Long, Integer> facetValueCounts = new HashMap<>();
+}
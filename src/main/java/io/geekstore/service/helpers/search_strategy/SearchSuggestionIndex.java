@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.mapper.SearchIndexItemEntityMapper;
+import io.geekstore.types.search.SearchSuggestion;
+import io.geekstore.types.search.SearchSuggestionType;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A sorted map of the normalized product names & SKUs of the search index items, answering prefix lookups
+ * for the `searchSuggestions` query without touching the database.
+ *
+ * A product name is keyed from the start of each of its words, so "cam" suggests both "Camera Lens" and
+ * "Instant Camera". Only enabled items are suggested.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SearchSuggestionIndex {
+    private final SearchIndexItemEntityMapper searchIndexItemEntityMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<Long>> keys = new TreeMap<>();
+    private final Map<Long, IndexedItem> indexedItems = new HashMap<>();
+
+    /**
+     * Loads the suggested columns of all items from the search index table, replacing the current content.
+     */
+    @PostConstruct
+    public void reload() {
+        QueryWrapper<SearchIndexItemEntity> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().select(
+                SearchIndexItemEntity::getProductVariantId,
+                SearchIndexItemEntity::getProductId,
+                SearchIndexItemEntity::isEnabled,
+                SearchIndexItemEntity::getProductName,
+                SearchIndexItemEntity::getSlug,
+                SearchIndexItemEntity::getSku);
+        this.replaceAll(this.searchIndexItemEntityMapper.selectList(queryWrapper));
+        log.info("Loaded " + this.indexedItems.size() + " items into the search suggestion index");
+    }
+
+    /**
+     * Returns up to `limit` suggestions whose product name or SKU contains a word starting with the prefix,
+     * in alphabetical order of the text from the matched word on. Product names are suggested once per Product.
+     */
+    public List<SearchSuggestion> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        List<SearchSuggestion> result = new ArrayList<>();
+        if (normalizedPrefix.isEmpty() || limit <= 0) return result;
+
+        Set<Long> suggestedProductIds = new HashSet<>();
+        Set<Long> suggestedVariantIds = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for(Map.Entry<String, Set<Long>> entry :
+                    this.keys.subMap(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false)
+                            .entrySet()) {
+                for(Long productVariantId : entry.getValue()) {
+                    IndexedItem item = this.indexedItems.get(productVariantId);
+                    if (item == null || !item.enabled) continue;
+
+                    boolean isSku = item.skuKey != null && item.skuKey.equals(entry.getKey());
+                    if (isSku && suggestedVariantIds.add(productVariantId)) {
+                        result.add(item.toSuggestion(SearchSuggestionType.SKU));
+                    } else if (!isSku && suggestedProductIds.add(item.productId)) {
+                        result.add(item.toSuggestion(SearchSuggestionType.PRODUCT_NAME));
+                    }
+                    if (result.size() >= limit) return result;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public void put(Collection<SearchIndexItemEntity> items) {
+        lock.writeLock().lock();
+        try {
+            for(SearchIndexItemEntity item : items) {
+                this.removeItem(item.getProductVariantId());
+                this.addItem(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Long> productVariantIds) {
+        lock.writeLock().lock();
+        try {
+            productVariantIds.forEach(this::removeItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces the whole content of the index.
+     */
+    public void replaceAll(Collection<SearchIndexItemEntity> items) {
+        lock.writeLock().lock();
+        try {
+            this.keys.clear();
+            this.indexedItems.clear();
+            items.forEach(this::addItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases the text, strips diacritics and collapses any run of characters which are not letters or
+     * digits into a single space.
+     */
+    static String normalize(String text) {
+        if (StringUtils.isEmpty(text)) return "";
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{Nd}]+", " ")
+                .trim();
+    }
+
+    private void addItem(SearchIndexItemEntity item) {
+        IndexedItem indexedItem = new IndexedItem(item);
+        this.indexedItems.put(item.getProductVariantId(), indexedItem);
+        indexedItem.keys().forEach(
+                key -> this.keys.computeIfAbsent(key, k -> new HashSet<>()).add(item.getProductVariantId()));
+    }
+
+    private void removeItem(Long productVariantId) {
+        IndexedItem indexedItem = this.indexedItems.remove(productVariantId);
+        if (indexedItem == null) return;
+        for(String key : indexedItem.keys()) {
+            Set<Long> ids = this.keys.get(key);
+            if (ids != null) {
+                ids.remove(productVariantId);
+                if (ids.isEmpty()) {
+                    this.keys.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * The suggested values of an indexed item, kept so that its keys can be removed when it changes.
+     */
+    private static class IndexedItem {
+        private final Long productVariantId;
+        private final Long productId;
+        private final boolean enabled;
+        private final String productName;
+        private final String slug;
+        private final String sku;
+        private final String nameKey;
+        private final String skuKey;
+
+        IndexedItem(SearchIndexItemEntity item) {
+            this.productVariantId = item.getProductVariantId();
+            this.productId = item.getProductId();
+            this.enabled = item.isEnabled();
+            this.productName = item.getProductName();
+            this.slug = item.getSlug();
+            this.sku = item.getSku();
+            String normalizedName = normalize(item.getProductName());
+            this.nameKey = normalizedName.isEmpty() ? null : normalizedName;
+            String normalizedSku = normalize(item.getSku());
+            this.skuKey = normalizedSku.isEmpty() ? null : normalizedSku;
+        }
+
+        List<String> keys() {
+            List<String> keys = new ArrayList<>();
+            if (this.nameKey != null) {
+                // 从每个单词的开头建立索引
+                keys.add(this.nameKey);
+                for(int i = this.nameKey.indexOf(' '); i >= 0; i = this.nameKey.indexOf(' ', i + 1)) {
+                    keys.add(this.nameKey.substring(i + 1));
+                }
+            }
+            if (this.skuKey != null) {
+                keys.add(this.skuKey);
+            }
+            return keys;
+        }
+
+        SearchSuggestion toSuggestion(SearchSuggestionType type) {
+            SearchSuggestion suggestion = new SearchSuggestion();
+            suggestion.setType(type);
+            suggestion.setText(type == SearchSuggestionType.SKU ? this.sku : this.productName);
+            suggestion.setProductId(this.productId);
+            suggestion.setProductVariantId(type == SearchSuggestionType.SKU ? this.productVariantId : null);
+            suggestion.setSlug(this.slug);
+            return suggestion;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.types.common;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public enum CountStrategy {
+    EXACT,
+    CAPPED,
+    CACHED
+}
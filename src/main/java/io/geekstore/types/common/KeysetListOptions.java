@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.types.common;
+
+/**
+ * The options of the lists which support keyset pagination & a choice of count strategy.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public interface KeysetListOptions extends ListOptions {
+    String getAfter();
+    void setAfter(String after);
+    CountStrategy getCountStrategy();
+    void setCountStrategy(CountStrategy countStrategy);
+}
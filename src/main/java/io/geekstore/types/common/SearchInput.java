@@ -22,5 +22,7 @@ public class SearchInput {
     private String collectionSlug;
     private Integer currentPage;
     private Integer pageSize;
+    private String after;
+    private CountStrategy countStrategy;
     private SearchResultSortParameter sort;
 }
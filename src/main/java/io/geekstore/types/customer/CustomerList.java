@@ -18,4 +18,6 @@ import java.util.List;
 public class CustomerList implements PaginatedList<Customer> {
     private List<Customer> items = new ArrayList<>();
     private Integer totalItems;
+    private Boolean totalItemsCapped;
+    private String nextCursor;
 }
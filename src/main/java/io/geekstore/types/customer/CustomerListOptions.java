@@ -5,16 +5,19 @@
 
 package io.geekstore.types.customer;
 
-import io.geekstore.types.common.ListOptions;
+import io.geekstore.types.common.CountStrategy;
+import io.geekstore.types.common.KeysetListOptions;
 import lombok.Data;
 
 /**
  * Created on Nov, 2020 by @author bobo
  */
 @Data
-public class CustomerListOptions implements ListOptions {
+public class CustomerListOptions implements KeysetListOptions {
     private Integer currentPage;
     private Integer pageSize;
+    private String after;
+    private CountStrategy countStrategy;
     private CustomerSortParameter sort;
     private CustomerFilterParameter filter;
 }
@@ -18,4 +18,6 @@ import java.util.List;
 public class OrderList implements PaginatedList<Order> {
     private List<Order> items = new ArrayList<>();
     private Integer totalItems;
+    private Boolean totalItemsCapped;
+    private String nextCursor;
 }
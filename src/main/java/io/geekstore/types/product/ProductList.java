@@ -18,4 +18,6 @@ import java.util.List;
 public class ProductList implements PaginatedList<Product> {
     private List<Product> items = new ArrayList<>();
     private Integer totalItems;
+    private Boolean totalItemsCapped;
+    private String nextCursor;
 }
@@ -5,16 +5,19 @@
 
 package io.geekstore.types.product;
 
-import io.geekstore.types.common.ListOptions;
+import io.geekstore.types.common.CountStrategy;
+import io.geekstore.types.common.KeysetListOptions;
 import lombok.Data;
 
 /**
  * Created on Nov, 2020 by @author bobo
  */
 @Data
-public class ProductListOptions implements ListOptions {
+public class ProductListOptions implements KeysetListOptions {
     private Integer currentPage;
     private Integer pageSize;
+    private String after;
+    private CountStrategy countStrategy;
     private ProductSortParameter sort;
     private ProductFilterParameter filter;
 }
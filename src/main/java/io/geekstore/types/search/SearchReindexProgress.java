@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.types.search;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class SearchReindexProgress {
+    private SearchReindexState state;
+    private Integer total;
+    private Integer processed;
+    private Double rate;
+    private Integer eta;
+    private Date startedAt;
+    private Date completedAt;
+    private String error;
+}
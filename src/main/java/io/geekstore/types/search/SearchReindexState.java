@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.types.search;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public enum SearchReindexState {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
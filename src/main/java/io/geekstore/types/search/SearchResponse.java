@@ -10,6 +10,7 @@ import lombok.Data;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created on Nov, 2020 by @author bobo
@@ -18,6 +19,9 @@ import java.util.List;
 public class SearchResponse {
     private List<SearchResult> items = new ArrayList<>();
     private Integer totalItems;
+    private Boolean totalItemsCapped;
+    private String nextCursor;
     private List<FacetValueResult> facetValues = new ArrayList<>();
     private SearchInput searchInput; // 内部使用，GraphQL对外不可见
+    private Map<Long, Integer> facetValueCounts; // 内部使用，与items同时计算，供facetValues字段解析
 }
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.types.search;
+
+import lombok.Data;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+@Data
+public class SearchSuggestion {
+    private SearchSuggestionType type;
+    private String text;
+    private Long productId;
+    private Long productVariantId;
+    private String slug;
+}
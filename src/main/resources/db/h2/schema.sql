@@ -681,4 +681,27 @@ create table tb_search_index_item (
 );
 
 create index idx_product_asset_id on tb_search_index_item(product_asset_id);
-create index idx_product_variant_asset_id on tb_search_index_item(product_variant_asset_id);
\ No newline at end of file
+create index idx_product_variant_asset_id on tb_search_index_item(product_variant_asset_id);
+
+create table tb_search_index_item_shadow (
+    product_variant_id bigint not null,
+    product_id bigint,
+    enabled boolean,
+    product_name varchar(255),
+    product_variant_name varchar(255),
+    description text,
+    slug varchar(255),
+    sku varchar(100),
+    price integer,
+    facet_ids text,
+    facet_value_ids text,
+    collection_ids text,
+    collection_slugs text,
+    product_preview varchar(255),
+    product_preview_focal_point tinytext,
+    product_variant_preview varchar(255),
+    product_variant_preview_focal_point tinytext,
+    product_asset_id bigint,
+    product_variant_asset_id bigint,
+    primary key (product_variant_id)
+);
\ No newline at end of file
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.benchmark;
+
+import io.geekstore.common.Constant;
+import io.geekstore.custom.graphql.DataLoaderFactoryTable;
+import io.geekstore.custom.graphql.LazyDataLoaderRegistry;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the per-request cost of the DataLoader registry, creating all the DataLoaders up front as before, with
+ * the {@link LazyDataLoaderRegistry} creating them on first lookup, for a request using two of them. The eager
+ * registry used to create its batch loaders per request as well, so its allocation is understated here.
+ *
+ * Compare the `gc.alloc.rate.norm` (bytes per request) reported by the GC profiler.
+ * Run the main method from the IDE, or with the test classpath after `mvn test-compile`.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataLoaderRegistryBenchmark {
+
+    private DataLoaderFactoryTable table;
+    private Map<String, Supplier<DataLoader<?, ?>>> factories;
+
+    @Setup
+    public void setup() throws Exception {
+        // the batch loaders only touch their mappers when loading, so none are needed to build the table
+        Constructor<?> constructor = DataLoaderFactoryTable.class.getConstructors()[0];
+        table = (DataLoaderFactoryTable) constructor.newInstance(new Object[constructor.getParameterCount()]);
+        table.init();
+        factories = table.getFactories();
+    }
+
+    private static Object lookUp(DataLoaderRegistry registry) {
+        registry.getDataLoader(Constant.DATA_LOADER_NAME_PRODUCT_VARIANTS);
+        return registry.getDataLoader(Constant.DATA_LOADER_NAME_PRODUCT_FEATURED_ASSET);
+    }
+
+    @Benchmark
+    public Object eagerRegistry() {
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        factories.forEach((name, factory) -> registry.register(name, factory.get()));
+        return lookUp(registry);
+    }
+
+    @Benchmark
+    public Object lazyRegistry() {
+        return lookUp(table.newRegistry());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataLoaderRegistryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.benchmark;
+
+import io.geekstore.common.utils.PermissionUtil;
+import io.geekstore.config.session_cache.CachedSessionUser;
+import io.geekstore.custom.security.Allow;
+import io.geekstore.custom.security.ResolverRequirement;
+import io.geekstore.custom.security.ResolverRequirementTable;
+import io.geekstore.types.common.Permission;
+import graphql.schema.DataFetchingEnvironment;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the permission check of the auth guard, reflecting on the {@link Allow} annotation & comparing lists of
+ * permission names on every call, with the lookup of the precompiled {@link ResolverRequirement} & a bitwise test.
+ *
+ * Run the main method from the IDE, or with the test classpath after `mvn test-compile`.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionCheckBenchmark {
+
+    public static class SampleQuery {
+        @Allow({Permission.ReadCatalog, Permission.ReadOrder})
+        public Object products(Object options, DataFetchingEnvironment dfe) {
+            return null;
+        }
+    }
+
+    private Method method;
+    private CachedSessionUser user;
+    private ResolverRequirementTable table;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws NoSuchMethodException {
+        method = SampleQuery.class.getMethod("products", Object.class, DataFetchingEnvironment.class);
+        // the permissions of Roles are deserialized from JSON as strings, see PermissionUtil
+        List permissions = new ArrayList<>();
+        for(Permission permission : Permission.values()) {
+            if (permission.name().startsWith("Read") || permission == Permission.Authenticated) {
+                permissions.add(permission.name());
+            }
+        }
+        user = new CachedSessionUser();
+        user.setPermissions(permissions);
+        table = new ResolverRequirementTable(null);
+        table.get(method);
+    }
+
+    @Benchmark
+    public boolean reflectAndCompareNames() {
+        Allow allow = method.getAnnotation(Allow.class);
+        List<Permission> allowedPermissions = allow == null ? new ArrayList<>() : Arrays.asList(allow.value());
+        if (allowedPermissions.size() == 0 || allowedPermissions.contains(Permission.Public)) return true;
+        List<String> allowedPermissionsInString =
+                allowedPermissions.stream().map(p -> p.name()).collect(Collectors.toList());
+        return user.getPermissions().containsAll(allowedPermissionsInString);
+    }
+
+    @Benchmark
+    public boolean precompiledBitmask() {
+        ResolverRequirement requirement = table.get(method);
+        if (requirement.isUnrestricted() || requirement.isPublicAllowed()) return true;
+        return PermissionUtil.hasAll(user.getPermissionMask(), requirement.getPermissionMask());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PermissionCheckBenchmark.class.getSimpleName()).build()).run();
+    }
+}
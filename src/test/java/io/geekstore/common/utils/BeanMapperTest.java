@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.common.utils;
+
+import io.geekstore.entity.ProductEntity;
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.types.product.Product;
+import io.geekstore.types.product.UpdateProductInput;
+import io.geekstore.types.search.SearchResult;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class BeanMapperTest {
+
+    @Data
+    static class PackagePrivateBean {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    public static class PrimitiveBean {
+        private long id;
+        private boolean enabled;
+    }
+
+    public static class NoDefaultConstructorBean {
+        public NoDefaultConstructorBean(String name) {
+        }
+    }
+
+    private ProductEntity productEntity() {
+        ProductEntity productEntity = new ProductEntity();
+        productEntity.setId(1L);
+        productEntity.setCreatedAt(new Date());
+        productEntity.setName("Laptop");
+        productEntity.setSlug("laptop");
+        productEntity.setEnabled(false);
+        productEntity.setFeaturedAssetId(2L);
+        return productEntity;
+    }
+
+    @Test
+    public void maps_like_spring_bean_utils() {
+        ProductEntity productEntity = productEntity();
+        Product expected = new Product();
+        BeanUtils.copyProperties(productEntity, expected);
+
+        Product product = BeanMapper.map(productEntity, Product.class);
+        assertThat(product).isEqualTo(expected);
+        assertThat(product.getId()).isEqualTo(1L);
+        assertThat(product.getEnabled()).isFalse();
+        assertThat(product.getFeaturedAssetId()).isEqualTo(2L);
+
+        SearchIndexItemEntity item = new SearchIndexItemEntity();
+        item.setProductVariantId(3L);
+        item.setEnabled(true);
+        item.setPrice(100);
+        item.setFacetValueIds(Arrays.asList(4L, 5L));
+        SearchResult result = BeanMapper.map(item, SearchResult.class);
+        assertThat(result.getProductVariantId()).isEqualTo(3L);
+        assertThat(result.getEnabled()).isTrue();
+        assertThat(result.getPrice()).isEqualTo(100);
+        assertThat(result.getFacetValueIds()).containsExactly(4L, 5L);
+    }
+
+    @Test
+    public void patch_ignores_null_and_empty_collections() {
+        ProductEntity productEntity = productEntity();
+        UpdateProductInput input = new UpdateProductInput();
+        input.setId(1L);
+        input.setSlug("notebook");
+        input.setFacetValueIds(Collections.emptyList());
+
+        BeanMapper.patch(input, productEntity);
+        assertThat(productEntity.getSlug()).isEqualTo("notebook");
+        assertThat(productEntity.getName()).isEqualTo("Laptop");
+        assertThat(productEntity.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void copies_between_wrappers_and_primitives() {
+        PrimitiveBean primitiveBean = BeanMapper.map(productEntity(), PrimitiveBean.class);
+        assertThat(primitiveBean.getId()).isEqualTo(1L);
+        assertThat(primitiveBean.isEnabled()).isFalse();
+
+        // null is not copied onto a primitive
+        Product product = new Product();
+        product.setEnabled(true);
+        BeanMapper.map(product, primitiveBean);
+        assertThat(primitiveBean.getId()).isEqualTo(1L);
+        assertThat(primitiveBean.isEnabled()).isTrue();
+    }
+
+    @Test
+    public void maps_non_public_classes() {
+        PackagePrivateBean bean = BeanMapper.map(productEntity(), PackagePrivateBean.class);
+        assertThat(bean.getId()).isEqualTo(1L);
+        assertThat(bean.getName()).isEqualTo("Laptop");
+
+        ProductEntity productEntity = BeanMapper.map(bean, ProductEntity.class);
+        assertThat(productEntity.getName()).isEqualTo("Laptop");
+    }
+
+    @Test
+    public void fails_without_a_no_arg_constructor() {
+        assertThatThrownBy(() -> BeanMapper.map(productEntity(), NoDefaultConstructorBean.class))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("failed to construct instance");
+    }
+}
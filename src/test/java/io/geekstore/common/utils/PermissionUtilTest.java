@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.common.utils;
+
+import io.geekstore.types.common.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class PermissionUtilTest {
+
+    @Test
+    public void accepts_permissions_and_their_names() {
+        long mask = PermissionUtil.toMask(Arrays.asList(Permission.ReadCatalog, "ReadOrder", "Removed", null));
+        assertThat(mask).isEqualTo(
+                PermissionUtil.toMask(Permission.ReadCatalog) | PermissionUtil.toMask(Permission.ReadOrder));
+    }
+
+    @Test
+    public void checks_that_all_required_permissions_are_granted() {
+        long granted = PermissionUtil.toMask(
+                Arrays.asList(Permission.Authenticated, Permission.ReadCatalog, Permission.UpdateCatalog));
+        assertThat(PermissionUtil.hasAll(granted,
+                PermissionUtil.toMask(Arrays.asList(Permission.ReadCatalog, Permission.UpdateCatalog)))).isTrue();
+        assertThat(PermissionUtil.hasAll(granted,
+                PermissionUtil.toMask(Arrays.asList(Permission.ReadCatalog, Permission.DeleteCatalog)))).isFalse();
+        assertThat(PermissionUtil.hasAll(granted, 0L)).isTrue();
+        assertThat(PermissionUtil.hasAll(0L, PermissionUtil.toMask(Permission.Owner))).isFalse();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.auth;
+
+import io.geekstore.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void afterEach() {
+        if (encoder != null) encoder.shutdown();
+    }
+
+    @Test
+    public void hashes_and_verifies_with_the_delegate() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1);
+        String hash = encoder.encode("secret");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    public void upgrades_hashes_weaker_than_the_strength() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1);
+        assertThat(encoder.upgradeEncoding(weakHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    public void rejects_calls_when_the_queue_is_full() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(blocking, 1, 1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        Thread.sleep(100); // let the second call reach the queue
+
+        assertThatThrownBy(() -> encoder.encode("third")).isInstanceOf(TooManyRequestsException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isNotEmpty();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotEmpty();
+    }
+
+    @Test
+    public void calibrates_the_strength_to_the_target_time() {
+        // 10ms at strength 10 fits 80ms at strength 13
+        assertThat(BCryptStrengthCalibrator.choose(10_000_000L, 80_000_000L, 10, 16)).isEqualTo(13);
+        assertThat(BCryptStrengthCalibrator.choose(10_000_000L, 80_000_000L, 10, 12)).isEqualTo(12);
+        assertThat(BCryptStrengthCalibrator.choose(100_000_000L, 80_000_000L, 10, 16)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.session_cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class InMemorySessionCacheStrategyTest {
+
+    private CachedSession session(String token) {
+        CachedSession session = new CachedSession();
+        session.setToken(token);
+        return session;
+    }
+
+    @Test
+    public void clear_removes_all_sessions() {
+        InMemorySessionCacheStrategy strategy = new InMemorySessionCacheStrategy(10, 0, 300);
+        strategy.set(session("abc"));
+        strategy.set(session("def"));
+
+        strategy.clear();
+        assertThat(strategy.get("abc")).isNull();
+        assertThat(strategy.get("def")).isNull();
+    }
+
+    @Test
+    public void bounds_the_cache_by_weight() {
+        int weight = InMemorySessionCacheStrategy.weigh(session("token-000"));
+        InMemorySessionCacheStrategy strategy = new InMemorySessionCacheStrategy(0, weight * 100, 0);
+        for(int i = 0; i < 1000; i++) {
+            strategy.set(session(String.format("token-%03d", i)));
+        }
+
+        int cached = 0;
+        for(int i = 0; i < 1000; i++) {
+            if (strategy.get(String.format("token-%03d", i)) != null) cached++;
+        }
+        assertThat(cached).isBetween(1, 100);
+        assertThat(strategy.get("token-999")).isNotNull();
+    }
+
+    @Test
+    public void exposes_cache_metrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InMemorySessionCacheStrategy strategy = new InMemorySessionCacheStrategy(10, 0, 300);
+        strategy.bindTo(registry);
+
+        strategy.set(session("abc"));
+        strategy.get("abc");
+        strategy.get("def");
+
+        assertThat(registry.get("cache.gets").tag("cache", "sessions").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "sessions").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
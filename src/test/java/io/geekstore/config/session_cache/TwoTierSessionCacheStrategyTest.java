@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.config.session_cache;
+
+import io.geekstore.types.common.Permission;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two strategies sharing a directory stand in for two servers sharing a cache.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class TwoTierSessionCacheStrategyTest {
+
+    @TempDir
+    Path sharedDir;
+
+    private FileSharedSessionStore store1;
+    private FileSharedSessionStore store2;
+    private TwoTierSessionCacheStrategy server1;
+    private TwoTierSessionCacheStrategy server2;
+
+    private CachedSession session(String token, Long activeOrderId) {
+        CachedSession session = new CachedSession();
+        session.setCacheExpiry(System.currentTimeMillis() + 60000);
+        session.setId(1L);
+        session.setToken(token);
+        session.setExpires(new Date(System.currentTimeMillis() + 3600000));
+        session.setActiveOrderId(activeOrderId);
+        CachedSessionUser user = new CachedSessionUser();
+        user.setId(2L);
+        user.setIdentifier("hayden.zieme12@hotmail.com");
+        user.setVerified(true);
+        user.setPermissions(Arrays.asList(Permission.Authenticated, Permission.Owner));
+        session.setUser(user);
+        return session;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        store1 = new FileSharedSessionStore(sharedDir.toString(), 0);
+        store2 = new FileSharedSessionStore(sharedDir.toString(), 0);
+        server1 = new TwoTierSessionCacheStrategy(store1, 100, 60);
+        server2 = new TwoTierSessionCacheStrategy(store2, 100, 60);
+    }
+
+    @AfterEach
+    void afterEach() {
+        store1.close();
+        store2.close();
+    }
+
+    @Test
+    public void sessions_set_on_one_server_are_found_on_another() {
+        CachedSession session = session("abc", null);
+        server1.set(session);
+
+        assertThat(server2.get("abc")).isEqualTo(session);
+        assertThat(server2.get("def")).isNull();
+    }
+
+    @Test
+    public void updates_invalidate_the_near_cache_of_other_servers() {
+        server1.set(session("abc", null));
+        assertThat(server2.get("abc").getActiveOrderId()).isNull();
+
+        server1.set(session("abc", 5L));
+        // still served from the near-cache until the invalidation is received
+        assertThat(server2.get("abc").getActiveOrderId()).isNull();
+
+        store2.pollInvalidations();
+        assertThat(server2.get("abc").getActiveOrderId()).isEqualTo(5L);
+    }
+
+    @Test
+    public void deletes_and_clears_propagate() {
+        server1.set(session("abc", null));
+        server1.set(session("def", null));
+        assertThat(server2.get("abc")).isNotNull();
+        assertThat(server2.get("def")).isNotNull();
+
+        server1.delete("abc");
+        store2.pollInvalidations();
+        assertThat(server2.get("abc")).isNull();
+        assertThat(server2.get("def")).isNotNull();
+
+        server1.clear();
+        store2.pollInvalidations();
+        assertThat(server2.get("def")).isNull();
+    }
+
+    @Test
+    public void expired_and_unreadable_entries_are_misses() {
+        CachedSession session = session("abc", null);
+        session.setCacheExpiry(System.currentTimeMillis() - 1);
+        server1.set(session);
+        assertThat(server2.get("abc")).isNull();
+
+        store1.put("def", new byte[] { 99, 1, 2 }, 60000);
+        assertThat(server2.get("def")).isNull();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.graphql;
+
+import io.geekstore.exception.TooManyRequestsException;
+import io.geekstore.options.DataLoaderOptions;
+import io.geekstore.options.RejectionPolicyType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class DataLoaderExecutorTest {
+
+    private DataLoaderExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+        if (executor != null) executor.shutdown();
+    }
+
+    private DataLoaderExecutor fill(RejectionPolicyType rejectionPolicy) throws InterruptedException {
+        DataLoaderOptions options = new DataLoaderOptions();
+        options.setPoolSize(1);
+        options.setQueueCapacity(1);
+        options.setRejectionPolicy(rejectionPolicy);
+        executor = new DataLoaderExecutor(options);
+
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(() -> {}); // fills the queue
+        return executor;
+    }
+
+    @Test
+    public void runs_batch_functions_on_its_own_threads() throws Exception {
+        executor = new DataLoaderExecutor(new DataLoaderOptions());
+        String threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor)
+                .get(5, TimeUnit.SECONDS);
+        assertThat(threadName).startsWith("DataLoader-");
+    }
+
+    @Test
+    public void runs_on_the_caller_when_the_queue_is_full() throws Exception {
+        fill(RejectionPolicyType.caller_runs);
+
+        String threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor)
+                .get(5, TimeUnit.SECONDS);
+        assertThat(threadName).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void aborts_when_the_queue_is_full() throws Exception {
+        fill(RejectionPolicyType.abort);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+
+        assertThatThrownBy(() -> CompletableFuture.supplyAsync(() -> "rejected", executor))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(registry.get("geekstore.dataloader.rejected").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("executor.queued").tag("name", "dataloader").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.custom.graphql;
+
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class LazyDataLoaderRegistryTest {
+
+    @Test
+    public void creates_data_loaders_on_first_lookup() {
+        AtomicInteger created = new AtomicInteger();
+        Map<String, Supplier<DataLoader<?, ?>>> factories = new HashMap<>();
+        factories.put("a", () -> {
+            created.incrementAndGet();
+            return DataLoader.<Long, Long>newMappedDataLoader(keys -> CompletableFuture.completedFuture(null));
+        });
+        factories.put("b", () -> {
+            created.incrementAndGet();
+            return DataLoader.<Long, Long>newMappedDataLoader(keys -> CompletableFuture.completedFuture(null));
+        });
+
+        LazyDataLoaderRegistry registry = new LazyDataLoaderRegistry(factories);
+        assertThat(registry.getKeys()).isEmpty();
+        assertThat(created.get()).isEqualTo(0);
+
+        DataLoader<Long, Long> dataLoader = registry.getDataLoader("a");
+        assertThat(registry.<Long, Long>getDataLoader("a")).isSameAs(dataLoader);
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(registry.getKeys()).containsExactly("a");
+        assertThat(registry.getDataLoaders()).containsExactly(dataLoader);
+
+        assertThat(registry.<Long, Long>getDataLoader("unknown")).isNull();
+    }
+}
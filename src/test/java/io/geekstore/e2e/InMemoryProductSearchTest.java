@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.e2e;
+
+import io.geekstore.GeekStoreGraphQLTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the product search test suite against the in-memory search strategy.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@GeekStoreGraphQLTest
+@TestPropertySource(properties = "geekstore.search-options.strategy=memory")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+public class InMemoryProductSearchTest extends ProductSearchTest {
+}
@@ -24,6 +24,8 @@ import io.geekstore.types.facet.Facet;
 import io.geekstore.types.product.UpdateProductInput;
 import io.geekstore.types.product.UpdateProductVariantInput;
 import io.geekstore.types.search.FacetValueResult;
+import io.geekstore.types.search.SearchReindexProgress;
+import io.geekstore.types.search.SearchReindexState;
 import io.geekstore.types.search.SearchResponse;
 import io.geekstore.types.search.SearchResult;
 import io.geekstore.utils.TestHelper;
@@ -101,6 +103,8 @@ public class ProductSearchTest {
             String.format(ADMIN_SEARCH_GRAPHQL_RESOURCE_TEMPLATE, "search_get_prices");
     public static final String REINDEX =
             String.format(ADMIN_SEARCH_GRAPHQL_RESOURCE_TEMPLATE, "reindex");
+    static final String SEARCH_REINDEX_PROGRESS =
+            String.format(ADMIN_SEARCH_GRAPHQL_RESOURCE_TEMPLATE, "search_reindex_progress");
 
     @Autowired
     TestHelper testHelper;
@@ -1016,4 +1020,55 @@ public class ProductSearchTest {
         assertThat(searchResult3.getProductVariantId()).isEqualTo(3L);
         assertThat(searchResult3.getEnabled()).isFalse();
     }
+
+    @Test
+    @Order(34)
+    public void reports_progress_of_reindex() throws IOException {
+        adminClient.perform(REINDEX, null);
+
+        testHelper.awaitRunningTasks();
+
+        GraphQLResponse graphQLResponse = adminClient.perform(SEARCH_REINDEX_PROGRESS, null);
+        assertThat(graphQLResponse.isOk());
+        SearchReindexProgress progress =
+                graphQLResponse.get("$.data.searchReindexProgress", SearchReindexProgress.class);
+        assertThat(progress.getState()).isEqualTo(SearchReindexState.COMPLETED);
+        assertThat(progress.getTotal()).isGreaterThan(0);
+        assertThat(progress.getProcessed()).isEqualTo(progress.getTotal());
+        assertThat(progress.getEta()).isEqualTo(0);
+        assertThat(progress.getCompletedAt()).isNotNull();
+        assertThat(progress.getError()).isNull();
+    }
+
+    private List<Long> pageThroughByCursor(SearchInput input, int pageSize) throws IOException {
+        input.setPageSize(pageSize);
+        List<Long> productVariantIds = new ArrayList<>();
+        do {
+            SearchResponse searchResponse = doAdminSearchQuery(input);
+            searchResponse.getItems().forEach(i -> productVariantIds.add(i.getProductVariantId()));
+            input.setAfter(searchResponse.getNextCursor());
+        } while (input.getAfter() != null);
+        return productVariantIds;
+    }
+
+    @Test
+    @Order(35)
+    public void pages_through_results_by_cursor() throws IOException {
+        SearchInput input = new SearchInput();
+        SearchResultSortParameter sort = new SearchResultSortParameter();
+        sort.setPrice(SortOrder.DESC);
+        input.setSort(sort);
+        input.setPageSize(100);
+        List<Long> expectedIds = doAdminSearchQuery(input).getItems().stream()
+                .map(SearchResult::getProductVariantId).collect(Collectors.toList());
+        assertThat(pageThroughByCursor(input, 7)).isEqualTo(expectedIds);
+
+        input = new SearchInput();
+        input.setTerm("camera");
+        input.setPageSize(100);
+        expectedIds = doAdminSearchQuery(input).getItems().stream()
+                .map(SearchResult::getProductVariantId).collect(Collectors.toList());
+        assertThat(expectedIds).hasSizeGreaterThan(2);
+        assertThat(pageThroughByCursor(input, 2)).isEqualTo(expectedIds);
+    }
 }
@@ -10,6 +10,7 @@ import io.geekstore.config.TestConfig;
 import io.geekstore.types.asset.Asset;
 import io.geekstore.types.asset.AssetList;
 import io.geekstore.types.asset.AssetType;
+import io.geekstore.types.common.CountStrategy;
 import io.geekstore.types.common.DeletionResponse;
 import io.geekstore.types.common.DeletionResult;
 import io.geekstore.types.common.SortOrder;
@@ -34,6 +35,7 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 /**
  * Created on Dec, 2020 by @author bobo
@@ -82,6 +84,8 @@ public class ProductTest {
             String.format(PRODUCT_GRAPHQL_RESOURCE_TEMPLATE, "remove_option_group_from_product");
     static final String GET_OPTION_GROUP =
             String.format(PRODUCT_GRAPHQL_RESOURCE_TEMPLATE, "get_option_group");
+    static final String GET_PRODUCT_LIST_BY_CURSOR =
+            String.format(PRODUCT_GRAPHQL_RESOURCE_TEMPLATE, "get_product_list_by_cursor");
 
     @Autowired
     TestHelper testHelper;
@@ -1318,4 +1322,92 @@ public class ProductTest {
             );
         }
     }
+
+    /**
+     * cursor pagination
+     */
+
+    private ProductList getProductListByCursor(ProductListOptions options) throws IOException {
+        JsonNode optionsNode = objectMapper.valueToTree(options);
+        ObjectNode variables = objectMapper.createObjectNode();
+        variables.set("options", optionsNode);
+
+        GraphQLResponse graphQLResponse = adminClient.perform(GET_PRODUCT_LIST_BY_CURSOR, variables);
+        return graphQLResponse.get("$.data.adminProducts", ProductList.class);
+    }
+
+    @Test
+    @Order(55)
+    public void pages_through_products_by_cursor() throws IOException {
+        ProductSortParameter sortParameter = new ProductSortParameter();
+        sortParameter.setName(SortOrder.DESC);
+
+        ProductListOptions options = new ProductListOptions();
+        options.setSort(sortParameter);
+        options.setPageSize(100);
+        ProductList allProducts = getProductListByCursor(options);
+        assertThat(allProducts.getNextCursor()).isNull();
+
+        options.setPageSize(6);
+        List<String> pagedNames = new ArrayList<>();
+        int pages = 0;
+        do {
+            ProductList productList = getProductListByCursor(options);
+            assertThat(productList.getTotalItems()).isEqualTo(allProducts.getTotalItems());
+            productList.getItems().forEach(p -> pagedNames.add(p.getName()));
+            options.setAfter(productList.getNextCursor());
+            pages++;
+        } while (options.getAfter() != null);
+
+        assertThat(pages).isEqualTo((allProducts.getTotalItems() + 5) / 6);
+        assertThat(pagedNames).isEqualTo(
+                allProducts.getItems().stream().map(Product::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    @Order(56)
+    public void throws_if_the_cursor_does_not_match_the_sort_order() throws IOException {
+        ProductListOptions options = new ProductListOptions();
+        options.setPageSize(2);
+        ProductList productList = getProductListByCursor(options);
+
+        ProductSortParameter sortParameter = new ProductSortParameter();
+        sortParameter.setName(SortOrder.ASC);
+        options.setSort(sortParameter);
+        options.setAfter(productList.getNextCursor());
+        try {
+            getProductListByCursor(options);
+            fail("should have thrown");
+        } catch (ApiException apiEx) {
+            assertThat(apiEx.getErrorMessage()).isEqualTo(
+                    "The cursor does not match the sort order of the query");
+        }
+    }
+
+    @Test
+    @Order(57)
+    public void counts_total_items_with_count_strategy() throws IOException {
+        ProductListOptions options = new ProductListOptions();
+        options.setPageSize(6);
+        ProductList exactList = getProductListByCursor(options);
+        assertThat(exactList.getTotalItems()).isGreaterThan(10);
+        assertThat(exactList.getTotalItemsCapped()).isFalse();
+
+        // the count cap is configured as 10 for the tests
+        options.setCountStrategy(CountStrategy.CAPPED);
+        ProductList cappedList = getProductListByCursor(options);
+        assertThat(cappedList.getTotalItems()).isEqualTo(10);
+        assertThat(cappedList.getTotalItemsCapped()).isTrue();
+        assertThat(cappedList.getItems()).hasSize(6);
+        assertThat(cappedList.getNextCursor()).isNotNull();
+
+        options.setCurrentPage(2);
+        assertThat(getProductListByCursor(options).getNextCursor()).isNotNull();
+
+        options.setCurrentPage(1);
+        options.setCountStrategy(CountStrategy.CACHED);
+        ProductList cachedList = getProductListByCursor(options);
+        assertThat(cachedList.getTotalItems()).isEqualTo(exactList.getTotalItems());
+        assertThat(cachedList.getTotalItemsCapped()).isFalse();
+    }
 }
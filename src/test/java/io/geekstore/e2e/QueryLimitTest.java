@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.e2e;
+
+import io.geekstore.ApiClient;
+import io.geekstore.ApiException;
+import io.geekstore.GeekStoreGraphQLTest;
+import io.geekstore.config.TestConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.graphql.spring.boot.test.GraphQLResponse;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+@GeekStoreGraphQLTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+public class QueryLimitTest {
+
+    static final String SHOP_GRAPHQL_RESOURCE_TEMPLATE = "graphql/shop/query_limit/%s.graphqls";
+    static final String GET_PRODUCTS_DEEPLY_NESTED =
+            String.format(SHOP_GRAPHQL_RESOURCE_TEMPLATE, "get_products_deeply_nested");
+    static final String GET_PRODUCTS_PAGE =
+            String.format(SHOP_GRAPHQL_RESOURCE_TEMPLATE, "get_products_page");
+
+    static final String ADMIN_GRAPHQL_RESOURCE_TEMPLATE = "graphql/admin/query_limit/%s.graphqls";
+    static final String GET_ADMIN_PRODUCTS_DEEPLY_NESTED =
+            String.format(ADMIN_GRAPHQL_RESOURCE_TEMPLATE, "get_admin_products_deeply_nested");
+    static final String GET_MIXED_PRODUCTS_DEEPLY_NESTED =
+            String.format(ADMIN_GRAPHQL_RESOURCE_TEMPLATE, "get_mixed_products_deeply_nested");
+
+    @Autowired
+    @Qualifier(TestConfig.ADMIN_CLIENT_BEAN)
+    ApiClient adminClient;
+
+    @Autowired
+    @Qualifier(TestConfig.SHOP_CLIENT_BEAN)
+    ApiClient shopClient;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeAll
+    void beforeAll() throws IOException {
+        adminClient.asSuperAdmin();
+    }
+
+    @Test
+    @Order(1)
+    public void shop_query_within_limits_is_executed() throws IOException {
+        ObjectNode variables = objectMapper.createObjectNode();
+        variables.put("pageSize", 10);
+
+        GraphQLResponse graphQLResponse = shopClient.perform(GET_PRODUCTS_PAGE, variables);
+        assertThat(graphQLResponse.isOk()).isTrue();
+        assertThat(graphQLResponse.get("$.data.products.totalItems", Integer.class)).isEqualTo(0);
+    }
+
+    @Test
+    @Order(2)
+    public void shop_query_exceeding_max_depth_is_rejected() {
+        ApiException apiException = assertThrows(ApiException.class, () -> {
+            shopClient.perform(GET_PRODUCTS_DEEPLY_NESTED, null);
+        });
+        assertThat(apiException.getErrorMessage()).isEqualTo("maximum query depth exceeded 11 > 10");
+    }
+
+    @Test
+    @Order(3)
+    public void shop_query_exceeding_max_cost_is_rejected() {
+        ObjectNode variables = objectMapper.createObjectNode();
+        variables.put("pageSize", 2000);
+
+        ApiException apiException = assertThrows(ApiException.class, () -> {
+            shopClient.perform(GET_PRODUCTS_PAGE, variables);
+        });
+        assertThat(apiException.getErrorMessage()).isEqualTo("maximum query complexity exceeded 64003 > 50000");
+    }
+
+    @Test
+    @Order(4)
+    public void admin_query_is_checked_against_admin_limits() throws IOException {
+        GraphQLResponse graphQLResponse = adminClient.perform(GET_ADMIN_PRODUCTS_DEEPLY_NESTED, null);
+        assertThat(graphQLResponse.isOk()).isTrue();
+        assertThat(graphQLResponse.get("$.data.adminProducts.items.length()", Integer.class)).isEqualTo(0);
+    }
+
+    @Test
+    @Order(5)
+    public void query_mixing_shop_and_admin_fields_is_checked_against_shop_limits() {
+        ApiException apiException = assertThrows(ApiException.class, () -> {
+            adminClient.perform(GET_MIXED_PRODUCTS_DEEPLY_NESTED, null);
+        });
+        assertThat(apiException.getErrorMessage()).isEqualTo("maximum query depth exceeded 11 > 10");
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.e2e;
+
+import io.geekstore.GeekStoreGraphQLTest;
+import io.geekstore.MockDataService;
+import io.geekstore.PopulateOptions;
+import io.geekstore.entity.ProductVariantEntity;
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.mapper.ProductVariantEntityMapper;
+import io.geekstore.mapper.SearchIndexItemEntityMapper;
+import io.geekstore.service.SearchIndexService;
+import io.geekstore.service.helpers.search_index.SearchIndexShadowTable;
+import io.geekstore.types.asset.Coordinate;
+import io.geekstore.utils.TestHelper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+@GeekStoreGraphQLTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+public class SearchReindexTest {
+
+    @TestConfiguration
+    static class ContextConfiguration {
+        @Bean
+        @Primary
+        public HookedSearchIndexShadowTable hookedSearchIndexShadowTable(JdbcTemplate jdbcTemplate) {
+            return new HookedSearchIndexShadowTable(jdbcTemplate);
+        }
+    }
+
+    /**
+     * Runs a hook right before the next swap, i.e. once the shadow table has been written.
+     */
+    static class HookedSearchIndexShadowTable extends SearchIndexShadowTable {
+        private volatile Runnable beforeSwap;
+
+        HookedSearchIndexShadowTable(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+        }
+
+        // 通过方法设置，字段赋值不会穿过事务代理
+        public void setBeforeSwap(Runnable beforeSwap) {
+            this.beforeSwap = beforeSwap;
+        }
+
+        @Override
+        public void swap() {
+            Runnable hook = this.beforeSwap;
+            this.beforeSwap = null;
+            if (hook != null) hook.run();
+            super.swap();
+        }
+    }
+
+    @Autowired
+    TestHelper testHelper;
+
+    @Autowired
+    MockDataService mockDataService;
+
+    @Autowired
+    HookedSearchIndexShadowTable searchIndexShadowTable;
+
+    @Autowired
+    SearchIndexService searchIndexService;
+
+    @Autowired
+    SearchIndexItemEntityMapper searchIndexItemEntityMapper;
+
+    @Autowired
+    ProductVariantEntityMapper productVariantEntityMapper;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void beforeAll() throws IOException {
+        PopulateOptions populateOptions = PopulateOptions.builder().customerCount(1).build();
+        populateOptions.setInitialData(testHelper.getInitialData());
+        populateOptions.setProductCsvPath(testHelper.getTestFixture("e2e-products-full.csv"));
+
+        mockDataService.populate(populateOptions);
+        testHelper.awaitRunningTasks();
+    }
+
+    private int countRows(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    @Test
+    @Order(1)
+    public void swap_replaces_the_live_table_with_the_shadow_table() {
+        int liveCount = searchIndexItemEntityMapper.selectCount(null);
+        assertThat(liveCount).isGreaterThan(0);
+
+        SearchIndexItemEntity item = new SearchIndexItemEntity();
+        item.setProductVariantId(9999L);
+        item.setProductId(9999L);
+        item.setEnabled(true);
+        item.setProductName("Shadow");
+        item.setProductVariantName("Shadow Variant");
+        item.setPrice(100);
+        item.setFacetValueIds(Arrays.asList(1L, 2L));
+        item.setCollectionIds(Collections.singletonList(3L));
+        item.setCollectionSlugs(Collections.singletonList("shadow"));
+        Coordinate focalPoint = new Coordinate();
+        focalPoint.setX(0.5f);
+        focalPoint.setY(0.25f);
+        item.setProductPreviewFocalPoint(focalPoint);
+
+        searchIndexShadowTable.clear();
+        searchIndexShadowTable.insert(Collections.singletonList(item));
+        assertThat(countRows("tb_search_index_item_shadow")).isEqualTo(1);
+        assertThat(searchIndexItemEntityMapper.selectCount(null)).isEqualTo(liveCount);
+        assertThat(searchIndexItemEntityMapper.selectById(9999L)).isNull();
+
+        // H2上以delete + insert select替换
+        searchIndexShadowTable.swap();
+        assertThat(searchIndexItemEntityMapper.selectCount(null)).isEqualTo(1);
+        SearchIndexItemEntity swapped = searchIndexItemEntityMapper.selectById(9999L);
+        assertThat(swapped.getProductVariantName()).isEqualTo("Shadow Variant");
+        assertThat(swapped.getFacetValueIds()).containsExactly(1L, 2L);
+        assertThat(swapped.getCollectionIds()).containsExactly(3L);
+        assertThat(swapped.getCollectionSlugs()).containsExactly("shadow");
+        assertThat(swapped.getProductPreviewFocalPoint().getX()).isEqualTo(0.5f);
+
+        searchIndexShadowTable.clear();
+        assertThat(countRows("tb_search_index_item_shadow")).isEqualTo(0);
+    }
+
+    @Test
+    @Order(2)
+    public void reindex_rebuilds_the_live_table() {
+        assertThat(searchIndexService.reindex()).isTrue();
+
+        assertThat(searchIndexItemEntityMapper.selectById(9999L)).isNull();
+        assertThat(searchIndexItemEntityMapper.selectCount(null))
+                .isEqualTo(productVariantEntityMapper.selectCount(null));
+        assertThat(countRows("tb_search_index_item_shadow")).isEqualTo(0);
+    }
+
+    @Test
+    @Order(3)
+    public void variants_changed_during_reindex_are_refreshed_after_the_swap() {
+        ProductVariantEntity variant = productVariantEntityMapper.selectById(1L);
+        String originalName = variant.getName();
+        AtomicReference<String> shadowName = new AtomicReference<>();
+        AtomicReference<String> nameBeforeSwap = new AtomicReference<>();
+
+        searchIndexShadowTable.setBeforeSwap(() -> {
+            shadowName.set(jdbcTemplate.queryForObject("select product_variant_name " +
+                    "from tb_search_index_item_shadow where product_variant_id = 1", String.class));
+            // 模拟在影子表写完之后、交换之前到达的增量更新
+            variant.setName("Renamed During Reindex");
+            productVariantEntityMapper.updateById(variant);
+            searchIndexService.updateVariants(Collections.singletonList(1L));
+            nameBeforeSwap.set(searchIndexItemEntityMapper.selectById(1L).getProductVariantName());
+        });
+
+        assertThat(searchIndexService.reindex()).isTrue();
+
+        // 影子表中仍是旧名称，交换后由重建期间记录的变更重新应用
+        assertThat(shadowName.get()).isEqualTo(originalName);
+        assertThat(nameBeforeSwap.get()).isEqualTo("Renamed During Reindex");
+        assertThat(searchIndexItemEntityMapper.selectById(1L).getProductVariantName())
+                .isEqualTo("Renamed During Reindex");
+    }
+}
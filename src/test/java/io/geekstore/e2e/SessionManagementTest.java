@@ -10,8 +10,13 @@ import io.geekstore.common.Constant;
 import io.geekstore.config.TestConfig;
 import io.geekstore.config.session_cache.CachedSession;
 import io.geekstore.config.session_cache.SessionCacheStrategy;
+import io.geekstore.entity.SessionEntity;
+import io.geekstore.mapper.SessionEntityMapper;
 import io.geekstore.options.ConfigOptions;
+import io.geekstore.service.helpers.ExpiredSessionReaper;
+import io.geekstore.service.helpers.SessionExpiryBuffer;
 import io.geekstore.utils.TestHelper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.graphql.spring.boot.test.GraphQLResponse;
@@ -24,6 +29,7 @@ import org.springframework.test.annotation.DirtiesContext;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,6 +53,7 @@ public class SessionManagementTest {
     public static final String ADMIN_ATTEMPT_LOGIN =
             String.format(SHARED_GRAPHQL_RESOURCE_TEMPLATE, "admin_attempt_login");
     public static final String ADMIN_LOGOUT = "graphql/admin_logout.graphqls";
+    public static final String ADMIN_ME_TWICE = "graphql/admin_me_twice.graphqls";
 
     @Autowired
     TestHelper testHelper;
@@ -71,6 +78,15 @@ public class SessionManagementTest {
     @Autowired
     Map<String, CachedSession> testSessionCache;
 
+    @Autowired
+    SessionExpiryBuffer sessionExpiryBuffer;
+
+    @Autowired
+    SessionEntityMapper sessionEntityMapper;
+
+    @Autowired
+    ExpiredSessionReaper expiredSessionReaper;
+
     @BeforeAll
     void beforeAll() throws IOException {
         PopulateOptions populateOptions = PopulateOptions.builder().customerCount(1).build();
@@ -186,4 +202,80 @@ public class SessionManagementTest {
             assertThat(apiEx.getMessage()).isEqualTo("You are not currently authorized to perform this action");
         }
     }
+
+    @Test
+    @Order(7)
+    public void writes_expiry_extensions_in_batches() throws Exception {
+        sessionExpiryBuffer.flush(); // extensions made by the previous tests
+        configOptions.getAuthOptions().setSessionDuration("3s");
+        adminClient.asSuperAdmin();
+        SessionEntity session = latestSession();
+        Date initialExpiry = session.getExpires();
+
+        Thread.sleep(1600);
+        queryMe();
+        assertThat(sessionExpiryBuffer.size()).isEqualTo(1);
+        assertThat(latestSession().getExpires()).isEqualTo(initialExpiry);
+
+        sessionExpiryBuffer.flush();
+        assertThat(sessionExpiryBuffer.size()).isEqualTo(0);
+        assertThat(latestSession().getExpires()).isAfter(initialExpiry);
+    }
+
+    @Test
+    @Order(8)
+    public void reaps_expired_and_invalidated_sessions() throws Exception {
+        configOptions.getAuthOptions().getSessionReaperOptions().setBatchSize(2);
+        configOptions.getAuthOptions().getSessionReaperOptions().setBatchPause(0);
+        expiredSessionReaper.reap(); // sessions expired by the previous tests
+
+        Date past = new Date(System.currentTimeMillis() - 1000);
+        Date future = new Date(System.currentTimeMillis() + 60000);
+        SessionEntity expired1 = insertSession("expired-1", past, false);
+        SessionEntity expired2 = insertSession("expired-2", past, false);
+        SessionEntity invalidated = insertSession("invalidated", future, true);
+        SessionEntity active = insertSession("active", future, false);
+        SessionEntity extended = insertSession("extended", past, false);
+        sessionExpiryBuffer.extend(extended.getId(), future);
+
+        assertThat(expiredSessionReaper.reap()).isEqualTo(3);
+        assertThat(sessionEntityMapper.selectById(expired1.getId())).isNull();
+        assertThat(sessionEntityMapper.selectById(expired2.getId())).isNull();
+        assertThat(sessionEntityMapper.selectById(invalidated.getId())).isNull();
+        assertThat(sessionEntityMapper.selectById(active.getId())).isNotNull();
+        assertThat(sessionEntityMapper.selectById(extended.getId())).isNotNull();
+
+        // the current session is still valid
+        queryMe();
+    }
+
+    @Test
+    @Order(9)
+    public void resolves_the_session_once_per_request() throws IOException {
+        adminClient.asSuperAdmin();
+        Mockito.clearInvocations(sessionCacheStrategy);
+
+        GraphQLResponse graphQLResponse =
+                this.adminClient.perform(ADMIN_ME_TWICE, null, Arrays.asList(CURRENT_USER_FRAGMENT));
+        assertThat(graphQLResponse.get("$.data.first.identifier")).isEqualTo(Constant.SUPER_ADMIN_USER_IDENTIFIER);
+        assertThat(graphQLResponse.get("$.data.second.identifier")).isEqualTo(Constant.SUPER_ADMIN_USER_IDENTIFIER);
+
+        Mockito.verify(sessionCacheStrategy, Mockito.times(1)).get(any());
+    }
+
+    private SessionEntity insertSession(String token, Date expires, boolean invalidated) {
+        SessionEntity session = new SessionEntity();
+        session.setToken(token);
+        session.setExpires(expires);
+        session.setInvalidated(invalidated);
+        session.setAnonymous(true);
+        sessionEntityMapper.insert(session);
+        return session;
+    }
+
+    private SessionEntity latestSession() {
+        QueryWrapper<SessionEntity> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().orderByDesc(SessionEntity::getId).last("limit 1");
+        return sessionEntityMapper.selectOne(queryWrapper);
+    }
 }
@@ -192,9 +192,8 @@ public class ShopOrderTest {
 
     @Test
     @org.junit.jupiter.api.Order(3)
-    public void activeOrder_creates_an_anonymous_session() throws IOException {
-        assertThat(shopClient.getAuthToken()).isNotNull();
-        assertThat(shopClient.getAuthToken()).isNotBlank();
+    public void activeOrder_does_not_create_an_anonymous_session() throws IOException {
+        assertThat(shopClient.getAuthToken()).isNull();
     }
 
     @Test
@@ -211,6 +210,7 @@ public class ShopOrderTest {
         assertThat(order.getLines().get(0).getId()).isEqualTo(1L);
         firstOrderLineId = order.getLines().get(0).getId();
         orderCode = order.getCode();
+        assertThat(shopClient.getAuthToken()).isNotBlank();
     }
 
     @Test
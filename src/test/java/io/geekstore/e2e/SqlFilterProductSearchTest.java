@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.e2e;
+
+import io.geekstore.GeekStoreGraphQLTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the product search test suite with a filter id list limit of 1, so that the facet & collection filters
+ * matching more than one variant are applied in SQL rather than as a list of ids.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+@GeekStoreGraphQLTest
+@TestPropertySource(properties = "geekstore.search-options.filter-id-list-limit=1")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+public class SqlFilterProductSearchTest extends ProductSearchTest {
+}
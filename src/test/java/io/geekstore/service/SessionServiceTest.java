@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service;
+
+import io.geekstore.config.auth.AuthConfig;
+import io.geekstore.config.session_cache.CachedSession;
+import io.geekstore.config.session_cache.FileSharedSessionStore;
+import io.geekstore.config.session_cache.TwoTierSessionCacheStrategy;
+import io.geekstore.entity.SessionEntity;
+import io.geekstore.entity.UserRoleJoinEntity;
+import io.geekstore.mapper.SessionEntityMapper;
+import io.geekstore.mapper.UserRoleJoinEntityMapper;
+import io.geekstore.options.ConfigOptions;
+import io.geekstore.service.helpers.SessionCacheIndex;
+import io.geekstore.service.helpers.SessionExpiryBuffer;
+import io.geekstore.types.common.Permission;
+import io.geekstore.types.role.Role;
+import io.geekstore.types.user.User;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two session services whose shared session stores use the same directory stand in for two servers sharing a
+ * session cache, and a database.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SessionServiceTest {
+
+    @TempDir
+    Path sharedDir;
+
+    private SessionEntityMapper sessionEntityMapper;
+    private UserRoleJoinEntityMapper userRoleJoinEntityMapper;
+    private UserService userService;
+    private Map<String, SessionEntity> sessionsByToken;
+    private FileSharedSessionStore store1;
+    private FileSharedSessionStore store2;
+    private SessionService server1;
+    private SessionService server2;
+    private String requestedToken;
+
+    @BeforeAll
+    static void beforeAll() {
+        // lambda条件需要实体的表信息
+        initTableInfo(SessionEntityMapper.class, SessionEntity.class);
+        initTableInfo(UserRoleJoinEntityMapper.class, UserRoleJoinEntity.class);
+    }
+
+    private static void initTableInfo(Class<?> mapperClass, Class<?> entityClass) {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        assistant.setCurrentNamespace(mapperClass.getName());
+        TableInfoHelper.initTableInfo(assistant, entityClass);
+    }
+
+    private SessionEntity session(Long id, String token, Long userId) {
+        SessionEntity session = new SessionEntity();
+        session.setId(id);
+        session.setToken(token);
+        session.setUserId(userId);
+        session.setExpires(new Date(System.currentTimeMillis() + 3600000));
+        session.setAuthenticationStrategy("native");
+        return session;
+    }
+
+    private UserRoleJoinEntity userRole(Long userId, Long roleId) {
+        UserRoleJoinEntity userRole = new UserRoleJoinEntity();
+        userRole.setUserId(userId);
+        userRole.setRoleId(roleId);
+        return userRole;
+    }
+
+    private User user(Long id, Long roleId, Permission... permissions) {
+        Role role = new Role();
+        role.setId(roleId);
+        role.setPermissions(new ArrayList<>(Arrays.asList(permissions)));
+        User user = new User();
+        user.setId(id);
+        user.setIdentifier("user" + id + "@test.com");
+        user.setVerified(true);
+        user.getRoles().add(role);
+        return user;
+    }
+
+    private SessionService server(FileSharedSessionStore store) {
+        TwoTierSessionCacheStrategy sessionCacheStrategy = new TwoTierSessionCacheStrategy(store, 100, 60);
+        AuthConfig authConfig = new AuthConfig(Collections.emptyList(), Collections.emptyList());
+        authConfig.setSessionCacheStrategy(sessionCacheStrategy);
+        ConfigService configService = new ConfigService(new ConfigOptions());
+        ReflectionTestUtils.setField(configService, "authConfig", authConfig);
+
+        SessionExpiryBuffer sessionExpiryBuffer = Mockito.mock(SessionExpiryBuffer.class);
+        when(sessionExpiryBuffer.getExpires(any())).thenAnswer(
+                invocation -> invocation.<SessionEntity>getArgument(0).getExpires());
+        return new SessionService(configService, sessionEntityMapper, userRoleJoinEntityMapper, userService,
+                Mockito.mock(OrderService.class), new SessionCacheIndex(configService), sessionExpiryBuffer);
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        sessionsByToken = new HashMap<>();
+        sessionsByToken.put("abc", session(1L, "abc", 2L));
+        sessionsByToken.put("def", session(3L, "def", 4L));
+
+        sessionEntityMapper = Mockito.mock(SessionEntityMapper.class);
+        // 查询条件不在mock中求值，返回正在请求的会话
+        when(sessionEntityMapper.selectOne(any())).thenAnswer(invocation -> sessionsByToken.get(requestedToken));
+        userRoleJoinEntityMapper = Mockito.mock(UserRoleJoinEntityMapper.class);
+        when(userRoleJoinEntityMapper.selectList(any())).thenReturn(Collections.singletonList(userRole(2L, 10L)));
+        userService = Mockito.mock(UserService.class);
+        when(userService.loadUserWithRolesById(2L)).thenReturn(user(2L, 10L, Permission.Authenticated));
+        when(userService.loadUserWithRolesById(4L)).thenReturn(user(4L, 20L, Permission.Authenticated));
+
+        store1 = new FileSharedSessionStore(sharedDir.toString(), 0);
+        store2 = new FileSharedSessionStore(sharedDir.toString(), 0);
+        server1 = server(store1);
+        server2 = server(store2);
+    }
+
+    @AfterEach
+    void afterEach() {
+        store1.close();
+        store2.close();
+    }
+
+    private CachedSession getSession(SessionService server, String token) {
+        requestedToken = token;
+        return server.getSessionFromToken(token);
+    }
+
+    @Test
+    public void role_change_through_one_server_evicts_the_sessions_cached_by_another() {
+        assertThat(getSession(server2, "abc").getUser().getPermissions()).containsExactly(Permission.Authenticated);
+        // 由第二台服务器缓存，第一台服务器的索引中没有该会话
+        assertThat(getSession(server1, "abc").getUser().getPermissions()).containsExactly(Permission.Authenticated);
+        verify(userService, times(1)).loadUserWithRolesById(2L);
+
+        when(sessionEntityMapper.selectList(any())).thenReturn(Collections.singletonList(sessionsByToken.get("abc")));
+        when(userService.loadUserWithRolesById(2L))
+                .thenReturn(user(2L, 10L, Permission.Authenticated, Permission.ReadCatalog));
+        server1.evictCachedSessionsByRoleId(10L);
+        store2.pollInvalidations();
+
+        assertThat(getSession(server2, "abc").getUser().getPermissions())
+                .containsExactlyInAnyOrder(Permission.Authenticated, Permission.ReadCatalog);
+        assertThat(getSession(server1, "abc").getUser().getPermissions())
+                .containsExactlyInAnyOrder(Permission.Authenticated, Permission.ReadCatalog);
+    }
+
+    @Test
+    public void role_change_keeps_the_sessions_of_users_without_the_role_cached() {
+        getSession(server2, "abc");
+        getSession(server2, "def");
+        when(sessionEntityMapper.selectList(any())).thenReturn(Collections.singletonList(sessionsByToken.get("abc")));
+
+        server1.evictCachedSessionsByRoleId(10L);
+        store2.pollInvalidations();
+
+        assertThat(store2.get("abc")).isNull();
+        assertThat(store2.get("def")).isNotNull();
+        getSession(server2, "def");
+        getSession(server1, "def");
+        // 没有该角色的会话未被清除，仍由缓存提供
+        verify(userService, times(1)).loadUserWithRolesById(4L);
+        verify(userRoleJoinEntityMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    public void role_assignment_through_one_server_evicts_only_the_sessions_of_the_user() {
+        getSession(server2, "abc");
+        getSession(server2, "def");
+        when(sessionEntityMapper.selectList(any())).thenReturn(Collections.singletonList(sessionsByToken.get("abc")));
+
+        when(userService.loadUserWithRolesById(2L))
+                .thenReturn(user(2L, 20L, Permission.Authenticated, Permission.ReadCatalog));
+        server1.evictCachedSessionsByUserId(2L);
+        store2.pollInvalidations();
+
+        assertThat(store2.get("abc")).isNull();
+        assertThat(store2.get("def")).isNotNull();
+        assertThat(getSession(server2, "abc").getUser().getPermissions())
+                .containsExactlyInAnyOrder(Permission.Authenticated, Permission.ReadCatalog);
+        verify(userService, times(1)).loadUserWithRolesById(4L);
+    }
+}
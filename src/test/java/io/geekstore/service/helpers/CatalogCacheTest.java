@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.entity.AssetEntity;
+import io.geekstore.entity.FacetValueEntity;
+import io.geekstore.eventbus.events.AssetEvent;
+import io.geekstore.options.ConfigOptions;
+import io.geekstore.service.ConfigService;
+import com.google.common.eventbus.EventBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class CatalogCacheTest {
+
+    private CatalogCache cache;
+    private AtomicInteger loads;
+    private Set<Long> loadedIds;
+
+    private AssetEntity asset(Long id) {
+        AssetEntity asset = new AssetEntity();
+        asset.setId(id);
+        return asset;
+    }
+
+    private CatalogCache newCache(boolean enabled) {
+        ConfigOptions configOptions = new ConfigOptions();
+        configOptions.getDataLoaderOptions().setCatalogCacheEnabled(enabled);
+        return new CatalogCache(new ConfigService(configOptions), new SimpleMeterRegistry(), new EventBus());
+    }
+
+    private Map<Long, AssetEntity> getAssets(Long... ids) {
+        return cache.getAssets(new HashSet<>(Arrays.asList(ids)), assetLoader());
+    }
+
+    private Function<Set<Long>, Map<Long, AssetEntity>> assetLoader() {
+        return ids -> {
+            loads.incrementAndGet();
+            loadedIds.addAll(ids);
+            Map<Long, AssetEntity> result = new HashMap<>();
+            ids.stream().filter(id -> id < 100).forEach(id -> result.put(id, asset(id)));
+            return result;
+        };
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        cache = newCache(true);
+        loads = new AtomicInteger();
+        loadedIds = new HashSet<>();
+    }
+
+    @Test
+    public void loads_only_missing_ids() {
+        assertThat(getAssets(1L, 2L)).containsOnlyKeys(1L, 2L);
+        assertThat(getAssets(1L, 2L, 3L)).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(loadedIds).containsExactlyInAnyOrder(1L, 2L, 3L);
+
+        getAssets(3L, 1L);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void does_not_cache_missing_entities() {
+        assertThat(getAssets(100L)).isEmpty();
+        assertThat(getAssets(100L)).isEmpty();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void caches_empty_lists() {
+        Function<Set<Long>, Map<Long, List<FacetValueEntity>>> loader = ids -> {
+            loads.incrementAndGet();
+            return new HashMap<>();
+        };
+        Map<Long, List<FacetValueEntity>> result = cache.getFacetValues(Collections.singleton(1L), loader);
+        assertThat(result.get(1L)).isEmpty();
+
+        cache.getFacetValues(Collections.singleton(1L), loader);
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.evictFacet(1L);
+        cache.getFacetValues(Collections.singleton(1L), loader);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void evicts_assets_on_update_and_deletion() {
+        getAssets(1L, 2L, 3L);
+
+        cache.onEvent(new AssetEvent(null, asset(1L), "updated"));
+        cache.onEvent(new AssetEvent(null, asset(2L), "deleted"));
+        cache.onEvent(new AssetEvent(null, asset(3L), "created"));
+
+        loadedIds.clear();
+        getAssets(1L, 2L, 3L);
+        assertThat(loadedIds).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    public void does_not_cache_values_loaded_during_an_eviction() {
+        cache.getAssets(Collections.singleton(1L), ids -> {
+            loads.incrementAndGet();
+            cache.onEvent(new AssetEvent(null, asset(1L), "updated"));
+            return Collections.singletonMap(1L, asset(1L));
+        });
+
+        getAssets(1L);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void always_loads_when_disabled() {
+        cache = newCache(false);
+        getAssets(1L);
+        getAssets(1L);
+        assertThat(loads.get()).isEqualTo(2);
+
+        cache.evictOptionGroup(1L);
+    }
+}
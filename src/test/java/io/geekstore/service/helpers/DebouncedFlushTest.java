@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class DebouncedFlushTest {
+
+    private DebouncedFlush debouncedFlush;
+
+    @AfterEach
+    void afterEach() {
+        debouncedFlush.shutdown();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (debouncedFlush.isPending() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void requests_within_the_delay_are_served_by_one_flush() throws Exception {
+        AtomicInteger flushes = new AtomicInteger();
+        debouncedFlush = new DebouncedFlush("TestFlush-", () -> 200, flushes::incrementAndGet);
+
+        for(int i = 0; i < 10; i++) {
+            debouncedFlush.request();
+        }
+        assertThat(debouncedFlush.isPending()).isTrue();
+        assertThat(flushes.get()).isEqualTo(0);
+
+        awaitIdle();
+        assertThat(flushes.get()).isEqualTo(1);
+
+        debouncedFlush.request();
+        awaitIdle();
+        assertThat(flushes.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void request_during_a_flush_schedules_another_one() throws Exception {
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        AtomicInteger flushes = new AtomicInteger();
+        debouncedFlush = new DebouncedFlush("TestFlush-", () -> 0, () -> {
+            if (flushes.incrementAndGet() == 1) {
+                flushStarted.countDown();
+                try {
+                    releaseFlush.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        debouncedFlush.request();
+        assertThat(flushStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        debouncedFlush.request();
+        releaseFlush.countDown();
+
+        awaitIdle();
+        assertThat(flushes.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void does_not_block_the_requesting_thread() {
+        debouncedFlush = new DebouncedFlush("TestFlush-", () -> 60000, () -> {});
+
+        long start = System.nanoTime();
+        debouncedFlush.request();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        assertThat(debouncedFlush.isPending()).isTrue();
+    }
+}
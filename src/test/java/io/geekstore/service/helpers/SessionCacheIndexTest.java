@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.config.session_cache.CachedSession;
+import io.geekstore.config.session_cache.CachedSessionUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SessionCacheIndexTest {
+
+    private SessionCacheIndex index;
+
+    private CachedSession session(String token, Long userId, Long... roleIds) {
+        CachedSession session = new CachedSession();
+        session.setToken(token);
+        if (userId != null) {
+            CachedSessionUser user = new CachedSessionUser();
+            user.setId(userId);
+            user.setRoleIds(Arrays.asList(roleIds));
+            session.setUser(user);
+        }
+        return session;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        index = new SessionCacheIndex(300);
+    }
+
+    @Test
+    public void finds_tokens_by_user_and_role() {
+        index.add(session("a", 1L, 10L, 20L));
+        index.add(session("b", 1L, 10L, 20L));
+        index.add(session("c", 2L, 20L));
+        index.add(session("d", null));
+
+        assertThat(index.getTokensByUserId(1L)).containsExactlyInAnyOrder("a", "b");
+        assertThat(index.getTokensByUserId(2L)).containsExactly("c");
+        assertThat(index.getTokensByRoleId(10L)).containsExactlyInAnyOrder("a", "b");
+        assertThat(index.getTokensByRoleId(20L)).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(index.getTokensByRoleId(30L)).isEmpty();
+    }
+
+    @Test
+    public void reindexes_changed_sessions() {
+        index.add(session("a", 1L, 10L));
+        index.add(session("a", 1L, 20L));
+
+        assertThat(index.getTokensByRoleId(10L)).isEmpty();
+        assertThat(index.getTokensByRoleId(20L)).containsExactly("a");
+
+        // logged out and the token reused by an anonymous session
+        index.add(session("a", null));
+        assertThat(index.getTokensByUserId(1L)).isEmpty();
+        assertThat(index.getTokensByRoleId(20L)).isEmpty();
+    }
+
+    @Test
+    public void removes_tokens() {
+        index.add(session("a", 1L, 10L));
+        index.add(session("b", 1L, 10L));
+        index.remove("a");
+
+        assertThat(index.getTokensByUserId(1L)).containsExactly("b");
+        assertThat(index.getTokensByRoleId(10L)).containsExactly("b");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers;
+
+import io.geekstore.options.ConfigOptions;
+import io.geekstore.service.ConfigService;
+import io.geekstore.types.common.Permission;
+import io.geekstore.types.role.Role;
+import io.geekstore.types.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class UserCacheTest {
+
+    private UserCache cache;
+    private AtomicInteger loads;
+
+    private User user(Long id, String identifier, Long roleId) {
+        Role role = new Role();
+        role.setId(roleId);
+        role.setPermissions(Collections.singletonList(Permission.ReadCatalog));
+        User user = new User();
+        user.setId(id);
+        user.setIdentifier(identifier);
+        user.getRoles().add(role);
+        return user;
+    }
+
+    private User load(Long id, Long roleId) {
+        return cache.getUser(id, () -> {
+            loads.incrementAndGet();
+            return user(id, "user" + id, roleId);
+        });
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        cache = new UserCache(new ConfigService(new ConfigOptions()), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void returns_copies_of_the_cached_users() {
+        User user = load(1L, 10L);
+        user.setIdentifier("changed");
+        user.getRoles().clear();
+
+        User cached = load(1L, 10L);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cached.getIdentifier()).isEqualTo("user1");
+        assertThat(cached.getRoles()).hasSize(1);
+    }
+
+    @Test
+    public void evicts_users_and_their_identifiers() {
+        load(1L, 10L);
+        cache.putUserId("user1", 1L, cache.getGeneration());
+
+        cache.evictUser(1L);
+        assertThat(cache.getUserId("user1")).isNull();
+        load(1L, 10L);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void evicts_only_the_users_with_the_role() {
+        load(1L, 10L);
+        load(2L, 20L);
+
+        cache.evictUsersByRoleId(10L);
+        load(1L, 10L);
+        load(2L, 20L);
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void does_not_cache_users_loaded_during_an_eviction() {
+        cache.getUser(1L, () -> {
+            loads.incrementAndGet();
+            cache.evictUser(1L);
+            return user(1L, "user1", 10L);
+        });
+
+        load(1L, 10L);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_index;
+
+import io.geekstore.entity.ProductVariantEntity;
+import io.geekstore.eventbus.SearchIndexRelatedSubscriber;
+import io.geekstore.eventbus.events.ProductVariantEvent;
+import io.geekstore.options.ConfigOptions;
+import io.geekstore.service.ConfigService;
+import io.geekstore.service.SearchIndexService;
+import com.google.common.eventbus.EventBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SearchIndexUpdateQueueTest {
+
+    private SearchIndexService searchIndexService;
+    private ConfigService configService;
+    private SearchIndexUpdateQueue queue;
+
+    @BeforeEach
+    void beforeEach() {
+        searchIndexService = Mockito.mock(SearchIndexService.class);
+        configService = new ConfigService(new ConfigOptions());
+        queue = new SearchIndexUpdateQueue(searchIndexService, configService, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void afterEach() {
+        queue.shutdown();
+    }
+
+    private void awaitFlush() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.isFlushPending() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.isFlushPending()).isFalse();
+    }
+
+    private List<ProductVariantEntity> variants(Long... ids) {
+        return Arrays.stream(ids).map(id -> {
+            ProductVariantEntity variant = new ProductVariantEntity();
+            variant.setId(id);
+            return variant;
+        }).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyBatch(Collection<Long> productIds, Collection<Long> variantIds) {
+        ArgumentCaptor<Collection<Long>> productCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<Long>> variantCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(searchIndexService, times(1))
+                .updateProductsAndVariants(productCaptor.capture(), variantCaptor.capture());
+        assertThat(productCaptor.getValue()).containsExactlyInAnyOrderElementsOf(productIds);
+        assertThat(variantCaptor.getValue()).containsExactlyInAnyOrderElementsOf(variantIds);
+    }
+
+    @Test
+    public void duplicate_ids_are_applied_once_in_one_batch() throws Exception {
+        configService.getSearchOptions().setIndexUpdateDelay(200);
+
+        queue.addVariants(Arrays.asList(1L, 2L));
+        queue.addVariants(Arrays.asList(2L, 3L));
+        queue.addVariants(Collections.singletonList(1L));
+        queue.addProducts(Collections.singletonList(5L));
+        queue.addProducts(Collections.singletonList(5L));
+
+        assertThat(queue.size()).isEqualTo(4);
+        assertThat(queue.isFlushPending()).isTrue();
+        verify(searchIndexService, never()).updateProductsAndVariants(any(), any());
+
+        awaitFlush();
+        verifyBatch(Collections.singletonList(5L), Arrays.asList(1L, 2L, 3L));
+        assertThat(queue.size()).isEqualTo(0);
+        assertThat(queue.lag()).isEqualTo(0);
+    }
+
+    @Test
+    public void changes_after_a_flush_go_into_the_next_batch() throws Exception {
+        configService.getSearchOptions().setIndexUpdateDelay(0);
+
+        queue.addVariants(Collections.singletonList(1L));
+        awaitFlush();
+        queue.addVariants(Collections.singletonList(1L));
+        awaitFlush();
+
+        verify(searchIndexService, times(2)).updateProductsAndVariants(
+                eq(Collections.emptySet()), eq(Collections.singleton(1L)));
+    }
+
+    @Test
+    public void delete_cancels_the_queued_update_of_the_same_variant() throws Exception {
+        configService.getSearchOptions().setIndexUpdateDelay(60000);
+        SearchIndexRelatedSubscriber subscriber =
+                new SearchIndexRelatedSubscriber(new EventBus(), searchIndexService, queue);
+
+        subscriber.onEvent(new ProductVariantEvent(null, variants(1L, 2L), "updated"));
+        subscriber.onEvent(new ProductVariantEvent(null, variants(1L), "deleted"));
+
+        // 删除立即生效，不等待批量更新
+        verify(searchIndexService, times(1)).deleteVariants(Collections.singletonList(1L));
+        assertThat(queue.size()).isEqualTo(1);
+
+        queue.flush();
+        verifyBatch(Collections.emptyList(), Collections.singletonList(2L));
+    }
+}
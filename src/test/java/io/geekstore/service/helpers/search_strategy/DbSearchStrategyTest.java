@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.mapper.SearchIndexItemEntityMapper;
+import io.geekstore.options.ConfigOptions;
+import io.geekstore.service.ConfigService;
+import io.geekstore.service.helpers.TotalItemsCounter;
+import io.geekstore.types.common.SearchInput;
+import io.geekstore.types.search.SearchResult;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static io.geekstore.service.helpers.search_strategy.SearchIndexItemBuilder.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class DbSearchStrategyTest {
+
+    private SearchIndexItemEntityMapper mapper;
+    private DbSearchStrategy strategy;
+
+    @BeforeAll
+    static void beforeAll() {
+        // lambda条件需要实体的表信息
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        assistant.setCurrentNamespace(SearchIndexItemEntityMapper.class.getName());
+        TableInfoHelper.initTableInfo(assistant, SearchIndexItemEntity.class);
+    }
+
+    private Map<String, Object> row(Long id, Integer score) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("PRODUCT_VARIANT_ID", id);
+        if (score != null) row.put("SCORE", score);
+        return row;
+    }
+
+    private List<Long> ids(List<SearchResult> results) {
+        return results.stream().map(SearchResult::getProductVariantId).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        List<SearchIndexItemEntity> items = Arrays.asList(
+                variant(10L).variantName("Laptop 10").facetValueIds(1L, 2L).build(),
+                variant(20L).variantName("Laptop 20").facetValueIds(1L).build(),
+                variant(30L).variantName("Laptop 30").facetValueIds(2L).build());
+        SearchFilterIndex searchFilterIndex = new SearchFilterIndex(null);
+        searchFilterIndex.replaceAll(items);
+
+        mapper = Mockito.mock(SearchIndexItemEntityMapper.class);
+        when(mapper.selectBatchIds(any())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            return items.stream().filter(i -> ids.contains(i.getProductVariantId())).collect(Collectors.toList());
+        });
+
+        ConfigService configService = new ConfigService(new ConfigOptions());
+        strategy = new DbSearchStrategy();
+        ReflectionTestUtils.setField(strategy, "searchIndexItemEntityMapper", mapper);
+        ReflectionTestUtils.setField(strategy, "searchStrategyUtils", new SearchStrategyUtils());
+        ReflectionTestUtils.setField(strategy, "searchFilterIndex", searchFilterIndex);
+        ReflectionTestUtils.setField(strategy, "totalItemsCounter",
+                new TotalItemsCounter(configService, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(strategy, "configService", configService);
+    }
+
+    @Test
+    public void term_search_derives_page_total_and_facet_counts_from_one_query() {
+        when(mapper.selectMaps(any())).thenReturn(Arrays.asList(row(30L, 10), row(10L, 3), row(20L, 2)));
+
+        SearchInput input = new SearchInput();
+        input.setTerm("laptop");
+        input.setPageSize(2);
+        SearchStrategyResult result = strategy.search(input, true);
+
+        assertThat(result.getTotalItems()).isEqualTo(3);
+        assertThat(ids(result.getItems())).containsExactly(30L, 10L);
+        assertThat(result.getItems().get(0).getScore()).isEqualTo(10);
+        assertThat(result.getFacetValueCounts()).containsEntry(1L, 2).containsEntry(2L, 2);
+        assertThat(result.getNextCursor()).isNotNull();
+
+        // 匹配行只查询一次，总数不再单独count
+        verify(mapper, times(1)).selectMaps(any());
+        verify(mapper, never()).selectCount(any());
+        verify(mapper, never()).selectMapsPage(any(), any());
+        verify(mapper, times(1)).selectBatchIds(any());
+    }
+
+    @Test
+    public void filter_search_takes_total_and_facet_counts_from_the_bitmaps() {
+        when(mapper.selectMapsPage(any(), any())).thenAnswer(invocation -> {
+            IPage<Map<String, Object>> page = invocation.getArgument(0);
+            page.setRecords(Collections.singletonList(row(10L, null)));
+            return page;
+        });
+
+        SearchInput input = new SearchInput();
+        input.setFacetValueIds(Collections.singletonList(1L));
+        input.setPageSize(1);
+        SearchStrategyResult result = strategy.search(input, true);
+
+        assertThat(result.getTotalItems()).isEqualTo(2);
+        assertThat(ids(result.getItems())).containsExactly(10L);
+        assertThat(result.getFacetValueCounts()).containsEntry(1L, 2).containsEntry(2L, 1);
+        assertThat(result.getNextCursor()).isNotNull();
+
+        verify(mapper, times(1)).selectMapsPage(any(), any());
+        verify(mapper, never()).selectCount(any());
+        verify(mapper, never()).selectMaps(any());
+    }
+
+    @Test
+    public void filters_matching_nothing_issue_no_query() {
+        SearchInput input = new SearchInput();
+        input.setTerm("laptop");
+        input.setFacetValueIds(Collections.singletonList(99L));
+        SearchStrategyResult result = strategy.search(input, true);
+
+        assertThat(result.getTotalItems()).isEqualTo(0);
+        assertThat(result.getItems()).isEmpty();
+        verifyNoInteractions(mapper);
+    }
+}
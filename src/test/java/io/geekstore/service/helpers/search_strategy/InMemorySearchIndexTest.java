@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.geekstore.service.helpers.search_strategy.SearchIndexItemBuilder.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class InMemorySearchIndexTest {
+
+    private Map<Long, Integer> scores(InMemorySearchIndex index, String term) {
+        return index.query(term, Arrays.asList(1L, 2L, 3L, 4L)).stream().collect(Collectors.toMap(
+                m -> m.getItem().getProductVariantId(), InMemorySearchIndex.ScoredItem::getScore));
+    }
+
+    @Test
+    public void tokenizes_and_normalizes() {
+        assertThat(InMemorySearchIndex.tokenize("Curaçao  Hard-Drive 1TB"))
+                .containsExactly("curacao", "hard", "drive", "1tb");
+        assertThat(InMemorySearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    public void scores_by_highest_weighted_matching_field() {
+        InMemorySearchIndex index = new InMemorySearchIndex();
+        index.put(Arrays.asList(
+                variant(1L).sku("CAMERA01").productName("Instant Camera").variantName("Instant Camera")
+                        .description("A camera").build(),
+                variant(2L).sku("L2201308").productName("Camera Lens").variantName("Camera Lens")
+                        .description("A lens").build(),
+                variant(3L).sku("TRIPOD01").productName("Tripod").variantName("Tripod Black")
+                        .description("Holds your camera steady").build(),
+                variant(4L).sku("B0001").productName("Road Bike").variantName("Road Bike")
+                        .description("A bike").build()
+        ));
+
+        Map<Long, Integer> scores = scores(index, "camera");
+        assertThat(scores).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(scores.get(1L)).isEqualTo(10);
+        assertThat(scores.get(2L)).isEqualTo(3);
+        assertThat(scores.get(3L)).isEqualTo(1);
+    }
+
+    @Test
+    public void requires_all_term_tokens_within_one_field_and_matches_prefixes() {
+        InMemorySearchIndex index = new InMemorySearchIndex();
+        index.put(Arrays.asList(
+                variant(1L).sku("IHD455T1").productName("Hard Drive").variantName("Hard Drive 1TB").build(),
+                variant(2L).sku("IHD455T2").productName("Hard Case").variantName("Hard Case")
+                        .description("For your drive").build()
+        ));
+
+        assertThat(scores(index, "hard drive")).containsOnlyKeys(1L);
+        assertThat(scores(index, "ihd455")).containsOnlyKeys(1L, 2L);
+        assertThat(scores(index, "hard dri")).containsOnlyKeys(1L);
+    }
+
+    @Test
+    public void put_replaces_and_remove_deletes_postings() {
+        InMemorySearchIndex index = new InMemorySearchIndex();
+        index.put(Collections.singletonList(
+                variant(1L).sku("IHD455T1").productName("Hard Drive").variantName("Hard Drive").build()));
+        index.put(Collections.singletonList(
+                variant(1L).sku("IHD455T1_updated").productName("Memory Stick").variantName("Memory Stick").build()));
+
+        assertThat(scores(index, "drive")).isEmpty();
+        assertThat(scores(index, "memory")).containsOnlyKeys(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(Collections.singletonList(1L));
+        assertThat(scores(index, "memory")).isEmpty();
+        assertThat(index.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void restricts_results_to_candidates() {
+        InMemorySearchIndex index = new InMemorySearchIndex();
+        index.put(Arrays.asList(
+                variant(1L).sku("A").productName("Foo").variantName("Foo").build(),
+                variant(2L).sku("B").productName("Foo Bar").variantName("Foo Bar").build()));
+
+        List<InMemorySearchIndex.ScoredItem> result = index.query(null, Collections.singletonList(1L));
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getItem().getProductVariantId()).isEqualTo(1L);
+        assertThat(result.get(0).getScore()).isNull();
+
+        result = index.query("foo", Collections.singletonList(2L));
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getItem().getProductVariantId()).isEqualTo(2L);
+        assertThat(result.get(0).getScore()).isEqualTo(3);
+    }
+}
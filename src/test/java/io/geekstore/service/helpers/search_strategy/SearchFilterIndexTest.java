@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.types.common.LogicalOperator;
+import io.geekstore.types.common.SearchInput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.geekstore.service.helpers.search_strategy.SearchIndexItemBuilder.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SearchFilterIndexTest {
+
+    private SearchFilterIndex index;
+
+    private List<Long> match(SearchInput input, boolean enabledOnly) {
+        return index.toProductVariantIds(index.match(input, enabledOnly));
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        index = new SearchFilterIndex(null);
+        SearchIndexItemEntity item3 = variant(30L).enabled(false).facetValueIds(2L, 3L).collectionIds(7L).build();
+        item3.setCollectionSlugs(Collections.singletonList("plants"));
+        index.replaceAll(Arrays.asList(
+                variant(10L).facetValueIds(1L, 2L).build(),
+                variant(20L).facetValueIds(1L).collectionIds(7L).build(),
+                item3));
+    }
+
+    @Test
+    public void facet_value_operators() {
+        SearchInput input = new SearchInput();
+        input.setFacetValueIds(Arrays.asList(1L, 2L));
+        input.setFacetValueOperator(LogicalOperator.AND);
+        assertThat(match(input, false)).containsExactly(10L);
+
+        input.setFacetValueOperator(LogicalOperator.OR);
+        assertThat(match(input, false)).containsExactly(10L, 20L, 30L);
+        assertThat(match(input, true)).containsExactly(10L, 20L);
+
+        input.setFacetValueIds(Collections.singletonList(99L));
+        assertThat(match(input, false)).isEmpty();
+    }
+
+    @Test
+    public void collection_filters() {
+        SearchInput input = new SearchInput();
+        input.setCollectionId(7L);
+        assertThat(match(input, false)).containsExactly(20L, 30L);
+
+        input = new SearchInput();
+        input.setCollectionSlug("plants");
+        assertThat(match(input, false)).containsExactly(30L);
+    }
+
+    @Test
+    public void counts_facet_values_and_follows_updates() {
+        assertThat(index.countFacetValues(index.match(new SearchInput(), false)))
+                .containsEntry(1L, 2).containsEntry(2L, 2).containsEntry(3L, 1);
+
+        index.put(Collections.singletonList(variant(10L).facetValueIds(3L).build()));
+        index.remove(Collections.singletonList(20L));
+
+        assertThat(index.countFacetValues(index.match(new SearchInput(), false)))
+                .doesNotContainKey(1L).containsEntry(2L, 1).containsEntry(3L, 2);
+        assertThat(match(new SearchInput(), false)).containsExactly(10L, 30L);
+    }
+}
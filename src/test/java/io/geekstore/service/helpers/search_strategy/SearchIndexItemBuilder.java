@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Builds the {@link SearchIndexItemEntity} fixtures of the search tests. Items are enabled and have no facet
+ * values or collections unless set otherwise.
+ *
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SearchIndexItemBuilder {
+    private final SearchIndexItemEntity item = new SearchIndexItemEntity();
+
+    private SearchIndexItemBuilder(Long productVariantId) {
+        this.item.setProductVariantId(productVariantId);
+        this.item.setEnabled(true);
+        this.item.setFacetValueIds(new ArrayList<>());
+        this.item.setCollectionIds(new ArrayList<>());
+    }
+
+    public static SearchIndexItemBuilder variant(Long productVariantId) {
+        return new SearchIndexItemBuilder(productVariantId);
+    }
+
+    public SearchIndexItemBuilder productId(Long productId) {
+        this.item.setProductId(productId);
+        return this;
+    }
+
+    /**
+     * Sets the product name, and the slug derived from it.
+     */
+    public SearchIndexItemBuilder productName(String productName) {
+        this.item.setProductName(productName);
+        this.item.setSlug(productName.toLowerCase().replace(' ', '-'));
+        return this;
+    }
+
+    public SearchIndexItemBuilder variantName(String productVariantName) {
+        this.item.setProductVariantName(productVariantName);
+        return this;
+    }
+
+    public SearchIndexItemBuilder sku(String sku) {
+        this.item.setSku(sku);
+        return this;
+    }
+
+    public SearchIndexItemBuilder description(String description) {
+        this.item.setDescription(description);
+        return this;
+    }
+
+    public SearchIndexItemBuilder enabled(boolean enabled) {
+        this.item.setEnabled(enabled);
+        return this;
+    }
+
+    public SearchIndexItemBuilder facetValueIds(Long... facetValueIds) {
+        this.item.setFacetValueIds(new ArrayList<>(Arrays.asList(facetValueIds)));
+        return this;
+    }
+
+    public SearchIndexItemBuilder collectionIds(Long... collectionIds) {
+        this.item.setCollectionIds(new ArrayList<>(Arrays.asList(collectionIds)));
+        return this;
+    }
+
+    public SearchIndexItemEntity build() {
+        return this.item;
+    }
+}
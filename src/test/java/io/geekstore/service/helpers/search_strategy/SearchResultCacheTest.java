@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.entity.SearchIndexItemEntity;
+import io.geekstore.options.ConfigOptions;
+import io.geekstore.service.ConfigService;
+import io.geekstore.types.common.SearchInput;
+import com.google.common.base.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.geekstore.service.helpers.search_strategy.SearchIndexItemBuilder.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SearchResultCacheTest {
+
+    private SearchFilterIndex searchFilterIndex;
+    private SearchResultCache cache;
+    private AtomicInteger searches;
+    private AtomicLong nanos;
+
+    private SearchInput collectionInput(Long collectionId) {
+        SearchInput input = new SearchInput();
+        input.setCollectionId(collectionId);
+        return input;
+    }
+
+    private void search(SearchInput input) {
+        cache.get(input, true, () -> {
+            searches.incrementAndGet();
+            return new SearchStrategyResult();
+        });
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        searchFilterIndex = new SearchFilterIndex(null);
+        searchFilterIndex.replaceAll(Arrays.asList(
+                variant(10L).collectionIds(1L).build(),
+                variant(20L).collectionIds(2L).build()));
+        nanos = new AtomicLong();
+        cache = new SearchResultCache(searchFilterIndex, new ConfigService(new ConfigOptions()),
+                new SimpleMeterRegistry(), new Ticker() {
+                    @Override
+                    public long read() {
+                        return nanos.get();
+                    }
+                });
+        searches = new AtomicInteger();
+    }
+
+    @Test
+    public void equivalent_inputs_share_an_entry() {
+        SearchInput input1 = new SearchInput();
+        input1.setTerm(" Laptop ");
+        input1.setFacetValueIds(Arrays.asList(2L, 1L));
+
+        SearchInput input2 = new SearchInput();
+        input2.setTerm("laptop");
+        input2.setFacetValueIds(Arrays.asList(1L, 2L, 1L));
+        input2.setCurrentPage(1);
+        input2.setPageSize(25);
+
+        search(input1);
+        search(input2);
+        assertThat(searches.get()).isEqualTo(1);
+
+        input2.setPageSize(10);
+        search(input2);
+        assertThat(searches.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void evicts_only_entries_affected_by_saved_items() {
+        search(collectionInput(1L));
+        search(collectionInput(2L));
+        search(new SearchInput());
+        assertThat(searches.get()).isEqualTo(3);
+
+        // variant 10 moves from collection 1 into collection 3
+        List<SearchIndexItemEntity> changed = Collections.singletonList(variant(10L).collectionIds(3L).build());
+        searchFilterIndex.put(changed);
+        cache.onIndexItemsSaved(changed);
+
+        search(collectionInput(2L));
+        assertThat(searches.get()).isEqualTo(3);
+
+        search(collectionInput(1L));
+        search(new SearchInput());
+        assertThat(searches.get()).isEqualTo(5);
+
+        // a new variant joins collection 2
+        changed = Collections.singletonList(variant(30L).collectionIds(2L).build());
+        searchFilterIndex.put(changed);
+        cache.onIndexItemsSaved(changed);
+
+        search(collectionInput(1L));
+        assertThat(searches.get()).isEqualTo(5);
+        search(collectionInput(2L));
+        assertThat(searches.get()).isEqualTo(6);
+    }
+
+    @Test
+    public void evicts_entries_affected_by_removed_items() {
+        search(collectionInput(1L));
+        search(collectionInput(2L));
+
+        searchFilterIndex.remove(Collections.singletonList(20L));
+        cache.onIndexItemsRemoved(Collections.singletonList(20L));
+
+        search(collectionInput(1L));
+        assertThat(searches.get()).isEqualTo(2);
+        search(collectionInput(2L));
+        assertThat(searches.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void does_not_cache_results_computed_during_an_eviction() {
+        SearchInput input = collectionInput(1L);
+        cache.get(input, true, () -> {
+            searches.incrementAndGet();
+            cache.onIndexItemsRemoved(Collections.singletonList(20L));
+            return new SearchStrategyResult();
+        });
+
+        search(input);
+        assertThat(searches.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void entries_expire_after_the_ttl() {
+        search(collectionInput(1L));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        search(collectionInput(1L));
+        assertThat(searches.get()).isEqualTo(1);
+
+        // 其他服务器的索引更新不会触发驱逐，过期后重新搜索
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        search(collectionInput(1L));
+        assertThat(searches.get()).isEqualTo(2);
+    }
+}
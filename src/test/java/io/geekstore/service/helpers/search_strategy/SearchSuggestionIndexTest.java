@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 GeekStore.
+ * All rights reserved.
+ */
+
+package io.geekstore.service.helpers.search_strategy;
+
+import io.geekstore.types.search.SearchSuggestion;
+import io.geekstore.types.search.SearchSuggestionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.geekstore.service.helpers.search_strategy.SearchIndexItemBuilder.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created on Oct, 2026 by @author bobo
+ */
+public class SearchSuggestionIndexTest {
+
+    private SearchSuggestionIndex index;
+
+    private List<String> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(SearchSuggestion::getText).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        index = new SearchSuggestionIndex(null);
+        index.replaceAll(Arrays.asList(
+                variant(1L).productId(1L).productName("Instant Camera").sku("IC-001").build(),
+                variant(2L).productId(2L).productName("Camera Lens").sku("CL-001").build(),
+                variant(3L).productId(2L).productName("Camera Lens").sku("CL-002").build(),
+                variant(4L).productId(3L).productName("Café Crème").sku("CAF-1").build(),
+                variant(5L).productId(4L).productName("Cactus").sku("CAC-1").enabled(false).build()));
+    }
+
+    @Test
+    public void matches_the_start_of_any_word() {
+        assertThat(suggest("cam", 10)).containsExactlyInAnyOrder("Camera Lens", "Instant Camera");
+        assertThat(suggest("LENS", 10)).containsExactly("Camera Lens");
+        assertThat(suggest("amera", 10)).isEmpty();
+    }
+
+    @Test
+    public void suggests_product_names_once_per_product() {
+        List<SearchSuggestion> suggestions = index.suggest("camera l", 10);
+        assertThat(suggestions).hasSize(1);
+        assertThat(suggestions.get(0).getType()).isEqualTo(SearchSuggestionType.PRODUCT_NAME);
+        assertThat(suggestions.get(0).getProductId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void suggests_skus() {
+        List<SearchSuggestion> suggestions = index.suggest("cl 00", 10);
+        assertThat(suggestions).extracting(SearchSuggestion::getText).containsExactly("CL-001", "CL-002");
+        assertThat(suggestions).extracting(SearchSuggestion::getType)
+                .containsOnly(SearchSuggestionType.SKU);
+        assertThat(suggestions).extracting(SearchSuggestion::getProductVariantId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void ignores_diacritics_and_disabled_items() {
+        assertThat(suggest("cafe cr", 10)).containsExactly("Café Crème");
+        assertThat(suggest("cac", 10)).isEmpty();
+    }
+
+    @Test
+    public void respects_limit() {
+        assertThat(suggest("c", 2)).hasSize(2);
+        assertThat(suggest("", 10)).isEmpty();
+    }
+
+    @Test
+    public void updates_and_removals() {
+        index.put(Collections.singletonList(variant(1L).productId(1L).productName("Polaroid").sku("IC-001").build()));
+        assertThat(suggest("instant", 10)).isEmpty();
+        assertThat(suggest("pol", 10)).containsExactly("Polaroid");
+
+        index.remove(Collections.singletonList(1L));
+        assertThat(suggest("pol", 10)).isEmpty();
+    }
+}
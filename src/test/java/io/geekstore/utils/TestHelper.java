@@ -10,6 +10,7 @@ import io.geekstore.data_import.FacetValueCollectionFilterDefinition;
 import io.geekstore.data_import.InitialData;
 import io.geekstore.data_import.ShippingMethodData;
 import io.geekstore.service.ConfigService;
+import io.geekstore.service.helpers.search_index.SearchIndexUpdateQueue;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -32,6 +33,9 @@ public class TestHelper {
     @Autowired
     private ConfigService configService;
 
+    @Autowired
+    private SearchIndexUpdateQueue searchIndexUpdateQueue;
+
     public String getImportAssetsDir() {
         Path productsCsvPath = Paths.get("src","test", "resources", "fixtures", "assets");
         return productsCsvPath.toFile().getAbsolutePath();
@@ -91,6 +95,8 @@ public class TestHelper {
 
         do {
             runningTasks = this.executor.getActiveCount();
+            // 搜索索引的批量更新在自己的调度线程上等待及执行
+            if (this.searchIndexUpdateQueue.isFlushPending()) runningTasks++;
             timedOut = timeout < System.currentTimeMillis() - startTime;
         } while (runningTasks > 0 && !timedOut);
     }